@@ -3,9 +3,16 @@ package com.example.backend.adapter;
 import com.example.backend.dto.ProductRequestDto;
 import com.example.backend.dto.ProductResponseDto;
 import com.example.backend.model.Product;
+import com.example.backend.repository.ProductListingView;
+
+import java.util.List;
 
 public interface ProductAdapter {
     ProductResponseDto toDto(Product product);
+    ProductResponseDto toDto(Product product, List<String> imageUrls);
+    // List views: primary thumbnail only, no full image list
+    ProductResponseDto toListingDto(Product product, String thumbnailUrl);
+    ProductResponseDto toListingDto(ProductListingView view, String thumbnailUrl);
     Product toEntity(ProductRequestDto dto);
     void updateEntity(Product product, ProductRequestDto dto);
 }
\ No newline at end of file
@@ -4,10 +4,11 @@ import com.example.backend.dto.ProductRequestDto;
 import com.example.backend.dto.ProductResponseDto;
 import com.example.backend.model.*;
 import com.example.backend.repository.*;
-import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 @Component
 @RequiredArgsConstructor
 public class ProductAdapterImpl implements ProductAdapter {
@@ -18,38 +19,66 @@ public class ProductAdapterImpl implements ProductAdapter {
 
     @Override
     public ProductResponseDto toDto(Product product) {
+        return toDto(product, product.getImageUrls());
+    }
+
+    @Override
+    public ProductResponseDto toDto(Product product, List<String> imageUrls) {
         return ProductResponseDto.builder()
                 .id(product.getId())
                 .name(product.getName())
                 .description(product.getDescription())
                 .price(product.getPrice())
-                .stock(product.getStock())
-                .categoryName(product.getCategory() != null ? product.getCategory().getName() : "N/A")
-                .sellerName(product.getSeller() != null ? product.getSeller().getOwnerName() : "N/A")
-                .regionName(product.getRegion() != null ? product.getRegion().getName() : "N/A")
-                .imageUrls(product.getImageUrls()) // Return the list
+                .stock(product.currentStock()) // Includes striped buckets
+                .categoryId(product.getCategory() != null ? product.getCategory().getId() : null)
+                .categoryName(categoryName(product.getCategory()))
+                .sellerId(product.getSeller() != null ? product.getSeller().getId() : null)
+                .sellerName(sellerName(product.getSeller()))
+                .regionId(product.getRegion() != null ? product.getRegion().getId() : null)
+                .regionName(regionName(product.getRegion()))
+                .imageUrls(imageUrls) // Return the list
+                .version(product.currentVersion())
                 .build();
     }
 
     @Override
-    public Product toEntity(ProductRequestDto dto) {
-        Category category = categoryRepository.findById(dto.getCategoryId())
-                .orElseThrow(() -> new EntityNotFoundException("Category not found with ID: " + dto.getCategoryId()));
-
-        Seller seller = sellerRepository.findById(dto.getSellerId())
-                .orElseThrow(() -> new EntityNotFoundException("Seller not found with ID: " + dto.getSellerId()));
+    public ProductResponseDto toListingDto(Product product, String thumbnailUrl) {
+        ProductResponseDto dto = toDto(product, null);
+        dto.setThumbnailUrl(thumbnailUrl);
+        return dto;
+    }
 
-        Region region = regionRepository.findById(dto.getRegionId())
-                .orElseThrow(() -> new EntityNotFoundException("Region not found with ID: " + dto.getRegionId()));
+    @Override
+    public ProductResponseDto toListingDto(ProductListingView view, String thumbnailUrl) {
+        // Listing rows already carry the joined names, so nothing lazy is touched here
+        return ProductResponseDto.builder()
+                .id(view.getId())
+                .name(view.getName())
+                .description(view.getDescription())
+                .price(view.getPrice())
+                .stock(view.getStock() != null ? view.getStock() : 0)
+                .categoryId(view.getCategoryId())
+                .categoryName(view.getCategoryName() != null ? view.getCategoryName() : "N/A")
+                .sellerId(view.getSellerId())
+                .sellerName(view.getSellerName() != null ? view.getSellerName() : "N/A")
+                .regionId(view.getRegionId())
+                .regionName(view.getRegionName() != null ? view.getRegionName() : "N/A")
+                .thumbnailUrl(thumbnailUrl)
+                .version(view.getVersion())
+                .build();
+    }
 
+    @Override
+    public Product toEntity(ProductRequestDto dto) {
+        // FKs were validated by the service against the reference cache; attach proxies (no SELECTs)
         return Product.builder()
                 .name(dto.getName())
                 .description(dto.getDescription())
                 .price(dto.getPrice())
                 .stock(dto.getStock())
-                .category(category)
-                .seller(seller)
-                .region(region)
+                .category(categoryRepository.getReferenceById(dto.getCategoryId()))
+                .seller(sellerRepository.getReferenceById(dto.getSellerId()))
+                .region(regionRepository.getReferenceById(dto.getRegionId()))
                 // Image URLs are handled in the service
                 .build();
     }
@@ -62,16 +91,27 @@ public class ProductAdapterImpl implements ProductAdapter {
         if (dto.getStock() >= 0) product.setStock(dto.getStock());
 
         if (dto.getCategoryId() != null) {
-            product.setCategory(categoryRepository.findById(dto.getCategoryId())
-                    .orElseThrow(() -> new EntityNotFoundException("Category not found")));
+            product.setCategory(categoryRepository.getReferenceById(dto.getCategoryId()));
         }
         if (dto.getSellerId() != null) {
-            product.setSeller(sellerRepository.findById(dto.getSellerId())
-                    .orElseThrow(() -> new EntityNotFoundException("Seller not found")));
+            product.setSeller(sellerRepository.getReferenceById(dto.getSellerId()));
         }
         if (dto.getRegionId() != null) {
-            product.setRegion(regionRepository.findById(dto.getRegionId())
-                    .orElseThrow(() -> new EntityNotFoundException("Region not found")));
+            product.setRegion(regionRepository.getReferenceById(dto.getRegionId()));
         }
     }
+
+    // --- Name resolution: from the loaded entity, so a DTO never shows a name older than its row ---
+
+    private String categoryName(Category category) {
+        return category != null ? category.getName() : "N/A";
+    }
+
+    private String sellerName(Seller seller) {
+        return seller != null ? seller.getOwnerName() : "N/A";
+    }
+
+    private String regionName(Region region) {
+        return region != null ? region.getName() : "N/A";
+    }
 }
\ No newline at end of file
@@ -0,0 +1,155 @@
+package com.example.backend.cache;
+
+import com.example.backend.dto.CacheStatsDto;
+import com.example.backend.dto.ProductResponseDto;
+import com.example.backend.event.ProductChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded LRU + TTL cache of product detail DTOs.
+ * Every hit is validated against the row's current @Version (one indexed scalar lookup), so an
+ * entry can never be served after a write, even one made by another node. Writes on this node
+ * also evict eagerly after commit. Concurrent misses for the same id share one load (single-flight).
+ */
+@Component
+public class ProductDetailCache {
+
+    public record VersionedProduct(ProductResponseDto product, Long version) { }
+
+    private record Entry(VersionedProduct value, long expiresAtNanos) { }
+
+    private final int maxSize;
+    private final long ttlNanos;
+
+    private final Map<Long, Entry> entries;
+    private final Map<Long, CompletableFuture<VersionedProduct>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public ProductDetailCache(@Value("${catalog.product-cache.max-size:10000}") int maxSize,
+                              @Value("${catalog.product-cache.ttl-seconds:300}") long ttlSeconds) {
+        this.maxSize = maxSize;
+        this.ttlNanos = ttlSeconds * 1_000_000_000L;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry> eldest) {
+                if (size() > ProductDetailCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * @param currentVersion looks up the row's version; empty when the product no longer exists
+     * @param loader         full load on a miss; expected to throw if the product does not exist
+     */
+    public ProductResponseDto get(Long id, Supplier<Optional<Long>> currentVersion, Supplier<VersionedProduct> loader) {
+        Entry cached = lookup(id);
+        if (cached != null) {
+            Optional<Long> version = currentVersion.get();
+            if (version.isPresent() && Objects.equals(version.get(), cached.value().version())) {
+                hits.incrementAndGet();
+                return cached.value().product();
+            }
+            invalidate(id); // Written (or deleted) since it was cached
+        }
+
+        misses.incrementAndGet();
+        return loadOnce(id, loader).product();
+    }
+
+    public void invalidate(Long id) {
+        synchronized (entries) {
+            entries.remove(id);
+        }
+    }
+
+    // A renamed category/seller/region changes detail bodies without touching any product version
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    // Updates, deletes and checkout stock moves all drop the entry once committed
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        invalidate(event.productId());
+    }
+
+    public CacheStatsDto stats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        int size;
+        synchronized (entries) {
+            size = entries.size();
+        }
+        return CacheStatsDto.builder()
+                .name("product-detail")
+                .size(size)
+                .maxSize(maxSize)
+                .hits(hitCount)
+                .misses(missCount)
+                .evictions(evictions.get())
+                .hitRate(hitCount + missCount == 0 ? 0.0 : (double) hitCount / (hitCount + missCount))
+                .build();
+    }
+
+    // --- Helper Methods ---
+
+    private Entry lookup(Long id) {
+        synchronized (entries) {
+            Entry entry = entries.get(id);
+            if (entry != null && System.nanoTime() - entry.expiresAtNanos() > 0) {
+                entries.remove(id);
+                evictions.incrementAndGet();
+                return null;
+            }
+            return entry;
+        }
+    }
+
+    private VersionedProduct loadOnce(Long id, Supplier<VersionedProduct> loader) {
+        CompletableFuture<VersionedProduct> mine = new CompletableFuture<>();
+        CompletableFuture<VersionedProduct> existing = inFlight.putIfAbsent(id, mine);
+        if (existing != null) {
+            // Someone is already loading this id; wait for their result instead of hitting the DB
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            VersionedProduct loaded = loader.get();
+            synchronized (entries) {
+                entries.put(id, new Entry(loaded, System.nanoTime() + ttlNanos));
+            }
+            mine.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(id, mine);
+        }
+    }
+}
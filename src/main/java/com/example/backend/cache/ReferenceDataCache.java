@@ -0,0 +1,227 @@
+package com.example.backend.cache;
+
+import com.example.backend.model.Category;
+import com.example.backend.model.Region;
+import com.example.backend.model.Seller;
+import com.example.backend.repository.CategoryRepository;
+import com.example.backend.repository.RegionRepository;
+import com.example.backend.repository.SellerRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * In-memory id -> name lookups for Category and Region (fully loaded at startup) plus a bounded
+ * LRU of Seller owner names. Product writes validate foreign keys here and attach JPA proxies,
+ * so they skip the three findById round trips. Misses (e.g. rows created on another node)
+ * fall through to the database once and are remembered. Saving a name this node did not already
+ * hold (a rename, or a row it never saw) also drops its cached product detail views, which embed
+ * the names. Writes made on other nodes are picked up by a periodic full reload, so a name here can
+ * lag the database by up to catalog.reference-cache.reload-interval-ms; product DTOs read their
+ * names from the loaded entity instead.
+ */
+@Component
+public class ReferenceDataCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceDataCache.class);
+
+    private final CategoryRepository categoryRepository;
+    private final RegionRepository regionRepository;
+    private final SellerRepository sellerRepository;
+    private final ProductDetailCache productCache;
+
+    private final Map<Long, String> categoryNames = new ConcurrentHashMap<>();
+    private final Map<Long, String> regionNames = new ConcurrentHashMap<>();
+    private final Map<Long, String> sellerNames;
+
+    public ReferenceDataCache(CategoryRepository categoryRepository,
+                              RegionRepository regionRepository,
+                              SellerRepository sellerRepository,
+                              ProductDetailCache productCache,
+                              @Value("${catalog.reference-cache.seller-max-size:5000}") int sellerMaxSize) {
+        this.categoryRepository = categoryRepository;
+        this.regionRepository = regionRepository;
+        this.sellerRepository = sellerRepository;
+        this.productCache = productCache;
+        this.sellerNames = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, String> eldest) {
+                return size() > sellerMaxSize;
+            }
+        };
+    }
+
+    @PostConstruct
+    public void load() {
+        categoryRepository.findAll().forEach(category -> categoryNames.put(category.getId(), category.getName()));
+        regionRepository.findAll().forEach(region -> regionNames.put(region.getId(), region.getName()));
+        logger.info("Reference data loaded: {} categories, {} regions", categoryNames.size(), regionNames.size());
+    }
+
+    @Scheduled(initialDelayString = "${catalog.reference-cache.reload-interval-ms:300000}",
+            fixedDelayString = "${catalog.reference-cache.reload-interval-ms:300000}")
+    public void reload() {
+        boolean changed = replaceAll(categoryNames, categoryRepository.findAll(), Category::getId, Category::getName);
+        changed |= replaceAll(regionNames, regionRepository.findAll(), Region::getId, Region::getName);
+
+        // Sellers: only refresh the ones already held, the LRU stays bounded
+        List<Long> heldSellers;
+        synchronized (sellerNames) {
+            heldSellers = new ArrayList<>(sellerNames.keySet());
+        }
+        Map<Long, String> sellers = new HashMap<>();
+        sellerRepository.findAllById(heldSellers).forEach(seller -> sellers.put(seller.getId(), seller.getOwnerName()));
+        synchronized (sellerNames) {
+            for (Long id : heldSellers) {
+                String name = sellers.get(id);
+                changed |= name == null ? sellerNames.remove(id) != null : !name.equals(sellerNames.put(id, name));
+            }
+        }
+
+        if (changed) {
+            productCache.invalidateAll();
+        }
+        logger.debug("Reference data reloaded: {} categories, {} regions", categoryNames.size(), regionNames.size());
+    }
+
+    // --- Validation (throws like the old findById().orElseThrow()) ---
+
+    public String requireCategory(Long id) {
+        String name = categoryNames.get(id);
+        if (name != null) return name;
+
+        Category category = categoryRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Category not found with ID: " + id));
+        categoryNames.put(id, category.getName());
+        return category.getName();
+    }
+
+    public String requireRegion(Long id) {
+        String name = regionNames.get(id);
+        if (name != null) return name;
+
+        Region region = regionRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Region not found with ID: " + id));
+        regionNames.put(id, region.getName());
+        return region.getName();
+    }
+
+    public String requireSeller(Long id) {
+        synchronized (sellerNames) {
+            String name = sellerNames.get(id);
+            if (name != null) return name;
+        }
+
+        Seller seller = sellerRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Seller not found with ID: " + id));
+        synchronized (sellerNames) {
+            sellerNames.put(id, seller.getOwnerName());
+        }
+        return seller.getOwnerName();
+    }
+
+    // --- Lookups without a DB fallback ---
+
+    public Optional<String> categoryName(Long id) {
+        return Optional.ofNullable(categoryNames.get(id));
+    }
+
+    public Optional<String> regionName(Long id) {
+        return Optional.ofNullable(regionNames.get(id));
+    }
+
+    public Optional<String> sellerName(Long id) {
+        synchronized (sellerNames) {
+            return Optional.ofNullable(sellerNames.get(id));
+        }
+    }
+
+    // --- Refresh hooks for the owning services (applied once the write commits) ---
+
+    public void categorySaved(Category category) {
+        Long id = category.getId();
+        String name = category.getName();
+        afterCommit(() -> renamed(categoryNames.put(id, name), name));
+    }
+
+    public void categoryDeleted(Long id) {
+        afterCommit(() -> categoryNames.remove(id));
+    }
+
+    public void regionSaved(Region region) {
+        Long id = region.getId();
+        String name = region.getName();
+        afterCommit(() -> renamed(regionNames.put(id, name), name));
+    }
+
+    public void regionDeleted(Long id) {
+        afterCommit(() -> regionNames.remove(id));
+    }
+
+    public void sellerSaved(Seller seller) {
+        Long id = seller.getId();
+        String name = seller.getOwnerName();
+        afterCommit(() -> {
+            String previous;
+            synchronized (sellerNames) {
+                previous = sellerNames.put(id, name);
+            }
+            renamed(previous, name);
+        });
+    }
+
+    public void sellerDeleted(Long id) {
+        afterCommit(() -> {
+            synchronized (sellerNames) {
+                sellerNames.remove(id);
+            }
+        });
+    }
+
+    private void renamed(String previous, String name) {
+        if (!name.equals(previous)) {
+            productCache.invalidateAll();
+        }
+    }
+
+    // Makes names match rows; true when any name changed or went away
+    private static <T> boolean replaceAll(Map<Long, String> names, List<T> rows,
+                                          Function<T, Long> id, Function<T, String> name) {
+        Map<Long, String> fresh = new HashMap<>();
+        rows.forEach(row -> fresh.put(id.apply(row), name.apply(row)));
+        boolean changed = names.keySet().retainAll(fresh.keySet());
+        for (Map.Entry<Long, String> entry : fresh.entrySet()) {
+            String previous = names.put(entry.getKey(), entry.getValue());
+            changed |= previous != null && !previous.equals(entry.getValue());
+        }
+        return changed;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
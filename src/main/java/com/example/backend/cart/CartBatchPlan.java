@@ -0,0 +1,117 @@
+package com.example.backend.cart;
+
+import com.example.backend.dto.CartOperationDto;
+import com.example.backend.inventory.StockReservationLedger;
+import com.example.backend.repository.CartProductView;
+import jakarta.persistence.EntityNotFoundException;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Folds a batch of cart operations into the final quantity of every product it touches, and
+ * validates the whole result at once (missing products, unreserved stock) before anything is
+ * written. Shared by both cart store implementations.
+ */
+public final class CartBatchPlan {
+
+    private final Map<Long, Integer> current;
+    private final Map<Long, Integer> target = new LinkedHashMap<>(); // 0 = line removed
+
+    private CartBatchPlan(Map<Long, Integer> current) {
+        this.current = current;
+    }
+
+    public static Set<Long> productIds(List<CartOperationDto> operations) {
+        return operations.stream().map(CartOperationDto::getProductId).collect(Collectors.toSet());
+    }
+
+    /**
+     * @param current  product id to quantity of the cart as it is now
+     * @param products  the referenced products that exist, by id
+     * @param available stock the user may take of a product (stock minus other carts' holds)
+     */
+    public static CartBatchPlan of(Map<Long, Integer> current, List<CartOperationDto> operations,
+                                   Map<Long, CartProductView> products, ToIntFunction<CartProductView> available) {
+        CartBatchPlan plan = new CartBatchPlan(current);
+        for (CartOperationDto operation : operations) {
+            Long productId = operation.getProductId();
+            int quantity = plan.target.getOrDefault(productId, current.getOrDefault(productId, 0));
+            switch (operation.getType()) {
+                case SET -> quantity = operation.getQuantity();
+                case ADD -> {
+                    if (operation.getQuantity() < 1) {
+                        throw new IllegalArgumentException("Quantity must be at least 1 for ADD of product: " + productId);
+                    }
+                    quantity += operation.getQuantity();
+                }
+                case REMOVE -> quantity = 0;
+            }
+            plan.target.put(productId, quantity);
+        }
+        plan.validate(products, available);
+        return plan;
+    }
+
+    // Final quantity of every product whose line changes (0 = remove)
+    public Map<Long, Integer> changes() {
+        Map<Long, Integer> changes = new LinkedHashMap<>();
+        target.forEach((productId, quantity) -> {
+            if (!Objects.equals(quantity, current.getOrDefault(productId, 0))) {
+                changes.put(productId, quantity);
+            }
+        });
+        return changes;
+    }
+
+    /**
+     * Moves the user's stock holds to the planned quantities, all or nothing. Fails if another cart
+     * took the stock since {@link #of} validated it.
+     */
+    public void holdStock(StockReservationLedger reservations, Long userId, Map<Long, CartProductView> products) {
+        Map<Long, Integer> changes = changes();
+        Map<Long, Integer> stock = new LinkedHashMap<>();
+        changes.keySet().stream().filter(products::containsKey)
+                .forEach(productId -> stock.put(productId, products.get(productId).getStock()));
+
+        List<Long> shortfalls = reservations.hold(userId, changes, stock);
+        if (!shortfalls.isEmpty()) {
+            throw new IllegalArgumentException("Insufficient stock for: " + shortfalls.stream()
+                    .map(productId -> products.get(productId).getName())
+                    .collect(Collectors.joining(", ")));
+        }
+    }
+
+    // Every problem is reported together, so the client can fix the whole batch in one go
+    private void validate(Map<Long, CartProductView> products, ToIntFunction<CartProductView> available) {
+        List<Long> missing = new ArrayList<>();
+        List<String> insufficient = new ArrayList<>();
+        changes().forEach((productId, quantity) -> {
+            if (quantity == 0) {
+                return; // Removing never needs the product
+            }
+            CartProductView product = products.get(productId);
+            if (product == null) {
+                missing.add(productId);
+            } else {
+                int availableQuantity = available.applyAsInt(product);
+                if (availableQuantity < quantity) {
+                    insufficient.add(product.getName() + " (requested " + quantity + ", available " + availableQuantity + ")");
+                }
+            }
+        });
+
+        if (!missing.isEmpty()) {
+            throw new EntityNotFoundException("Products not found with IDs: " + missing);
+        }
+        if (!insufficient.isEmpty()) {
+            throw new IllegalArgumentException("Insufficient stock for: " + String.join(", ", insufficient));
+        }
+    }
+}
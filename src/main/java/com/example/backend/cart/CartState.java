@@ -0,0 +1,199 @@
+package com.example.backend.cart;
+
+import com.example.backend.dto.CartItemResponseDto;
+import com.example.backend.dto.CartResponseDto;
+import com.example.backend.repository.CartWriteRepository.CartDelta;
+import com.example.backend.repository.CartWriteRepository.LineWrite;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One user's cart as held by {@link HotCartStore}: a short list of lines keyed by product, plus the
+ * products changed since the last flush. Not thread-safe; the store only hands it out while holding
+ * its monitor.
+ * <p>
+ * Lines created since the last flush have no row id yet and are exposed as {@code -productId};
+ * {@link #removeItem} accepts either form.
+ */
+public final class CartState {
+
+    static final class Line {
+        final Long productId;
+        String productName;
+        int quantity;
+        double unitPrice;
+        Long itemId; // cart_items.id, null until flushed
+
+        Line(Long productId, String productName, int quantity, double unitPrice, Long itemId) {
+            this.productId = productId;
+            this.productName = productName;
+            this.quantity = quantity;
+            this.unitPrice = unitPrice;
+            this.itemId = itemId;
+        }
+
+        Long exposedId() {
+            return itemId != null ? itemId : -productId;
+        }
+    }
+
+    final Long userId;
+    final Long cartId;
+    private final List<Line> lines;
+    private final Set<Long> changed = new HashSet<>(); // Product ids to write on the next flush
+    private boolean cleared;                            // Delete every row before writing changed lines
+
+    volatile long lastAccessMillis;
+    boolean evicted;
+    int failedFlushes; // In a row; the store gives up on the cart after max-flush-attempts
+
+    CartState(Long userId, Long cartId, List<Line> lines) {
+        this.userId = userId;
+        this.cartId = cartId;
+        this.lines = lines;
+        this.lastAccessMillis = System.currentTimeMillis();
+    }
+
+    public int quantityOf(Long productId) {
+        Line line = find(productId);
+        return line == null ? 0 : line.quantity;
+    }
+
+    // Adds the line or replaces its quantity and price
+    public void put(Long productId, String productName, int quantity, double unitPrice) {
+        Line line = find(productId);
+        if (line == null) {
+            lines.add(new Line(productId, productName, quantity, unitPrice, null));
+        } else {
+            line.productName = productName;
+            line.quantity = quantity;
+            line.unitPrice = unitPrice;
+        }
+        changed.add(productId);
+    }
+
+    public void removeProduct(Long productId) {
+        if (lines.removeIf(line -> line.productId.equals(productId))) {
+            changed.add(productId);
+        }
+    }
+
+    // Product id to quantity, in line order
+    public Map<Long, Integer> quantities() {
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        lines.forEach(line -> quantities.put(line.productId, line.quantity));
+        return quantities;
+    }
+
+    // Product id of the item (row id or -productId), or null if the cart has no such item
+    public Long productOf(Long itemId) {
+        for (Line line : lines) {
+            if (itemId.equals(line.itemId) || itemId.equals(-line.productId)) {
+                return line.productId;
+            }
+        }
+        return null;
+    }
+
+    // Returns the removed line's product id, or null if the cart has no such item
+    public Long removeItem(Long itemId) {
+        for (int i = 0; i < lines.size(); i++) {
+            Line line = lines.get(i);
+            if (itemId.equals(line.itemId) || itemId.equals(-line.productId)) {
+                lines.remove(i);
+                changed.add(line.productId);
+                return line.productId;
+            }
+        }
+        return null;
+    }
+
+    public void clear() {
+        lines.clear();
+        changed.clear();
+        cleared = true;
+    }
+
+    public CartResponseDto toDto() {
+        CartResponseDto response = new CartResponseDto();
+        response.setId(cartId);
+        response.setUserId(userId);
+
+        double cartTotal = 0.0;
+        if (!lines.isEmpty()) {
+            List<CartItemResponseDto> items = new ArrayList<>(lines.size());
+            for (Line line : lines) {
+                CartItemResponseDto dto = new CartItemResponseDto();
+                dto.setId(line.exposedId());
+                dto.setProductId(line.productId);
+                dto.setProductName(line.productName);
+                dto.setQuantity(line.quantity);
+                dto.setPrice(line.unitPrice);
+                dto.setTotalPrice(line.quantity * line.unitPrice);
+                items.add(dto);
+                cartTotal += dto.getTotalPrice();
+            }
+            response.setItems(items);
+        }
+
+        response.setTotalCartPrice(cartTotal);
+        return response;
+    }
+
+    // --- Write-behind bookkeeping (store only) ---
+
+    boolean isDirty() {
+        return cleared || !changed.isEmpty();
+    }
+
+    // Snapshot of the pending changes; the state is clean afterwards
+    CartDelta drainDelta() {
+        List<LineWrite> upserts = new ArrayList<>();
+        List<Long> removed = new ArrayList<>();
+        for (Long productId : changed) {
+            Line line = find(productId);
+            if (line == null) {
+                removed.add(productId);
+            } else {
+                upserts.add(new LineWrite(productId, line.quantity, line.unitPrice));
+            }
+        }
+        CartDelta delta = new CartDelta(cartId, cleared, upserts, removed);
+        changed.clear();
+        cleared = false;
+        return delta;
+    }
+
+    // Flush failed: merge the delta back so the next flush writes it again
+    void restore(CartDelta delta) {
+        cleared |= delta.cleared();
+        delta.upserts().forEach(line -> changed.add(line.productId()));
+        changed.addAll(delta.removedProductIds());
+    }
+
+    // The product was deleted, so the line never had a row (cart_items rows block the delete): nothing to write
+    void dropLine(Long productId) {
+        lines.removeIf(line -> line.productId.equals(productId));
+    }
+
+    void assignItemId(Long productId, Long itemId) {
+        Line line = find(productId);
+        if (line != null && line.itemId == null) {
+            line.itemId = itemId;
+        }
+    }
+
+    private Line find(Long productId) {
+        for (Line line : lines) {
+            if (line.productId.equals(productId)) {
+                return line;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,378 @@
+package com.example.backend.cart;
+
+import com.example.backend.dto.CartStoreStatsDto;
+import com.example.backend.model.Cart;
+import com.example.backend.model.User;
+import com.example.backend.repository.CartRepository;
+import com.example.backend.repository.CartWriteRepository;
+import com.example.backend.repository.CartWriteRepository.CartDelta;
+import com.example.backend.repository.CartWriteRepository.InsertedLine;
+import com.example.backend.repository.CartWriteRepository.LineWrite;
+import com.example.backend.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Active carts kept in memory, one {@link CartState} per user. Reads and mutations are answered
+ * from memory; changed carts are written back to carts/cart_items in batches by a scheduled flush,
+ * so a change reaches MySQL at most one flush interval later. Callers that need the rows to be
+ * current (order placement) force a synchronous {@link #flush(Long)} first, outside their own
+ * transaction, and everything pending is flushed on shutdown.
+ * <p>
+ * A chunk whose batch fails is retried one cart at a time, so one bad cart can't hold back the
+ * others. A line whose product was deleted meanwhile is dropped (and logged), and a cart that still
+ * fails max-flush-attempts flushes in a row is given up: its unwritten changes are discarded and the
+ * entry evicted, so the next access reloads what the database has.
+ * <p>
+ * Only clean carts are evicted: idle ones after idle-minutes, and the least recently used ones
+ * whenever the store holds more than max-carts. This node must be the only writer of its users'
+ * carts (sticky sessions); another node's writes are not seen until the entry is evicted.
+ */
+@Component
+public class HotCartStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotCartStore.class);
+
+    private final CartRepository cartRepository;
+    private final UserRepository userRepository;
+    private final CartWriteRepository cartWriteRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int maxCarts;
+    private final long idleMillis;
+    private final int flushBatchSize;
+    private final int maxFlushAttempts;
+
+    private final Map<Long, CartState> carts = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    // One flush at a time: a forced flush must not return while another thread's batch holding
+    // the same cart is still uncommitted, and nothing is evicted while its write is in flight
+    private final Object flushLock = new Object();
+
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong flushedCarts = new AtomicLong();
+    private final AtomicLong failedFlushes = new AtomicLong();
+    private final AtomicLong abandonedCarts = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public HotCartStore(CartRepository cartRepository,
+                        UserRepository userRepository,
+                        CartWriteRepository cartWriteRepository,
+                        PlatformTransactionManager transactionManager,
+                        @Value("${catalog.cart.max-carts:100000}") int maxCarts,
+                        @Value("${catalog.cart.idle-minutes:30}") long idleMinutes,
+                        @Value("${catalog.cart.flush-batch-size:200}") int flushBatchSize,
+                        @Value("${catalog.cart.max-flush-attempts:5}") int maxFlushAttempts) {
+        this.cartRepository = cartRepository;
+        this.userRepository = userRepository;
+        this.cartWriteRepository = cartWriteRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxCarts = maxCarts;
+        this.idleMillis = idleMinutes * 60_000;
+        this.flushBatchSize = Math.max(1, flushBatchSize);
+        this.maxFlushAttempts = Math.max(1, maxFlushAttempts);
+    }
+
+    /**
+     * Runs {@code action} against the user's cart while holding its lock, loading (or creating)
+     * the cart on a miss. Any change the action makes is queued for the next flush, even if the
+     * action then throws.
+     */
+    public <T> T withCart(Long userId, Function<CartState, T> action) {
+        while (true) {
+            CartState state = carts.get(userId);
+            if (state == null) {
+                CartState loaded = load(userId);
+                state = carts.putIfAbsent(userId, loaded);
+                if (state == null) {
+                    state = loaded;
+                }
+            }
+            synchronized (state) {
+                if (state.evicted) {
+                    continue; // Lost a race with eviction; load again
+                }
+                state.lastAccessMillis = System.currentTimeMillis();
+                try {
+                    return action.apply(state);
+                } finally {
+                    // Also when the action threw after changing the cart, or the change would never be flushed
+                    if (state.isDirty()) {
+                        dirty.add(userId);
+                    }
+                }
+            }
+        }
+    }
+
+    // Writes the user's pending changes now; throws if they could not be written
+    public void flush(Long userId) {
+        // Joining a caller's transaction would report the cart as written before it commits (or rolls back)
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Cart flush must run outside a transaction");
+        }
+        flush(List.of(userId), true);
+    }
+
+    // Drops the user's entry without flushing, e.g. after the cart rows were changed directly
+    public void evict(Long userId) {
+        CartState state = carts.get(userId);
+        if (state != null) {
+            synchronized (state) {
+                state.evicted = true;
+                carts.remove(userId, state);
+                dirty.remove(userId);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.cart.flush-interval-ms:1000}")
+    public void flushDirty() {
+        if (!dirty.isEmpty()) {
+            flush(new ArrayList<>(dirty), false);
+        }
+        evictBefore(System.currentTimeMillis() - idleMillis);
+    }
+
+    @PreDestroy
+    public void flushAll() {
+        if (!dirty.isEmpty()) {
+            logger.info("Flushing {} dirty carts before shutdown", dirty.size());
+            flush(new ArrayList<>(dirty), false);
+        }
+    }
+
+    public CartStoreStatsDto stats() {
+        return CartStoreStatsDto.builder()
+                .carts(carts.size())
+                .dirty(dirty.size())
+                .loads(loads.get())
+                .flushedCarts(flushedCarts.get())
+                .failedFlushes(failedFlushes.get())
+                .abandonedCarts(abandonedCarts.get())
+                .evictions(evictions.get())
+                .build();
+    }
+
+    // Idle clean entries go first, then least recently used clean entries down to max-carts
+    int evictBefore(long cutoffMillis) {
+        synchronized (flushLock) {
+            return evictClean(cutoffMillis);
+        }
+    }
+
+    private int evictClean(long cutoffMillis) {
+        int evicted = 0;
+        for (Map.Entry<Long, CartState> entry : carts.entrySet()) {
+            if (entry.getValue().lastAccessMillis < cutoffMillis && tryEvict(entry.getKey(), entry.getValue())) {
+                evicted++;
+            }
+        }
+
+        int excess = carts.size() - maxCarts;
+        if (excess > 0) {
+            List<Map.Entry<Long, CartState>> oldest = carts.entrySet().stream()
+                    .sorted(Comparator.comparingLong(entry -> entry.getValue().lastAccessMillis))
+                    .limit(excess)
+                    .toList();
+            for (Map.Entry<Long, CartState> entry : oldest) {
+                if (tryEvict(entry.getKey(), entry.getValue())) {
+                    evicted++;
+                }
+            }
+        }
+        return evicted;
+    }
+
+    private boolean tryEvict(Long userId, CartState state) {
+        synchronized (state) {
+            if (state.evicted || state.isDirty()) {
+                return false; // Dirty entries are evicted once a flush has written them
+            }
+            state.evicted = true;
+            carts.remove(userId, state);
+            evictions.incrementAndGet();
+            return true;
+        }
+    }
+
+    private void flush(List<Long> userIds, boolean rethrow) {
+        synchronized (flushLock) {
+            flushChunks(userIds, rethrow);
+        }
+    }
+
+    private void flushChunks(List<Long> userIds, boolean rethrow) {
+        for (int from = 0; from < userIds.size(); from += flushBatchSize) {
+            List<Long> chunk = userIds.subList(from, Math.min(from + flushBatchSize, userIds.size()));
+
+            List<CartState> states = new ArrayList<>(chunk.size());
+            List<CartDelta> deltas = new ArrayList<>(chunk.size());
+            for (Long userId : chunk) {
+                dirty.remove(userId);
+                CartState state = carts.get(userId);
+                if (state == null) {
+                    continue;
+                }
+                synchronized (state) {
+                    if (!state.evicted && state.isDirty()) {
+                        states.add(state);
+                        deltas.add(state.drainDelta());
+                    }
+                }
+            }
+            if (deltas.isEmpty()) {
+                continue;
+            }
+
+            try {
+                write(states, deltas);
+            } catch (RuntimeException e) {
+                failedFlushes.incrementAndGet();
+                if (states.size() > 1) {
+                    logger.warn("Failed to flush {} carts together, retrying one by one: {}",
+                            deltas.size(), e.getMessage());
+                }
+                for (int i = 0; i < states.size(); i++) {
+                    flushAlone(states.get(i), states.size() > 1 ? null : e, deltas.get(i), rethrow);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes one cart on its own. On failure, lines of products deleted since they were added are
+     * dropped and the rest written once more; a cart that still fails is queued again, or given up
+     * after max-flush-attempts failures in a row.
+     *
+     * @param error the failure of the write already tried for exactly this delta, or null
+     */
+    private void flushAlone(CartState state, RuntimeException error, CartDelta delta, boolean rethrow) {
+        if (error == null) {
+            try {
+                write(List.of(state), List.of(delta));
+                return;
+            } catch (RuntimeException e) {
+                error = e;
+            }
+        }
+
+        CartDelta kept = delta;
+        try {
+            kept = withoutDeletedProducts(state, delta);
+        } catch (RuntimeException e) {
+            logger.warn("Could not check the products of the cart of user {}: {}", state.userId, e.getMessage());
+        }
+        if (kept != delta) {
+            try {
+                write(List.of(state), List.of(kept));
+                return;
+            } catch (RuntimeException e) {
+                error = e;
+            }
+        }
+
+        boolean abandoned;
+        synchronized (state) {
+            state.failedFlushes++;
+            abandoned = state.failedFlushes >= maxFlushAttempts;
+            if (abandoned) {
+                state.evicted = true;
+                carts.remove(state.userId, state);
+                abandonedCarts.incrementAndGet();
+            } else {
+                state.restore(kept);
+                dirty.add(state.userId);
+            }
+        }
+        if (abandoned) {
+            logger.error("Giving up on the cart of user {} after {} failed flushes; its unwritten changes are lost: {}",
+                    state.userId, maxFlushAttempts, error.getMessage());
+        } else if (!rethrow) {
+            logger.error("Failed to flush the cart of user {}, will retry: {}", state.userId, error.getMessage());
+        }
+        if (rethrow) {
+            throw error;
+        }
+    }
+
+    // The delta minus lines whose product no longer exists (dropped from the cart too); the same delta if none
+    private CartDelta withoutDeletedProducts(CartState state, CartDelta delta) {
+        List<Long> productIds = delta.upserts().stream().map(LineWrite::productId).toList();
+        Set<Long> existing = cartWriteRepository.existingProductIds(productIds);
+        List<Long> deleted = productIds.stream().filter(productId -> !existing.contains(productId)).toList();
+        if (deleted.isEmpty()) {
+            return delta;
+        }
+        synchronized (state) {
+            deleted.forEach(state::dropLine);
+        }
+        logger.warn("Dropped products {} from the cart of user {}: they were deleted", deleted, state.userId);
+        return new CartDelta(delta.cartId(), delta.cleared(),
+                delta.upserts().stream().filter(line -> existing.contains(line.productId())).toList(),
+                Stream.concat(delta.removedProductIds().stream(), deleted.stream()).toList());
+    }
+
+    private void write(List<CartState> states, List<CartDelta> deltas) {
+        List<InsertedLine> inserted = transactionTemplate.execute(status -> cartWriteRepository.write(deltas));
+        assignItemIds(states, inserted);
+        flushedCarts.addAndGet(deltas.size());
+        for (CartState state : states) {
+            synchronized (state) {
+                state.failedFlushes = 0;
+            }
+        }
+    }
+
+    private void assignItemIds(List<CartState> states, List<InsertedLine> inserted) {
+        if (inserted == null || inserted.isEmpty()) {
+            return;
+        }
+        Map<Long, CartState> byCartId = new HashMap<>();
+        states.forEach(state -> byCartId.put(state.cartId, state));
+        for (InsertedLine line : inserted) {
+            CartState state = byCartId.get(line.cartId());
+            synchronized (state) {
+                state.assignItemId(line.productId(), line.itemId());
+            }
+        }
+    }
+
+    // Miss: one fetch-joined read, or a cart row created on the spot so the cart id is always known
+    private CartState load(Long userId) {
+        loads.incrementAndGet();
+        return transactionTemplate.execute(status -> {
+            Cart cart = cartRepository.findWithItemsByUserId(userId).orElseGet(() -> {
+                User user = userRepository.findById(userId)
+                        .orElseThrow(() -> new EntityNotFoundException("User not found with ID: " + userId));
+                Cart newCart = new Cart();
+                newCart.setUser(user);
+                return cartRepository.save(newCart);
+            });
+
+            List<CartState.Line> lines = new ArrayList<>(Math.max(4, cart.getCartItems().size()));
+            cart.getCartItems().forEach(item -> lines.add(new CartState.Line(item.getProduct().getId(),
+                    item.getProduct().getName(), item.getQuantity(), item.getPrice(), item.getId())));
+            return new CartState(userId, cart.getId(), lines);
+        });
+    }
+}
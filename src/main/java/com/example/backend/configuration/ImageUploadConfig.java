@@ -0,0 +1,40 @@
+package com.example.backend.configuration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class ImageUploadConfig {
+
+    @Value("${catalog.images.upload-threads:16}")
+    private int uploadThreads;
+
+    @Value("${catalog.images.upload-queue-capacity:200}")
+    private int queueCapacity;
+
+    // Uploads are pure remote I/O, so threads mostly wait. Bounded pool + queue; when both are full
+    // the request thread runs the upload itself instead of failing. On Java 21 this bean can be
+    // swapped for Executors.newVirtualThreadPerTaskExecutor() without touching callers.
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService imageUploadExecutor() {
+        AtomicInteger counter = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(uploadThreads, uploadThreads,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-upload-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.backend.controller;
 
+import com.example.backend.dto.CartBatchRequestDto;
 import com.example.backend.dto.CartItemRequestDto;
 import com.example.backend.dto.CartResponseDto;
 import com.example.backend.service.CartService;
@@ -28,6 +29,15 @@ public class CartController {
         return ResponseEntity.ok(cartService.addItemToCart(userId, requestDto));
     }
 
+    // Whole-cart sync (login, reorder): many set/add/remove operations, one response
+    @PostMapping("/{userId}/batch")
+    public ResponseEntity<CartResponseDto> applyBatch(
+            @PathVariable Long userId,
+            @Valid @RequestBody CartBatchRequestDto requestDto
+    ) {
+        return ResponseEntity.ok(cartService.applyBatch(userId, requestDto));
+    }
+
     @DeleteMapping("/{userId}/item/{itemId}")
     public ResponseEntity<CartResponseDto> removeItem(
             @PathVariable Long userId,
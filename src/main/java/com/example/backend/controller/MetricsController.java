@@ -0,0 +1,74 @@
+package com.example.backend.controller;
+
+import com.example.backend.cache.ProductDetailCache;
+import com.example.backend.cart.HotCartStore;
+import com.example.backend.dto.CacheStatsDto;
+import com.example.backend.dto.CartStoreStatsDto;
+import com.example.backend.dto.ImageDedupeStatsDto;
+import com.example.backend.dto.ImageQueueStatsDto;
+import com.example.backend.dto.ReservationStatsDto;
+import com.example.backend.dto.RetryStatsDto;
+import com.example.backend.dto.StripedStockStatsDto;
+import com.example.backend.images.DeduplicatingImageStorage;
+import com.example.backend.images.ImageUploadWorker;
+import com.example.backend.inventory.StockReservationLedger;
+import com.example.backend.inventory.StripedStock;
+import com.example.backend.retry.ConflictRetrier;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/metrics")
+@RequiredArgsConstructor
+public class MetricsController {
+
+    private final ProductDetailCache productDetailCache;
+    private final ImageUploadWorker imageUploadWorker;
+    private final DeduplicatingImageStorage imageStorage;
+    private final HotCartStore cartStore;
+    private final StockReservationLedger reservationLedger;
+    private final ConflictRetrier conflictRetrier;
+    private final StripedStock stripedStock;
+
+    @GetMapping("/product-cache")
+    public ResponseEntity<CacheStatsDto> getProductCacheStats() {
+        return ResponseEntity.ok(productDetailCache.stats());
+    }
+
+    // Queue depth (from the job table) + this node's worker throughput
+    @GetMapping("/image-queue")
+    public ResponseEntity<ImageQueueStatsDto> getImageQueueStats() {
+        return ResponseEntity.ok(imageUploadWorker.stats());
+    }
+
+    @GetMapping("/image-dedupe")
+    public ResponseEntity<ImageDedupeStatsDto> getImageDedupeStats() {
+        return ResponseEntity.ok(imageStorage.stats());
+    }
+
+    @GetMapping("/cart-store")
+    public ResponseEntity<CartStoreStatsDto> getCartStoreStats() {
+        return ResponseEntity.ok(cartStore.stats());
+    }
+
+    @GetMapping("/stock-reservations")
+    public ResponseEntity<ReservationStatsDto> getStockReservationStats() {
+        return ResponseEntity.ok(reservationLedger.stats());
+    }
+
+    // Per-operation conflict / retry / give-up counts
+    @GetMapping("/retries")
+    public ResponseEntity<List<RetryStatsDto>> getRetryStats() {
+        return ResponseEntity.ok(conflictRetrier.stats());
+    }
+
+    @GetMapping("/striped-stock")
+    public ResponseEntity<StripedStockStatsDto> getStripedStockStats() {
+        return ResponseEntity.ok(stripedStock.stats());
+    }
+}
@@ -1,20 +1,42 @@
 package com.example.backend.controller;
 
+import com.example.backend.dto.BulkImportResultDto;
+import com.example.backend.dto.BulkImportRowErrorDto;
+import com.example.backend.dto.CatalogBrowseResponseDto;
+import com.example.backend.dto.ProductCursorPageDto;
+import com.example.backend.dto.ProductFilterDto;
 import com.example.backend.dto.ProductRequestDto;
 import com.example.backend.dto.ProductResponseDto;
+import com.example.backend.dto.StockBucketsDto;
+import com.example.backend.exception.InvalidImportFileException;
+import com.example.backend.service.CatalogExportService;
+import com.example.backend.service.ProductImportService;
 import com.example.backend.service.ProductService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Objects;
 
 @RestController
 @RequestMapping("/api/v1/products")
@@ -22,6 +44,8 @@ import java.util.List;
 public class ProductController {
 
     private final ProductService productService;
+    private final CatalogExportService catalogExportService;
+    private final ProductImportService productImportService;
 
 
     @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -35,6 +59,26 @@ public class ProductController {
         );
     }
 
+    // Bulk onboarding: CSV (with header) or JSON lines; per-row errors come back in the result
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<BulkImportResultDto> importProducts(
+            @RequestPart("file") MultipartFile file,
+            @RequestParam(required = false) String format) throws IOException {
+
+        ProductImportService.Format importFormat = ProductImportService.Format.resolve(format, file.getOriginalFilename());
+        try (InputStream input = file.getInputStream()) {
+            return ResponseEntity.ok(productImportService.importProducts(input, importFormat));
+        }
+    }
+
+    // A file that can't be imported at all (e.g. a bad CSV header): 400, in the usual result shape
+    @ExceptionHandler(InvalidImportFileException.class)
+    public ResponseEntity<BulkImportResultDto> rejectImportFile(InvalidImportFileException e) {
+        return ResponseEntity.badRequest().body(BulkImportResultDto.builder()
+                .errors(List.of(BulkImportRowErrorDto.builder().row(e.getRow()).message(e.getMessage()).build()))
+                .build());
+    }
+
     @PutMapping(value = "/{id}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<ProductResponseDto> updateProduct(
             @PathVariable Long id,
@@ -46,8 +90,16 @@ public class ProductController {
 
 
     @GetMapping("/{id}")
-    public ResponseEntity<ProductResponseDto> getProduct(@PathVariable Long id) {
-        return ResponseEntity.ok(productService.getProduct(id));
+    public ResponseEntity<ProductResponseDto> getProduct(@PathVariable Long id, WebRequest request) {
+        // One version-validated cache read; the ETag is derived from the very body it describes
+        ProductResponseDto product = productService.getProduct(id);
+        String eTag = productETag(product);
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .body(product);
     }
 
 
@@ -66,6 +118,79 @@ public class ProductController {
     }
 
 
+    @GetMapping("/region/{regionId}")
+    public ResponseEntity<Page<ProductResponseDto>> getProductsByRegion(
+            @PathVariable Long regionId,
+            @PageableDefault(size = 10) Pageable pageable) {
+        return ResponseEntity.ok(productService.getProductsByRegion(regionId, pageable));
+    }
+
+
+    @GetMapping("/filter")
+    public ResponseEntity<Page<ProductResponseDto>> filterProducts(
+            @Valid @ModelAttribute ProductFilterDto filter,
+            @PageableDefault(size = 10, sort = "createdAt") Pageable pageable) {
+        return ResponseEntity.ok(productService.filterProducts(filter, pageable));
+    }
+
+
+    // Streams the whole (optionally filtered) catalog as NDJSON; memory stays flat at any catalog size
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime updatedSince,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Long regionId) {
+
+        StreamingResponseBody body = outputStream -> {
+            BufferedOutputStream buffered = new BufferedOutputStream(outputStream, 64 * 1024);
+            catalogExportService.exportProducts(updatedSince, categoryId, regionId, buffered);
+            buffered.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+
+    @GetMapping("/browse")
+    public ResponseEntity<CatalogBrowseResponseDto> browseCatalog(
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) Long regionId,
+            @RequestParam(required = false) Double minPrice,
+            @RequestParam(required = false) Double maxPrice,
+            @PageableDefault(size = 10, sort = "createdAt") Pageable pageable) {
+        return ResponseEntity.ok(productService.browseCatalog(categoryId, regionId, minPrice, maxPrice, pageable));
+    }
+
+
+    // --- Cursor (keyset) mode: pass back nextCursor as ?after=... ; no total count ---
+
+    @GetMapping("/cursor")
+    public ResponseEntity<ProductCursorPageDto> getAllProductsByCursor(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(productService.getAllProductsAfter(after, size));
+    }
+
+
+    @GetMapping("/category/{categoryId}/cursor")
+    public ResponseEntity<ProductCursorPageDto> getProductsByCategoryByCursor(
+            @PathVariable Long categoryId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(productService.getProductsByCategoryAfter(categoryId, after, size));
+    }
+
+
+    @GetMapping("/region/{regionId}/cursor")
+    public ResponseEntity<ProductCursorPageDto> getProductsByRegionByCursor(
+            @PathVariable Long regionId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "10") int size) {
+        return ResponseEntity.ok(productService.getProductsByRegionAfter(regionId, after, size));
+    }
+
+
     @GetMapping("/search")
     public ResponseEntity<Page<ProductResponseDto>> searchProducts(
             @RequestParam String name,
@@ -74,9 +199,60 @@ public class ProductController {
     }
 
 
+    // Striped inventory (hot SKUs): stock split across N bucket rows so checkouts don't queue on one row
+    @GetMapping("/{id}/stock-buckets")
+    public ResponseEntity<StockBucketsDto> getStockBuckets(@PathVariable Long id) {
+        return ResponseEntity.ok(productService.getStockBuckets(id));
+    }
+
+
+    @PutMapping("/{id}/stock-buckets")
+    public ResponseEntity<StockBucketsDto> setStockBuckets(@PathVariable Long id, @RequestParam int buckets) {
+        return ResponseEntity.ok(productService.setStockBuckets(id, buckets));
+    }
+
+
     @DeleteMapping("/{id}")
     public ResponseEntity<String> deleteProduct(@PathVariable Long id) {
         productService.deleteProduct(id);
         return ResponseEntity.ok("Product deleted successfully!");
     }
+
+    // Row version plus a SHA-256 of the parts of the body that change without it (reference names,
+    // image queue, renditions): those never move the version, so it alone would be a stale validator
+    private static String productETag(ProductResponseDto product) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        update(digest, product.getCategoryName());
+        update(digest, product.getSellerName());
+        update(digest, product.getRegionName());
+        update(digest, product.getThumbnailUrl());
+        if (product.getImageVariants() != null) {
+            product.getImageVariants().forEach(image -> {
+                update(digest, image.getOriginal());
+                update(digest, image.getThumbnail());
+                update(digest, image.getMedium());
+            });
+        }
+        if (product.getPendingImages() != null) {
+            product.getPendingImages().forEach(pending -> {
+                update(digest, String.valueOf(pending.getJobId()));
+                update(digest, String.valueOf(pending.getStatus()));
+                update(digest, String.valueOf(pending.getAttempts()));
+            });
+        }
+        return "product-" + product.getId() + "-v" + product.getVersion() + "-"
+                + HexFormat.of().formatHex(digest.digest());
+    }
+
+    // Length-prefixed, so no two field lists feed the digest the same bytes
+    private static void update(MessageDigest digest, String value) {
+        byte[] bytes = Objects.toString(value).getBytes(StandardCharsets.UTF_8);
+        digest.update(ByteBuffer.allocate(Integer.BYTES).putInt(bytes.length).array());
+        digest.update(bytes);
+    }
 }
\ No newline at end of file
@@ -6,6 +6,7 @@ import com.example.backend.service.RegionService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -27,8 +28,13 @@ public class RegionController {
     }
 
     @GetMapping
-    public ResponseEntity<List<RegionResponseDto>> getAllRegions() {
-        return ResponseEntity.ok(regionService.getAllRegions());
+    public ResponseEntity<List<RegionResponseDto>> getAllRegions(WebRequest request) {
+        // 304 straight from the catalog version, before any region is loaded
+        String eTag = "regions-" + regionService.getCatalogVersion();
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok().eTag(eTag).body(regionService.getAllRegions());
     }
 
     @PutMapping("/{id}")
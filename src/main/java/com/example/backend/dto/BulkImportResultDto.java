@@ -0,0 +1,18 @@
+package com.example.backend.dto;
+
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkImportResultDto {
+    private int totalRows;
+    private int imported;
+    private int failed;
+    @Builder.Default
+    private List<BulkImportRowErrorDto> errors = new ArrayList<>(); // Capped; 'failed' is the full count
+}
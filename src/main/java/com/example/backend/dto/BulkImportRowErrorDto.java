@@ -0,0 +1,12 @@
+package com.example.backend.dto;
+
+import lombok.*;
+
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkImportRowErrorDto {
+    private int row; // 1-based line number in the uploaded file
+    private String message;
+}
@@ -0,0 +1,20 @@
+package com.example.backend.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class CartBatchRequestDto {
+
+    // Applied in order, all or nothing
+    @NotEmpty(message = "At least one operation is required")
+    @Size(max = 200, message = "At most 200 operations per batch")
+    private List<@Valid @NotNull CartOperationDto> operations;
+}
@@ -0,0 +1,26 @@
+package com.example.backend.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class CartOperationDto {
+
+    public enum Type {
+        SET,    // Line ends up with exactly this quantity (0 removes it)
+        ADD,    // Adds to the existing quantity
+        REMOVE  // Drops the line; quantity is ignored
+    }
+
+    @NotNull(message = "Operation type is required")
+    private Type type;
+
+    @NotNull(message = "Product ID is required")
+    private Long productId;
+
+    @Min(value = 0, message = "Quantity cannot be negative")
+    private int quantity;
+}
@@ -0,0 +1,16 @@
+package com.example.backend.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class CartStoreStatsDto {
+    private int carts;          // Entries held in memory
+    private int dirty;          // Entries waiting for the next flush
+    private long loads;         // Misses served from the database
+    private long flushedCarts;
+    private long failedFlushes;
+    private long abandonedCarts; // Gave up after max-flush-attempts; their unwritten changes were dropped
+    private long evictions;
+}
@@ -0,0 +1,16 @@
+package com.example.backend.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+@Data
+@Builder
+public class CatalogBrowseResponseDto {
+    private Page<ProductResponseDto> products;
+    private List<FacetCountDto> categories;   // Counts honour the region + price filters
+    private List<FacetCountDto> regions;      // Counts honour the category + price filters
+    private List<PriceBucketCountDto> priceRanges; // Counts honour the category + region filters
+}
@@ -0,0 +1,12 @@
+package com.example.backend.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class FacetCountDto {
+    private Long id;
+    private String name;
+    private long count;
+}
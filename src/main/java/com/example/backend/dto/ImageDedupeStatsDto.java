@@ -0,0 +1,14 @@
+package com.example.backend.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ImageDedupeStatsDto {
+    private long hits;               // Uploads answered from the hash index (no remote call)
+    private long misses;             // New content, actually uploaded
+    private double hitRate;
+    private long bytesSaved;
+    private long collapsedDuplicates; // URLs not appended because the product already had them
+}
@@ -0,0 +1,17 @@
+package com.example.backend.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ImageQueueStatsDto {
+    private long pending;
+    private long processing;
+    private long failed;
+    private long completedTotal; // Since this node started
+    private long failedTotal;
+    private long completedLastMinute;
+    private int workers;
+    private int busyWorkers;
+}
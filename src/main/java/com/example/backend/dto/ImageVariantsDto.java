@@ -0,0 +1,14 @@
+package com.example.backend.dto;
+
+import lombok.*;
+
+// One product image with its generated renditions; thumbnail/medium are null until generated
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ImageVariantsDto {
+    private String original;
+    private String thumbnail;
+    private String medium;
+}
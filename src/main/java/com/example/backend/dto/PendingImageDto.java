@@ -0,0 +1,14 @@
+package com.example.backend.dto;
+
+import lombok.*;
+
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PendingImageDto {
+    private Long jobId;
+    private String filename;
+    private String status; // PENDING, PROCESSING or FAILED
+    private int attempts;
+}
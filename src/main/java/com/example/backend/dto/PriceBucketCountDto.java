@@ -0,0 +1,12 @@
+package com.example.backend.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class PriceBucketCountDto {
+    private Double min;  // Inclusive; null = no lower bound
+    private Double max;  // Exclusive; null = no upper bound
+    private long count;
+}
@@ -0,0 +1,15 @@
+package com.example.backend.dto;
+
+import lombok.*;
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductCursorPageDto {
+    private List<ProductResponseDto> items;
+    private String nextCursor; // null on the last page
+    private boolean hasNext;
+    private int size;
+}
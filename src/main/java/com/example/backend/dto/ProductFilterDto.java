@@ -0,0 +1,22 @@
+package com.example.backend.dto;
+
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Getter;
+import lombok.Setter;
+
+// Query parameters for GET /api/v1/products/filter; every criterion is optional
+@Getter
+@Setter
+public class ProductFilterDto {
+    private Long categoryId;
+    private Long regionId;
+    private Long sellerId;
+
+    @PositiveOrZero(message = "Minimum price cannot be negative")
+    private Double minPrice;
+
+    @PositiveOrZero(message = "Maximum price cannot be negative")
+    private Double maxPrice;
+
+    private boolean inStockOnly;
+}
@@ -0,0 +1,40 @@
+package com.example.backend.dto;
+
+import jakarta.validation.constraints.*;
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// One row of a bulk import (CSV or JSON lines); same rules as ProductRequestDto
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductImportRowDto {
+
+    @NotBlank(message = "Product name is required")
+    @Size(min = 3, max = 150, message = "Name must be between 3 and 150 characters")
+    private String name;
+
+    private String description;
+
+    @NotNull(message = "Price is required")
+    @Positive(message = "Price must be greater than zero")
+    private Double price;
+
+    @Min(value = 0, message = "Stock cannot be negative")
+    private int stock;
+
+    @NotNull(message = "Category ID is required")
+    private Long categoryId;
+
+    @NotNull(message = "Seller ID is required")
+    private Long sellerId;
+
+    @NotNull(message = "Region ID is required")
+    private Long regionId;
+
+    @Builder.Default
+    private List<String> imageUrls = new ArrayList<>(); // Already-hosted URLs; import never uploads
+}
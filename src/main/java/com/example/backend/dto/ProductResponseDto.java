@@ -13,8 +13,15 @@ public class ProductResponseDto {
     private String description;
     private Double price;
     private int stock;
+    private Long categoryId;
     private String categoryName;
+    private Long sellerId;
     private String sellerName;
+    private Long regionId;
     private String regionName;
-    private List<String> imageUrls; // Returns list of images
+    private List<String> imageUrls; // Returns list of images (detail and write responses; null in list views)
+    private String thumbnailUrl; // Primary image thumbnail (original until the thumbnail exists)
+    private List<ImageVariantsDto> imageVariants; // Every image with its renditions (detail view only)
+    private Long version; // @Version of the row; part of the ETag
+    private List<PendingImageDto> pendingImages; // Images still queued for upload (detail/write responses only)
 }
\ No newline at end of file
@@ -0,0 +1,14 @@
+package com.example.backend.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class ReservationStatsDto {
+    private int activeHolds;
+    private long heldUnits;   // Sum over all products of the stock currently held by carts
+    private long placed;      // This node's counts from here on
+    private long rejected;    // Adds refused because the unreserved stock was short
+    private long expired;     // Holds reclaimed by this node's sweeper
+}
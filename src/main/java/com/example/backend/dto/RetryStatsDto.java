@@ -0,0 +1,14 @@
+package com.example.backend.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class RetryStatsDto {
+    private String operation;
+    private long calls;
+    private long conflicts;  // Attempts that failed with a concurrency conflict
+    private long retries;
+    private long giveUps;    // Calls that ran out of attempts (409 to the client)
+}
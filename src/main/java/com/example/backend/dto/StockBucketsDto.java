@@ -0,0 +1,16 @@
+package com.example.backend.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockBucketsDto {
+    private Long productId;
+    private int buckets;               // 0 = not striped (stock lives on the product row)
+    private int stock;                 // Total, as in ProductResponseDto.stock
+    private List<Integer> bucketStock; // Per bucket, in bucket order (empty when not striped)
+}
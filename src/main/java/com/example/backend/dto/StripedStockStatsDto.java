@@ -0,0 +1,12 @@
+package com.example.backend.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+@Data
+@Builder
+public class StripedStockStatsDto {
+    private long takes;       // Striped deductions applied
+    private long rebalances;  // Deductions whose random bucket ran dry, served from the locked total
+    private long shortfalls;  // Deductions refused because all buckets together were short
+}
@@ -0,0 +1,30 @@
+package com.example.backend.event;
+
+import com.example.backend.dto.ProductResponseDto;
+
+/**
+ * Published by the product write paths. Listeners (search index, caches) react after commit,
+ * so they never see a change that was rolled back.
+ *
+ * @param product snapshot after the write; null for DELETED and STOCK_CHANGED
+ */
+public record ProductChangedEvent(Long productId, Type type, ProductResponseDto product) {
+
+    public enum Type {
+        UPSERTED,
+        DELETED,
+        STOCK_CHANGED // Only stock moved (checkout); no snapshot attached
+    }
+
+    public static ProductChangedEvent upserted(ProductResponseDto product) {
+        return new ProductChangedEvent(product.getId(), Type.UPSERTED, product);
+    }
+
+    public static ProductChangedEvent deleted(Long productId) {
+        return new ProductChangedEvent(productId, Type.DELETED, null);
+    }
+
+    public static ProductChangedEvent stockChanged(Long productId) {
+        return new ProductChangedEvent(productId, Type.STOCK_CHANGED, null);
+    }
+}
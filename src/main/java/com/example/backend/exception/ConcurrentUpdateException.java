@@ -0,0 +1,14 @@
+package com.example.backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// A write kept losing to concurrent writers and ran out of retries (409). Nothing of it was applied:
+// the client re-reads the resource and resubmits if its change still makes sense
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ConcurrentUpdateException extends RuntimeException {
+
+    public ConcurrentUpdateException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.backend.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+// The import file can't be read as a whole (bad CSV header, unknown format); nothing was imported
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidImportFileException extends RuntimeException {
+
+    private final int row; // 1-based line the problem is on; 0 when it isn't about a line
+
+    public InvalidImportFileException(int row, String message) {
+        super(message);
+        this.row = row;
+    }
+
+    public int getRow() {
+        return row;
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.backend.images;
+
+import com.example.backend.dto.ImageDedupeStatsDto;
+import com.example.backend.model.ImageAsset;
+import com.example.backend.repository.ImageAssetRepository;
+import com.example.backend.service.ImageStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Content-hash dedupe in front of the configured storage backend (the bean qualified
+ * "imageStorageBackend"). Each upload is hashed with a streaming SHA-256; content already in
+ * image_assets returns its stored URL without a remote call. Concurrent uploads of the same bytes
+ * share one upload. Because URLs can now be shared, every upload that returns a URL takes a
+ * reference on its asset (ImageAsset.refCount, counted in the database so it holds across nodes and
+ * before the caller's product commits), and deleteFile drops one: the image is only removed once
+ * no upload holds it and no product references it.
+ */
+@Component
+@Primary
+public class DeduplicatingImageStorage implements ImageStorage {
+
+    private static final Logger logger = LoggerFactory.getLogger(DeduplicatingImageStorage.class);
+    private static final int BUFFER_SIZE = 8192;
+
+    private final ImageStorage backend;
+    private final ImageAssetRepository assetRepository;
+
+    private final ConcurrentHashMap<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong bytesSaved = new AtomicLong();
+    private final AtomicLong collapsed = new AtomicLong();
+
+    public DeduplicatingImageStorage(@Qualifier("imageStorageBackend") ImageStorage backend,
+                                     ImageAssetRepository assetRepository) {
+        this.backend = backend;
+        this.assetRepository = assetRepository;
+    }
+
+    @Override
+    public String uploadFile(MultipartFile file) {
+        Path tempFile = null;
+        try {
+            tempFile = Files.createTempFile("product-upload-", ".tmp");
+            file.transferTo(tempFile);
+            return uploadFile(tempFile, file.getOriginalFilename());
+        } catch (IOException e) {
+            throw new RuntimeException("Image upload failed");
+        } finally {
+            if (tempFile != null) {
+                ImageUploadQueue.deleteStaged(tempFile);
+            }
+        }
+    }
+
+    @Override
+    public String uploadFile(Path file, String originalFilename) {
+        long size;
+        String hash;
+        try {
+            size = Files.size(file);
+            hash = sha256(file);
+        } catch (IOException e) {
+            throw new RuntimeException("Image upload failed");
+        }
+
+        Optional<String> known = acquire(hash);
+        if (known.isPresent()) {
+            recordHit(size);
+            return known.get();
+        }
+
+        // Single-flight per hash: identical files in one request upload once
+        CompletableFuture<String> mine = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(hash, mine);
+        if (existing != null) {
+            try {
+                existing.join();
+            } catch (CompletionException e) {
+                throw new RuntimeException("Image upload failed");
+            }
+            Optional<String> shared = acquire(hash);
+            if (shared.isEmpty()) {
+                return uploadFile(file, originalFilename); // Already discarded by the uploader
+            }
+            recordHit(size);
+            return shared.get();
+        }
+
+        try {
+            String url = store(file, originalFilename, hash, size);
+            mine.complete(url);
+            return url;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(hash, mine);
+        }
+    }
+
+    private String store(Path file, String originalFilename, String hash, long size) {
+        misses.incrementAndGet();
+        String url = backend.uploadFile(file, originalFilename);
+        try {
+            assetRepository.save(ImageAsset.builder()
+                    .contentHash(hash).url(url).sizeBytes(size).refCount(1).build());
+            return url;
+        } catch (DataIntegrityViolationException e) {
+            // Another node stored the same content first: keep theirs, drop ours
+            Optional<String> winner = acquire(hash);
+            deleteQuietly(url);
+            return winner.orElseThrow(() -> e);
+        }
+    }
+
+    @Override
+    public void deleteFile(String url) {
+        assetRepository.release(url);
+        // Atomic with any concurrent acquire: a hit either lands first and keeps the row, or misses it
+        if (assetRepository.deleteUnreferenced(url) == 0) {
+            logger.debug("Image {} is still held by an upload or a product; not deleting", url);
+            return;
+        }
+        backend.deleteFile(url);
+    }
+
+    @Override
+    public InputStream openStream(String url) throws IOException {
+        return backend.openStream(url);
+    }
+
+    // Appends only URLs the product doesn't already have; returns how many were appended
+    public int appendDistinct(List<String> imageUrls, Collection<String> newUrls) {
+        int appended = 0;
+        for (String url : newUrls) {
+            if (imageUrls.contains(url)) {
+                collapsed.incrementAndGet();
+            } else {
+                imageUrls.add(url);
+                appended++;
+            }
+        }
+        return appended;
+    }
+
+    public ImageDedupeStatsDto stats() {
+        long h = hits.get();
+        long m = misses.get();
+        return ImageDedupeStatsDto.builder()
+                .hits(h)
+                .misses(m)
+                .hitRate(h + m == 0 ? 0.0 : (double) h / (h + m))
+                .bytesSaved(bytesSaved.get())
+                .collapsedDuplicates(collapsed.get())
+                .build();
+    }
+
+    // The row can't be deleted while we hold the reference, so the URL read after it is stable
+    private Optional<String> acquire(String hash) {
+        if (assetRepository.acquire(hash) == 0) {
+            return Optional.empty();
+        }
+        return assetRepository.findByContentHash(hash).map(ImageAsset::getUrl);
+    }
+
+    private void recordHit(long size) {
+        hits.incrementAndGet();
+        bytesSaved.addAndGet(size);
+    }
+
+    private void deleteQuietly(String url) {
+        try {
+            backend.deleteFile(url);
+        } catch (RuntimeException e) {
+            logger.warn("Could not delete duplicate image {}: {}", url, e.getMessage());
+        }
+    }
+
+    static String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
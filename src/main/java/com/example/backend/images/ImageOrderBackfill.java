@@ -0,0 +1,69 @@
+package com.example.backend.images;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Startup step for product_images rows written before image_order existed: the schema update adds
+ * the column empty, and Hibernate can't read a list with a null index. Numbers each product's
+ * unordered images from 0 (after any it already has), by URL since no upload order was kept. Runs
+ * after the schema update (it depends on the EntityManagerFactory) and before the context serves
+ * requests; with nothing left to number it is a single query.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+public class ImageOrderBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageOrderBackfill.class);
+
+    private static final String SELECT_UNORDERED = "SELECT product_id, image_url FROM product_images "
+            + "WHERE image_order IS NULL ORDER BY product_id, image_url";
+    private static final String NEXT_ORDER = "SELECT COALESCE(MAX(image_order) + 1, 0) FROM product_images "
+            + "WHERE product_id = ?";
+    private static final String SET_ORDER = "UPDATE product_images SET image_order = ? "
+            + "WHERE product_id = ? AND image_url = ? AND image_order IS NULL";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public ImageOrderBackfill(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void backfill() {
+        List<Object[]> updates = new ArrayList<>();
+        try {
+            Long[] productId = {null};
+            int[] next = {0};
+            jdbcTemplate.query(SELECT_UNORDERED, rs -> {
+                long id = rs.getLong("product_id");
+                if (productId[0] == null || productId[0] != id) {
+                    productId[0] = id;
+                    next[0] = nextOrder(id);
+                }
+                updates.add(new Object[]{next[0]++, id, rs.getString("image_url")});
+            });
+            if (updates.isEmpty()) {
+                return;
+            }
+            jdbcTemplate.batchUpdate(SET_ORDER, updates);
+            logger.info("Numbered {} product images written before image_order existed", updates.size());
+        } catch (DataAccessException e) {
+            // Fails loudly at the first product read instead; nothing was half-numbered past this batch
+            logger.error("Could not backfill product_images.image_order: {}", e.getMessage());
+        }
+    }
+
+    private int nextOrder(long productId) {
+        Integer next = jdbcTemplate.queryForObject(NEXT_ORDER, Integer.class, productId);
+        return next == null ? 0 : next;
+    }
+}
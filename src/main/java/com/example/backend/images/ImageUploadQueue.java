@@ -0,0 +1,136 @@
+package com.example.backend.images;
+
+import com.example.backend.dto.PendingImageDto;
+import com.example.backend.model.ImageUploadJob;
+import com.example.backend.repository.ImageUploadJobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Producer side of the async image pipeline. Product writes stage the multipart files on local
+ * disk (before the transaction) and enqueue one job row per file in the same transaction as the
+ * product, so a committed product always has its images either attached or queued.
+ * ImageUploadWorker drains the queue.
+ * <p>
+ * The staging dir is node-local unless staging-shared is set, so each job records the node that
+ * staged its file (node-id, the host name by default; keep it stable across restarts) and only
+ * that node's workers claim it.
+ */
+@Component
+public class ImageUploadQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageUploadQueue.class);
+
+    private final ImageUploadJobRepository jobRepository;
+    private final Path stagingDir;
+    private final String nodeId;
+
+    public record StagedImage(Path path, String originalFilename) { }
+
+    public ImageUploadQueue(ImageUploadJobRepository jobRepository,
+                            @Value("${catalog.images.staging-dir:./data/image-staging}") String stagingDir,
+                            @Value("${catalog.images.node-id:}") String nodeId) {
+        this.jobRepository = jobRepository;
+        this.stagingDir = Path.of(stagingDir).toAbsolutePath().normalize();
+        this.nodeId = nodeId.isBlank() ? hostName() : nodeId;
+        try {
+            Files.createDirectories(this.stagingDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create image staging directory " + this.stagingDir, e);
+        }
+    }
+
+    // Moves the parts to the staging dir; all-or-nothing
+    public List<StagedImage> stage(List<MultipartFile> files) {
+        List<StagedImage> staged = new ArrayList<>();
+        if (files == null) return staged;
+
+        try {
+            for (MultipartFile file : files) {
+                if (file.isEmpty()) continue;
+                Path path = stagingDir.resolve(UUID.randomUUID() + ".upload");
+                file.transferTo(path);
+                staged.add(new StagedImage(path, file.getOriginalFilename()));
+            }
+            return staged;
+        } catch (IOException e) {
+            discard(staged);
+            throw new RuntimeException("Image upload failed");
+        }
+    }
+
+    // Must run inside the product's transaction
+    public List<PendingImageDto> enqueue(Long productId, List<StagedImage> staged) {
+        if (staged.isEmpty()) return new ArrayList<>();
+
+        LocalDateTime now = LocalDateTime.now();
+        List<ImageUploadJob> jobs = staged.stream()
+                .map(image -> ImageUploadJob.builder()
+                        .productId(productId)
+                        .stagedPath(image.path().toString())
+                        .stagingNode(nodeId)
+                        .originalFilename(image.originalFilename())
+                        .status(ImageUploadJob.Status.PENDING)
+                        .nextAttemptAt(now)
+                        .build())
+                .toList();
+        return jobRepository.saveAll(jobs).stream().map(ImageUploadQueue::toDto).toList();
+    }
+
+    // The node whose staging dir holds the files this queue stages
+    public String nodeId() {
+        return nodeId;
+    }
+
+    public List<PendingImageDto> pendingFor(Long productId) {
+        return jobRepository.findByProductIdAndStatusInOrderById(productId, EnumSet.allOf(ImageUploadJob.Status.class))
+                .stream()
+                .map(ImageUploadQueue::toDto)
+                .toList();
+    }
+
+    // Staged files of a write that never committed
+    public void discard(List<StagedImage> staged) {
+        staged.forEach(image -> deleteStaged(image.path()));
+    }
+
+    static void deleteStaged(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Could not delete staged image {}: {}", path, e.getMessage());
+        }
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            throw new IllegalStateException("Cannot resolve the host name; set catalog.images.node-id", e);
+        }
+    }
+
+    private static PendingImageDto toDto(ImageUploadJob job) {
+        return PendingImageDto.builder()
+                .jobId(job.getId())
+                .filename(job.getOriginalFilename())
+                .status(job.getStatus().name())
+                .attempts(job.getAttempts())
+                .build();
+    }
+}
@@ -0,0 +1,301 @@
+package com.example.backend.images;
+
+import com.example.backend.adapter.ProductAdapter;
+import com.example.backend.cache.ProductDetailCache;
+import com.example.backend.dto.ImageQueueStatsDto;
+import com.example.backend.dto.ProductResponseDto;
+import com.example.backend.event.ProductChangedEvent;
+import com.example.backend.model.ImageUploadJob;
+import com.example.backend.model.Product;
+import com.example.backend.repository.ImageUploadJobRepository;
+import com.example.backend.repository.ProductRepository;
+import com.example.backend.service.ImageStorage;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Consumer side of the async image pipeline. Polls due jobs staged on this node (any node's with
+ * staging-shared), claims each with a status compare-and-set (safe with several nodes), uploads
+ * on a fixed worker pool and appends the URLs to the product in the order they were staged.
+ * Failures retry with jittered exponential backoff up to max-attempts, then the job is left
+ * FAILED. PROCESSING jobs older than the lease are assumed orphaned and re-queued.
+ */
+@Component
+public class ImageUploadWorker {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageUploadWorker.class);
+    private static final long THROUGHPUT_WINDOW_MS = 60_000;
+
+    private final ImageUploadJobRepository jobRepository;
+    private final ProductRepository productRepository;
+    private final ProductAdapter productAdapter;
+    private final ImageUploadQueue imageQueue;
+    private final ImageStorage imageStorage;
+    private final DeduplicatingImageStorage imageDedupe;
+    private final ProductDetailCache productCache;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final int workers;
+    private final int maxAttempts;
+    private final long baseBackoffMs;
+    private final long maxBackoffMs;
+    private final long leaseSeconds;
+    private final boolean stagingShared;
+
+    private final ExecutorService executor;
+    private final Semaphore slots;
+
+    private final AtomicLong completedTotal = new AtomicLong();
+    private final AtomicLong failedTotal = new AtomicLong();
+    private final ConcurrentLinkedDeque<Long> recentCompletions = new ConcurrentLinkedDeque<>();
+
+    public ImageUploadWorker(ImageUploadJobRepository jobRepository,
+                             ProductRepository productRepository,
+                             ProductAdapter productAdapter,
+                             ImageUploadQueue imageQueue,
+                             ImageStorage imageStorage,
+                             DeduplicatingImageStorage imageDedupe,
+                             ProductDetailCache productCache,
+                             TransactionTemplate transactionTemplate,
+                             ApplicationEventPublisher eventPublisher,
+                             @Value("${catalog.images.worker.threads:4}") int workers,
+                             @Value("${catalog.images.worker.max-attempts:5}") int maxAttempts,
+                             @Value("${catalog.images.worker.backoff-ms:2000}") long baseBackoffMs,
+                             @Value("${catalog.images.worker.max-backoff-ms:300000}") long maxBackoffMs,
+                             @Value("${catalog.images.worker.lease-seconds:300}") long leaseSeconds,
+                             @Value("${catalog.images.staging-shared:false}") boolean stagingShared) {
+        this.jobRepository = jobRepository;
+        this.productRepository = productRepository;
+        this.productAdapter = productAdapter;
+        this.imageQueue = imageQueue;
+        this.imageStorage = imageStorage;
+        this.imageDedupe = imageDedupe;
+        this.productCache = productCache;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.workers = workers;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoffMs = baseBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.leaseSeconds = leaseSeconds;
+        this.stagingShared = stagingShared;
+
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "image-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.slots = new Semaphore(workers);
+    }
+
+    @Scheduled(fixedDelayString = "${catalog.images.worker.poll-interval-ms:500}")
+    public void poll() {
+        LocalDateTime now = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> {
+            int released = jobRepository.releaseStale(ImageUploadJob.Status.PENDING, ImageUploadJob.Status.PROCESSING,
+                    now.minusSeconds(leaseSeconds), now);
+            if (released > 0) logger.warn("Re-queued {} image jobs with expired leases", released);
+        });
+
+        int free = slots.availablePermits();
+        if (free == 0) return;
+
+        // Only claim what idle workers can start right away; the rest stays visible to other nodes.
+        // A node-local staging dir only has this node's files, so other nodes' jobs are not ours to try
+        List<Long> due = stagingShared
+                ? jobRepository.findDueIds(ImageUploadJob.Status.PENDING, now, PageRequest.of(0, free))
+                : jobRepository.findDueIdsStagedOn(imageQueue.nodeId(), ImageUploadJob.Status.PENDING, now,
+                        PageRequest.of(0, free));
+        for (Long jobId : due) {
+            if (!slots.tryAcquire()) break;
+            if (!claim(jobId)) {
+                slots.release();
+                continue;
+            }
+            executor.execute(() -> {
+                try {
+                    process(jobId);
+                } finally {
+                    slots.release();
+                }
+            });
+        }
+    }
+
+    private boolean claim(Long jobId) {
+        Integer claimed = transactionTemplate.execute(status -> jobRepository.transition(
+                jobId, ImageUploadJob.Status.PENDING, ImageUploadJob.Status.PROCESSING, LocalDateTime.now()));
+        return claimed != null && claimed == 1;
+    }
+
+    private void process(Long jobId) {
+        ImageUploadJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null) return;
+
+        try {
+            if (job.getUploadedUrl() == null) {
+                job.setUploadedUrl(imageStorage.uploadFile(Path.of(job.getStagedPath()), job.getOriginalFilename()));
+                job = jobRepository.save(job); // Remember the URL before touching the product
+            }
+            attach(job);
+        } catch (RuntimeException e) {
+            fail(job, e);
+        }
+    }
+
+    /**
+     * Appends the product's uploaded images in staging order: every uploaded job up to the first
+     * one still uploading (FAILED ones are skipped), this one included. If an earlier image is
+     * still uploading, this job waits: that image's attach takes it along, or its next poll does.
+     */
+    private void attach(ImageUploadJob job) {
+        Long productId = job.getProductId();
+        List<ImageUploadJob> done = new ArrayList<>();
+
+        Boolean attached = transactionTemplate.execute(status -> {
+            List<ImageUploadJob> queued = jobRepository.lockByProductId(productId);
+            List<ImageUploadJob> ready = new ArrayList<>();
+            ImageUploadJob current = null;
+            for (ImageUploadJob queuedJob : queued) {
+                if (queuedJob.getId().equals(job.getId())) current = queuedJob;
+                if (queuedJob.getStatus() == ImageUploadJob.Status.FAILED) continue;
+                if (queuedJob.getUploadedUrl() == null) break;
+                ready.add(queuedJob);
+            }
+            if (current == null) return true; // Attached by an earlier image's worker meanwhile
+            if (!ready.contains(current)) {
+                current.setStatus(ImageUploadJob.Status.PENDING);
+                current.setNextAttemptAt(LocalDateTime.now().plusNanos(backoffMs(1) * 1_000_000));
+                return true;
+            }
+
+            Optional<Product> found = productRepository.findById(productId);
+            jobRepository.deleteAll(ready);
+            done.addAll(ready);
+            if (found.isEmpty()) return false;
+
+            Product product = found.get();
+            // Same content already on the product (re-uploaded photo): nothing to append, job still done
+            imageDedupe.appendDistinct(product.getImageUrls(),
+                    ready.stream().map(ImageUploadJob::getUploadedUrl).toList());
+            Product saved = productRepository.saveAndFlush(product); // Bumps @Version when the list changed
+
+            ProductResponseDto dto = productAdapter.toDto(saved);
+            dto.setPendingImages(imageQueue.pendingFor(productId));
+            eventPublisher.publishEvent(ProductChangedEvent.upserted(dto));
+            return true;
+        });
+
+        for (ImageUploadJob doneJob : done) {
+            ImageUploadQueue.deleteStaged(Path.of(doneJob.getStagedPath()));
+            if (Boolean.TRUE.equals(attached)) {
+                recordCompletion();
+                continue;
+            }
+            // Product was deleted while the upload was queued
+            logger.info("Product {} no longer exists; discarding uploaded image {}",
+                    productId, doneJob.getUploadedUrl());
+            try {
+                imageStorage.deleteFile(doneJob.getUploadedUrl());
+            } catch (RuntimeException e) {
+                logger.warn("Could not delete orphaned image {}: {}", doneJob.getUploadedUrl(), e.getMessage());
+            }
+        }
+    }
+
+    private void fail(ImageUploadJob job, RuntimeException error) {
+        int attempts = job.getAttempts() + 1;
+        job.setAttempts(attempts);
+        job.setLastError(truncate(error.getMessage()));
+
+        if (attempts >= maxAttempts) {
+            job.setStatus(ImageUploadJob.Status.FAILED);
+            ImageUploadQueue.deleteStaged(Path.of(job.getStagedPath()));
+            failedTotal.incrementAndGet();
+            logger.error("Image job {} for product {} failed permanently after {} attempts: {}",
+                    job.getId(), job.getProductId(), attempts, error.getMessage());
+        } else {
+            long delay = backoffMs(attempts);
+            job.setStatus(ImageUploadJob.Status.PENDING);
+            job.setNextAttemptAt(LocalDateTime.now().plusNanos(delay * 1_000_000));
+            logger.warn("Image job {} attempt {} failed ({}); retrying in {} ms",
+                    job.getId(), attempts, error.getMessage(), delay);
+        }
+
+        try {
+            jobRepository.save(job);
+        } catch (RuntimeException e) {
+            // Row is still PROCESSING; the lease timeout will hand it back to the queue
+            logger.error("Could not record failure of image job {}: {}", job.getId(), e.getMessage());
+        }
+        // Status changed without a product version bump, so drop the cached detail view
+        productCache.invalidate(job.getProductId());
+    }
+
+    // Exponential with "equal jitter": half fixed, half random, so retries from a burst spread out
+    long backoffMs(int attempts) {
+        long exponential = Math.min(maxBackoffMs, baseBackoffMs << Math.min(attempts - 1, 20));
+        return exponential / 2 + ThreadLocalRandom.current().nextLong(exponential / 2 + 1);
+    }
+
+    private void recordCompletion() {
+        completedTotal.incrementAndGet();
+        long now = System.currentTimeMillis();
+        recentCompletions.addLast(now);
+        trimWindow(now);
+    }
+
+    private void trimWindow(long now) {
+        Iterator<Long> it = recentCompletions.iterator();
+        while (it.hasNext() && it.next() < now - THROUGHPUT_WINDOW_MS) {
+            it.remove();
+        }
+    }
+
+    public ImageQueueStatsDto stats() {
+        trimWindow(System.currentTimeMillis());
+        return ImageQueueStatsDto.builder()
+                .pending(jobRepository.countByStatus(ImageUploadJob.Status.PENDING))
+                .processing(jobRepository.countByStatus(ImageUploadJob.Status.PROCESSING))
+                .failed(jobRepository.countByStatus(ImageUploadJob.Status.FAILED))
+                .completedTotal(completedTotal.get())
+                .failedTotal(failedTotal.get())
+                .completedLastMinute(recentCompletions.size())
+                .workers(workers)
+                .busyWorkers(workers - slots.availablePermits())
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown(); // In-flight jobs not finished by exit are re-queued by the lease timeout
+    }
+
+    private static String truncate(String message) {
+        if (message == null) return null;
+        return message.length() <= 500 ? message : message.substring(0, 500);
+    }
+}
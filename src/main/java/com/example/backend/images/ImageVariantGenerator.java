@@ -0,0 +1,221 @@
+package com.example.backend.images;
+
+import com.example.backend.cache.ProductDetailCache;
+import com.example.backend.dto.ImageVariantsDto;
+import com.example.backend.event.ProductChangedEvent;
+import com.example.backend.model.ImageVariant;
+import com.example.backend.model.ImageVariantFailure;
+import com.example.backend.repository.ImageVariantFailureRepository;
+import com.example.backend.repository.ImageVariantRepository;
+import com.example.backend.repository.ProductRepository;
+import com.example.backend.service.ImageStorage;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Generates THUMBNAIL and MEDIUM renditions of product images in the background. Work arrives from
+ * committed product writes and from a periodic backfill sweep; decoding/resizing runs on a bounded
+ * CPU-sized pool and the results are stored through ImageStorage like any other image.
+ * When the pool's queue is full new work is dropped: the sweep picks it up later.
+ * <p>
+ * Failures are recorded per source image in image_variant_failures; after max-attempts (at once
+ * for an image that can't be decoded) the image is left without variants and the sweep skips it.
+ */
+@Component
+public class ImageVariantGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ImageVariantGenerator.class);
+    private static final int SWEEP_BATCH = 200;
+
+    private final ImageVariantRepository variantRepository;
+    private final ImageVariantFailureRepository failureRepository;
+    private final ProductRepository productRepository;
+    private final ImageStorage imageStorage;
+    private final ProductDetailCache productCache;
+    private final ThreadPoolExecutor executor;
+    private final int maxAttempts;
+
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    public ImageVariantGenerator(ImageVariantRepository variantRepository,
+                                 ImageVariantFailureRepository failureRepository,
+                                 ProductRepository productRepository,
+                                 ImageStorage imageStorage,
+                                 ProductDetailCache productCache,
+                                 @Value("${catalog.images.variants.threads:0}") int threads,
+                                 @Value("${catalog.images.variants.queue-capacity:1000}") int queueCapacity,
+                                 @Value("${catalog.images.variants.max-attempts:3}") int maxAttempts) {
+        this.variantRepository = variantRepository;
+        this.failureRepository = failureRepository;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.productRepository = productRepository;
+        this.imageStorage = imageStorage;
+        this.productCache = productCache;
+
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-variants-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.NORM_PRIORITY - 1); // Request threads come first
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.type() == ProductChangedEvent.Type.UPSERTED && event.product().getImageUrls() != null) {
+            event.product().getImageUrls().forEach(this::submit);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${catalog.images.variants.sweep-interval-ms:60000}",
+            fixedDelayString = "${catalog.images.variants.sweep-interval-ms:60000}")
+    public void sweep() {
+        List<String> missing = variantRepository.findImageUrlsWithoutThumbnail(maxAttempts,
+                PageRequest.of(0, SWEEP_BATCH));
+        missing.forEach(this::submit);
+    }
+
+    public void submit(String sourceUrl) {
+        if (!inFlight.add(sourceUrl)) return;
+        try {
+            executor.execute(() -> {
+                try {
+                    generate(sourceUrl);
+                } catch (Exception e) {
+                    logger.warn("Variant generation failed for {}: {}", sourceUrl, e.getMessage());
+                    recordFailure(sourceUrl, e.getMessage(), false);
+                } finally {
+                    inFlight.remove(sourceUrl);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(sourceUrl); // Queue full; the sweep will retry
+        }
+    }
+
+    private void generate(String sourceUrl) throws IOException {
+        Set<ImageVariant.Kind> missing = EnumSet.allOf(ImageVariant.Kind.class);
+        variantRepository.findBySourceUrl(sourceUrl).forEach(variant -> missing.remove(variant.getKind()));
+        if (missing.isEmpty() || givenUp(sourceUrl)) return;
+
+        BufferedImage source;
+        try (InputStream in = imageStorage.openStream(sourceUrl)) {
+            source = ImageIO.read(in);
+        }
+        if (source == null) {
+            logger.info("Skipping variants for {}: not a decodable image", sourceUrl);
+            recordFailure(sourceUrl, "Not a decodable image", true);
+            return;
+        }
+
+        for (ImageVariant.Kind kind : missing) {
+            BufferedImage resized = ImageResizer.fit(source, kind.getMaxSize());
+            Path tempFile = Files.createTempFile("variant-", ".jpg");
+            try {
+                ImageResizer.writeJpeg(resized, tempFile);
+                String url = imageStorage.uploadFile(tempFile, kind.name().toLowerCase() + ".jpg");
+                variantRepository.save(ImageVariant.builder()
+                        .sourceUrl(sourceUrl)
+                        .kind(kind)
+                        .url(url)
+                        .width(resized.getWidth())
+                        .height(resized.getHeight())
+                        .build());
+            } catch (DataIntegrityViolationException e) {
+                logger.debug("{} variant of {} already stored by another node", kind, sourceUrl);
+            } finally {
+                ImageUploadQueue.deleteStaged(tempFile);
+            }
+        }
+
+        // New renditions change the detail body: bump the versions (other nodes' caches, ETags), evict here eagerly
+        List<Long> productIds = variantRepository.findProductIdsByImageUrl(sourceUrl);
+        if (!productIds.isEmpty()) {
+            productRepository.incrementVersions(productIds);
+            productIds.forEach(productCache::invalidate);
+        }
+    }
+
+    private boolean givenUp(String sourceUrl) {
+        return failureRepository.findBySourceUrl(sourceUrl)
+                .map(failure -> failure.getAttempts() >= maxAttempts)
+                .orElse(false);
+    }
+
+    // permanent: retrying can't help (the bytes are not an image), so give up right away
+    private void recordFailure(String sourceUrl, String error, boolean permanent) {
+        try {
+            ImageVariantFailure failure = failureRepository.findBySourceUrl(sourceUrl)
+                    .orElseGet(() -> ImageVariantFailure.builder().sourceUrl(sourceUrl).build());
+            failure.setAttempts(permanent ? maxAttempts : failure.getAttempts() + 1);
+            failure.setLastError(error == null || error.length() <= 500 ? error : error.substring(0, 500));
+            failureRepository.save(failure);
+            if (failure.getAttempts() >= maxAttempts) {
+                logger.warn("Giving up on variants for {} after {} attempts", sourceUrl, failure.getAttempts());
+            }
+        } catch (DataAccessException e) {
+            // Another node recorded a failure of the same image at the same moment; the next one counts
+            logger.debug("Could not record variant failure for {}: {}", sourceUrl, e.getMessage());
+        }
+    }
+
+    // Detail view: every image in order with whatever renditions exist so far
+    public List<ImageVariantsDto> variantsFor(List<String> imageUrls) {
+        if (imageUrls == null || imageUrls.isEmpty()) return new ArrayList<>();
+
+        Map<String, Map<ImageVariant.Kind, String>> bySource = variantRepository.findBySourceUrlIn(imageUrls).stream()
+                .collect(Collectors.groupingBy(ImageVariant::getSourceUrl,
+                        Collectors.toMap(ImageVariant::getKind, ImageVariant::getUrl, (a, b) -> a,
+                                () -> new EnumMap<>(ImageVariant.Kind.class))));
+
+        return imageUrls.stream()
+                .map(url -> {
+                    Map<ImageVariant.Kind, String> variants = bySource.getOrDefault(url, Map.of());
+                    return ImageVariantsDto.builder()
+                            .original(url)
+                            .thumbnail(variants.get(ImageVariant.Kind.THUMBNAIL))
+                            .medium(variants.get(ImageVariant.Kind.MEDIUM))
+                            .build();
+                })
+                .collect(Collectors.toList());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow(); // Unfinished work is found again by the sweep
+    }
+}
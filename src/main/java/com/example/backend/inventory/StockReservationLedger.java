@@ -0,0 +1,222 @@
+package com.example.backend.inventory;
+
+import com.example.backend.dto.ReservationStatsDto;
+import com.example.backend.repository.StockReservationRepository;
+import com.example.backend.repository.StockReservationRepository.HoldRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Soft stock holds placed by carts. Adding to a cart holds the line's quantity for ttl-seconds;
+ * available stock is Product.stock minus everyone else's active holds, and checkout turns the
+ * user's holds into the real deduction (placeOrder) and drops them in the same transaction.
+ * <p>
+ * Holds live in the database so every node sees the same ones: stock_reservations has one row per
+ * hold and stock_hold_totals the per-product sum, so availability (of a whole cart at once) is one
+ * statement of primary-key lookups and never scans holds. A hold is placed by a guarded UPDATE of
+ * the total, which is what keeps two nodes from holding the same units. Expired holds keep counting until the scheduled
+ * sweep (on any node) reclaims them, at most one sweep interval later.
+ */
+@Component
+public class StockReservationLedger {
+
+    private static final Logger logger = LoggerFactory.getLogger(StockReservationLedger.class);
+
+    private final StockReservationRepository repository;
+    private final TransactionTemplate transaction;
+    private final long ttlSeconds;
+    private final int sweepBatchSize;
+
+    // This node's counters
+    private final AtomicLong placed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong expired = new AtomicLong();
+
+    public StockReservationLedger(StockReservationRepository repository,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${catalog.reservations.ttl-seconds:900}") long ttlSeconds,
+                                  @Value("${catalog.reservations.sweep-batch-size:500}") int sweepBatchSize) {
+        this.repository = repository;
+        // Joins the caller's transaction as a savepoint, so a refused hold undoes only its own writes
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+        this.ttlSeconds = ttlSeconds;
+        this.sweepBatchSize = Math.max(1, sweepBatchSize);
+    }
+
+    // Stock this user may buy: their own hold counts as theirs
+    public int availableTo(Long userId, Long productId, int stock) {
+        return stock - repository.heldByOthers(userId, List.of(productId)).getOrDefault(productId, 0);
+    }
+
+    // As above for several products in one lookup; stock is product id to Product.stock
+    public Map<Long, Integer> availableTo(Long userId, Map<Long, Integer> stock) {
+        Map<Long, Integer> held = repository.heldByOthers(userId, stock.keySet());
+        Map<Long, Integer> available = new HashMap<>();
+        stock.forEach((productId, units) -> available.put(productId, units - held.getOrDefault(productId, 0)));
+        return available;
+    }
+
+    /**
+     * Grows the user's hold on one product by {@code additional} and restarts its TTL.
+     *
+     * @return false (and nothing held) when the unreserved stock can't cover the new hold
+     */
+    public boolean reserve(Long userId, Long productId, int additional, int stock) {
+        boolean held = Boolean.TRUE.equals(transaction.execute(status -> {
+            repository.add(userId, productId, additional, expiresAt());
+            // The user's own hold is in the total too, so this is "others' holds + new quantity <= stock"
+            if (repository.changeHeld(Map.of(productId, additional), Map.of(productId, stock)).isEmpty()) {
+                return true;
+            }
+            status.setRollbackOnly();
+            return false;
+        }));
+        (held ? placed : rejected).incrementAndGet();
+        return held;
+    }
+
+    /**
+     * Sets the user's holds to exactly these quantities (0 releases), all or nothing.
+     *
+     * @param quantities product id to the quantity to hold
+     * @param stock      product id to Product.stock, for every product with a non-zero quantity
+     * @return the products whose unreserved stock is short; nothing was changed if not empty
+     */
+    public List<Long> hold(Long userId, Map<Long, Integer> quantities, Map<Long, Integer> stock) {
+        List<Long> shortfalls = transaction.execute(status -> {
+            Map<Long, Integer> current = repository.lockByUser(userId);
+
+            List<Long> released = new ArrayList<>();
+            Map<Long, Integer> changed = new HashMap<>();
+            Map<Long, Integer> added = new HashMap<>();
+            Map<Long, Integer> deltas = new HashMap<>();
+            quantities.forEach((productId, quantity) -> {
+                int previous = current.getOrDefault(productId, 0);
+                if (quantity == 0 && previous > 0) {
+                    released.add(productId);
+                } else if (quantity > 0 && current.containsKey(productId)) {
+                    changed.put(productId, quantity);
+                } else if (quantity > 0) {
+                    added.put(productId, quantity);
+                }
+                if (quantity != previous) {
+                    deltas.put(productId, quantity - previous);
+                }
+            });
+
+            LocalDateTime expiresAt = expiresAt();
+            repository.delete(userId, released);
+            repository.update(userId, changed, expiresAt);
+            try {
+                repository.insert(userId, added, expiresAt);
+            } catch (DuplicateKeyException e) {
+                // A hold placed by a concurrent add since the lock; the caller's retry reads it again
+                throw new ConcurrencyFailureException("Stock holds of user " + userId + " changed concurrently", e);
+            }
+
+            // Releases and new holds in one product-ordered pass, so two holds lock the totals in the same order
+            List<Long> shortProducts = repository.changeHeld(deltas, stock);
+            if (!shortProducts.isEmpty()) {
+                status.setRollbackOnly();
+            }
+            return shortProducts;
+        });
+        if (!shortfalls.isEmpty()) {
+            rejected.incrementAndGet();
+        } else if (!quantities.isEmpty()) {
+            placed.incrementAndGet();
+        }
+        return shortfalls;
+    }
+
+    public void release(Long userId, Long productId) {
+        transaction.executeWithoutResult(status -> {
+            Integer quantity = repository.lockByUser(userId).get(productId);
+            if (quantity != null) {
+                repository.delete(userId, List.of(productId));
+                repository.subtractHeld(Map.of(productId, quantity));
+            }
+        });
+    }
+
+    // Cart cleared, or checkout: the order's deduction replaces the holds
+    public void releaseAll(Long userId) {
+        transaction.executeWithoutResult(status -> {
+            Map<Long, Integer> holds = repository.lockByUser(userId);
+            repository.delete(userId, holds.keySet());
+            repository.subtractHeld(holds);
+        });
+    }
+
+    /**
+     * Reclaims expired holds, oldest first, sweep-batch-size at a time: each batch deletes the rows
+     * and takes their quantities off the totals in one transaction.
+     */
+    @Scheduled(fixedDelayString = "${catalog.reservations.sweep-interval-ms:5000}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        int reclaimed = 0;
+        try {
+            List<HoldRow> batch;
+            do {
+                batch = repository.findExpired(now, sweepBatchSize);
+                List<HoldRow> rows = batch;
+                reclaimed += transaction.execute(status -> reclaim(rows, now));
+            } while (batch.size() == sweepBatchSize);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to sweep expired stock reservations: {}", e.getMessage());
+        }
+        expired.addAndGet(reclaimed);
+    }
+
+    public ReservationStatsDto stats() {
+        return ReservationStatsDto.builder()
+                .activeHolds(repository.countActive(LocalDateTime.now()))
+                .heldUnits(repository.sumHeld())
+                .placed(placed.get())
+                .rejected(rejected.get())
+                .expired(expired.get())
+                .build();
+    }
+
+    private int reclaim(List<HoldRow> rows, LocalDateTime now) {
+        List<HoldRow> ordered = rows.stream()
+                .sorted(Comparator.comparing(HoldRow::userId).thenComparing(HoldRow::productId))
+                .toList();
+        int[] counts = repository.deleteExpired(ordered, now);
+
+        // Only rows this sweep deleted come off the totals; a concurrent sweep got the others
+        Map<Long, Integer> released = new TreeMap<>();
+        int reclaimed = 0;
+        for (int i = 0; i < ordered.size(); i++) {
+            if (counts[i] == 1) {
+                released.merge(ordered.get(i).productId(), ordered.get(i).quantity(), Integer::sum);
+                reclaimed++;
+            }
+        }
+        repository.subtractHeld(released);
+        return reclaimed;
+    }
+
+    private LocalDateTime expiresAt() {
+        return LocalDateTime.now().plusSeconds(ttlSeconds);
+    }
+}
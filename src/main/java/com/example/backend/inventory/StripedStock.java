@@ -0,0 +1,160 @@
+package com.example.backend.inventory;
+
+import com.example.backend.dto.StripedStockStatsDto;
+import com.example.backend.model.Product;
+import com.example.backend.repository.InventoryBucketRepository;
+import com.example.backend.repository.InventoryBucketRepository.Bucket;
+import com.example.backend.repository.InventoryBucketRepository.ProductStock;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Striped inventory for hot products. With stockBuckets = N the product's stock is split across N
+ * inventory_buckets rows (products.stock stays 0), and a checkout decrements one randomly chosen
+ * bucket, so concurrent checkouts of the same product mostly lock different rows instead of
+ * queueing on one. When the chosen bucket can't cover the quantity, every bucket is locked, the
+ * quantity is taken from the total and the rest is spread evenly again.
+ * <p>
+ * Lock order: a checkout holds at most one bucket of a product before it rebalances, and only if
+ * the take that missed left its row locked. At READ COMMITTED (checkout's level) it doesn't: a
+ * guarded UPDATE releases rows it didn't change, so a rebalance locks every bucket in bucket_no
+ * order holding none of them, and concurrent rebalances queue instead of deadlocking. At MySQL's
+ * default REPEATABLE READ the missed row stays locked, and two rebalances can deadlock; the
+ * database then rolls one back and the caller's retry runs it again.
+ * <p>
+ * Published stock and version are the row's own plus the buckets' sums (Product.currentStock /
+ * currentVersion and the matching repository queries), so DTOs, ETags and the detail cache stay
+ * exact without bucket writes touching the product row. All methods run in the caller's transaction.
+ */
+@Component
+public class StripedStock {
+
+    private static final Logger logger = LoggerFactory.getLogger(StripedStock.class);
+
+    private final InventoryBucketRepository repository;
+    private final int maxBuckets;
+
+    private final AtomicLong takes = new AtomicLong();
+    private final AtomicLong rebalances = new AtomicLong();
+    private final AtomicLong shortfalls = new AtomicLong();
+
+    public StripedStock(InventoryBucketRepository repository,
+                        @Value("${catalog.inventory.max-buckets:64}") int maxBuckets) {
+        this.repository = repository;
+        this.maxBuckets = maxBuckets;
+    }
+
+    /**
+     * Deducts from a striped product.
+     *
+     * @return false (nothing deducted) when all buckets together can't cover the quantity
+     */
+    public boolean take(Long productId, int buckets, int quantity) {
+        if (repository.take(productId, ThreadLocalRandom.current().nextInt(buckets), quantity)) {
+            takes.incrementAndGet();
+            return true;
+        }
+
+        // That bucket ran dry (or is too small for this quantity): take from the locked total and even out.
+        // The missed row isn't held at READ COMMITTED, so this locks in bucket_no order from scratch
+        List<Bucket> locked = repository.lockBuckets(productId);
+        if (locked.isEmpty()) {
+            // Un-striped since the product was read; the retry reads it again
+            throw new ConcurrencyFailureException("Stock buckets of product " + productId + " changed during checkout");
+        }
+        int total = locked.stream().mapToInt(Bucket::stock).sum();
+        if (total < quantity) {
+            shortfalls.incrementAndGet();
+            return false;
+        }
+
+        int[] shares = split(total - quantity, locked.size());
+        Map<Integer, Integer> changed = new LinkedHashMap<>();
+        for (int i = 0; i < shares.length; i++) {
+            if (locked.get(i).stock() != shares[i]) {
+                changed.put(locked.get(i).bucketNo(), shares[i]);
+            }
+        }
+        repository.setStock(productId, changed);
+        rebalances.incrementAndGet();
+        takes.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Re-stripes a product across {@code buckets} buckets (0 folds the stock back onto the product
+     * row). The current total carries over; the product row is locked first.
+     */
+    public void resize(Long productId, int buckets) {
+        if (buckets < 0 || buckets > maxBuckets) {
+            throw new IllegalArgumentException("Bucket count must be between 0 and " + maxBuckets);
+        }
+        ProductStock product = repository.lockProduct(productId)
+                .orElseThrow(() -> new EntityNotFoundException("Product not found with ID: " + productId));
+        List<Bucket> current = repository.lockBuckets(productId);
+        int total = product.stock() + current.stream().mapToInt(Bucket::stock).sum();
+        long bucketVersions = current.stream().mapToLong(Bucket::version).sum();
+
+        repository.replace(productId, buckets > 0 ? split(total, buckets) : new int[0]);
+        // The dropped buckets' versions move onto the row, so the published version only grows
+        repository.updateProduct(productId, buckets > 0 ? 0 : total, buckets, bucketVersions + 1);
+        logger.info("Product {} stock ({} units) now striped across {} buckets", productId, total, buckets);
+    }
+
+    /**
+     * Sets a striped product's total to {@code stock} (an edit of the product), spread evenly. Call
+     * after the product row is written, and keeps the entity's bucket totals in step for its DTO.
+     */
+    public void restock(Product product, int stock) {
+        List<Bucket> locked = repository.lockBuckets(product.getId());
+        long bucketVersions = locked.stream().mapToLong(Bucket::version).sum();
+        if (locked.isEmpty()) {
+            repository.replace(product.getId(), split(stock, product.getStockBuckets()));
+        } else {
+            int[] shares = split(stock, locked.size());
+            Map<Integer, Integer> stockByBucket = new LinkedHashMap<>();
+            for (int i = 0; i < shares.length; i++) {
+                stockByBucket.put(locked.get(i).bucketNo(), shares[i]);
+            }
+            repository.setStock(product.getId(), stockByBucket);
+            bucketVersions += locked.size();
+        }
+        product.setBucketStock(stock);
+        product.setBucketVersion(bucketVersions);
+    }
+
+    public List<Integer> bucketStock(Long productId) {
+        return repository.findBuckets(productId).stream().map(Bucket::stock).toList();
+    }
+
+    public void remove(Long productId) {
+        repository.deleteByProductId(productId);
+    }
+
+    public StripedStockStatsDto stats() {
+        return StripedStockStatsDto.builder()
+                .takes(takes.get())
+                .rebalances(rebalances.get())
+                .shortfalls(shortfalls.get())
+                .build();
+    }
+
+    // Even shares; the first (total % buckets) get one more
+    static int[] split(int total, int buckets) {
+        int[] shares = new int[buckets];
+        for (int i = 0; i < buckets; i++) {
+            shares[i] = total / buckets + (i < total % buckets ? 1 : 0);
+        }
+        return shares;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Content-addressed index of stored images: SHA-256 of the bytes -> URL it was stored under
+@Entity
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "image_assets", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_image_assets_hash", columnNames = "content_hash")
+})
+public class ImageAsset extends BaseEntity {
+
+    @Column(name = "content_hash", nullable = false, length = 64)
+    private String contentHash; // hex
+
+    @Column(nullable = false, length = 500)
+    private String url;
+
+    private long sizeBytes;
+
+    // Uploads handed this URL and not yet discarded; the file is only deleted once it is back to 0
+    @Column(name = "ref_count", nullable = false, columnDefinition = "INT DEFAULT 1")
+    private int refCount;
+}
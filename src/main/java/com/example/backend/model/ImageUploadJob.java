@@ -0,0 +1,59 @@
+package com.example.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * One queued product image: the file is staged on local disk until a worker has uploaded it
+ * and appended the URL to the product, then the row is deleted. FAILED rows are kept for the seller.
+ * Jobs of one product are attached in id order, which is the order the images were staged.
+ */
+@Entity
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "image_upload_jobs", indexes = {
+        @Index(name = "idx_image_jobs_status_due", columnList = "status, next_attempt_at"),
+        @Index(name = "idx_image_jobs_node_due", columnList = "staging_node, status, next_attempt_at"),
+        @Index(name = "idx_image_jobs_product", columnList = "product_id")
+})
+public class ImageUploadJob extends BaseEntity {
+
+    // Plain id, no FK: a job may outlive its product (deleted while the upload was queued)
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(nullable = false, length = 500)
+    private String stagedPath;
+
+    // Node whose staging dir holds the file; null on rows queued before it was recorded (any node claims those)
+    @Column(length = 255)
+    private String stagingNode;
+
+    @Column(length = 255)
+    private String originalFilename;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    private int attempts;
+
+    private LocalDateTime nextAttemptAt;
+
+    // Set once the upload succeeded, so a retry only has to re-attach, not re-upload
+    @Column(length = 500)
+    private String uploadedUrl;
+
+    @Column(length = 500)
+    private String lastError;
+
+    public enum Status {
+        PENDING,
+        PROCESSING,
+        FAILED
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// A resized rendition of a stored product image, keyed by the original's URL (shared across products)
+@Entity
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "image_variants", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_image_variants_source_kind", columnNames = {"source_url", "kind"})
+})
+public class ImageVariant extends BaseEntity {
+
+    @Column(name = "source_url", nullable = false, length = 500)
+    private String sourceUrl;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Kind kind;
+
+    @Column(nullable = false, length = 500)
+    private String url;
+
+    private int width;
+    private int height;
+
+    public enum Kind {
+        THUMBNAIL(200), // Grid / list views
+        MEDIUM(800);    // Detail view, mobile
+
+        private final int maxSize; // Longest edge in px
+
+        Kind(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+    }
+}
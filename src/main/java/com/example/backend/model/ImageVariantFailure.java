@@ -0,0 +1,27 @@
+package com.example.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Failed variant generations of one source image, shared by every node. Once attempts reaches
+ * max-attempts (at once for an image that can't be decoded) the backfill sweep stops picking it.
+ */
+@Entity
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "image_variant_failures", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_image_variant_failures_source", columnNames = "source_url")
+})
+public class ImageVariantFailure extends BaseEntity {
+
+    @Column(name = "source_url", nullable = false, length = 500)
+    private String sourceUrl;
+
+    private int attempts;
+
+    @Column(length = 500)
+    private String lastError;
+}
@@ -0,0 +1,33 @@
+package com.example.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * One stripe of a striped product's stock (see StripedStock). Written only through
+ * InventoryBucketRepository; the entity is here for the schema.
+ */
+@Entity
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "inventory_buckets", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_inventory_buckets_product_bucket", columnNames = {"product_id", "bucket_no"})
+})
+public class InventoryBucket extends BaseEntity {
+
+    // Plain id, no FK: buckets are removed with their product by the service
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "bucket_no", nullable = false)
+    private int bucketNo;
+
+    @Column(nullable = false)
+    private int stock;
+
+    // Bumped by every write and summed into the product's published version (not a JPA @Version)
+    @Column(nullable = false)
+    private long version;
+}
@@ -2,6 +2,8 @@ package com.example.backend.model;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Formula;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -10,7 +12,20 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        // Keyset pagination and the default createdAt sort: (createdAt, id) per listing / filter scope
+        @Index(name = "idx_products_created_id", columnList = "created_at, id"),
+        @Index(name = "idx_products_category_created_id", columnList = "category_id, created_at, id"),
+        @Index(name = "idx_products_region_created_id", columnList = "region_id, created_at, id"),
+        @Index(name = "idx_products_seller_created_id", columnList = "seller_id, created_at, id"),
+        // Multi-criteria filter: equality columns first, price last so ranges and price sorts stay index scans
+        @Index(name = "idx_products_category_price", columnList = "category_id, price"),
+        @Index(name = "idx_products_region_price", columnList = "region_id, price"),
+        @Index(name = "idx_products_seller_price", columnList = "seller_id, price"),
+        @Index(name = "idx_products_category_region_price", columnList = "category_id, region_id, price")
+})
+// Keyset cursors seek on (created_at, id); a NULL created_at would fall out of every seek range
+@AttributeOverride(name = "createdAt", column = @Column(name = "created_at", nullable = false))
 public class Product extends BaseEntity {
 
     @Column(nullable = false, length = 150)
@@ -23,7 +38,18 @@ public class Product extends BaseEntity {
     private Double price;
 
     @Column(nullable = false)
-    private int stock;
+    private int stock; // 0 while striped: the buckets hold it
+
+    // Striped inventory: > 0 splits the stock across this many inventory_buckets rows (StripedStock)
+    @Column(name = "stock_buckets", nullable = false, columnDefinition = "INT DEFAULT 0")
+    private int stockBuckets;
+
+    // Bucket totals, read with the row (null when not striped); see currentStock() / currentVersion()
+    @Formula("(SELECT SUM(b.stock) FROM inventory_buckets b WHERE b.product_id = id)")
+    private Integer bucketStock;
+
+    @Formula("(SELECT SUM(b.version) FROM inventory_buckets b WHERE b.product_id = id)")
+    private Long bucketVersion;
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "category_id", nullable = false)
@@ -39,12 +65,24 @@ public class Product extends BaseEntity {
 
     // ✅ MULTI-IMAGE SUPPORT
     @ElementCollection
-    @CollectionTable(name = "product_images", joinColumns = @JoinColumn(name = "product_id"))
+    @CollectionTable(name = "product_images", joinColumns = @JoinColumn(name = "product_id"),
+            indexes = @Index(name = "idx_product_images_url", columnList = "image_url")) // Dedupe delete check
     @Column(name = "image_url")
+    @OrderColumn(name = "image_order") // Upload order; index 0 is the primary image
     @Builder.Default
     private List<String> imageUrls = new ArrayList<>();
 
     // ✅ CONCURRENCY CONTROL
     @Version
     private Long version;
-}
\ No newline at end of file
+
+    // Stock as sold: the row's own plus its buckets'
+    public int currentStock() {
+        return stock + (bucketStock != null ? bucketStock : 0);
+    }
+
+    // Version as published (DTO, ETag, detail cache): bucket writes change it without touching the row
+    public Long currentVersion() {
+        return version == null ? null : version + (bucketVersion != null ? bucketVersion : 0);
+    }
+}
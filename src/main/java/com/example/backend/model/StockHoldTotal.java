@@ -0,0 +1,26 @@
+package com.example.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * Running total of a product's stock held by carts, the sum of its stock_reservations rows
+ * (expired ones included until swept). Shared by every node, so availability is one row read;
+ * written only through StockReservationRepository, the entity is here for the schema.
+ */
+@Entity
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "stock_hold_totals")
+public class StockHoldTotal {
+
+    // Plain id, no FK, like the holds it sums
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(nullable = false)
+    private int held;
+}
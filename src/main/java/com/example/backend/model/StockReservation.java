@@ -0,0 +1,35 @@
+package com.example.backend.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A soft stock hold (one per user and product), shared by every node. Written only through
+ * StockReservationRepository, together with the product's StockHoldTotal.
+ */
+@Entity
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Table(name = "stock_reservations", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_stock_reservations_user_product", columnNames = {"user_id", "product_id"})
+}, indexes = {
+        @Index(name = "idx_stock_reservations_expires_at", columnList = "expires_at")
+})
+public class StockReservation extends BaseEntity {
+
+    // Plain ids, no FKs: a hold simply expires if its user or product goes away
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    private int quantity;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
@@ -2,9 +2,29 @@ package com.example.backend.repository;
 
 import com.example.backend.model.CartItem;
 import org.springframework.data.jpa.repository.JpaRepository;
-import java.util.Optional;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
 
 public interface CartItemRepository extends JpaRepository<CartItem, Long> {
-    // Critical for merging duplicates
-    Optional<CartItem> findByCartIdAndProductId(Long cartId, Long productId);
-}
\ No newline at end of file
+
+    // Insert-or-merge in one statement, backed by uk_cart_items_cart_product: concurrent adds of the
+    // same product can't create duplicate lines. total_price is assigned before quantity because
+    // MySQL evaluates the assignments left to right.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO cart_items (cart_id, product_id, quantity, price, total_price, created_at, updated_at) "
+            + "VALUES (:cartId, :productId, :quantity, :price, :totalPrice, :now, :now) "
+            + "ON DUPLICATE KEY UPDATE total_price = (quantity + :quantity) * :price, price = :price, "
+            + "quantity = quantity + :quantity, updated_at = :now", nativeQuery = true)
+    int upsertQuantity(@Param("cartId") Long cartId, @Param("productId") Long productId,
+                       @Param("quantity") int quantity, @Param("price") double price,
+                       @Param("totalPrice") double totalPrice, @Param("now") LocalDateTime now);
+
+    // Set-based clear: one statement whatever the cart size; the session is flushed first and
+    // cleared afterwards so no loaded CartItem outlives its row
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM CartItem i WHERE i.cart.id = :cartId")
+    int deleteByCartId(@Param("cartId") Long cartId);
+}
@@ -0,0 +1,9 @@
+package com.example.backend.repository;
+
+// The product columns a cart line needs (price, stock check, display name)
+public interface CartProductView {
+    Long getId();
+    String getName();
+    Double getPrice();
+    Integer getStock();
+}
@@ -2,8 +2,18 @@ package com.example.backend.repository;
 
 import com.example.backend.model.Cart;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
 import java.util.Optional;
 
 public interface CartRepository extends JpaRepository<Cart, Long> {
     Optional<Cart> findByUserId(Long userId);
+
+    // Cart + items + their products in one statement (user stays a lazy proxy; only its id is read)
+    @Query("SELECT c FROM Cart c LEFT JOIN FETCH c.cartItems i LEFT JOIN FETCH i.product WHERE c.user.id = :userId")
+    Optional<Cart> findWithItemsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT c.id FROM Cart c WHERE c.user.id = :userId")
+    Optional<Long> findIdByUserId(@Param("userId") Long userId);
 }
\ No newline at end of file
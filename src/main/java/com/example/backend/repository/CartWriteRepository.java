@@ -0,0 +1,146 @@
+package com.example.backend.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Write-behind side of the hot cart store: applies the changes of many carts with one JDBC batch
+ * per statement shape instead of one Hibernate flush per cart. Must run inside the caller's transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CartWriteRepository {
+
+    private static final String DELETE_ALL_LINES = "DELETE FROM cart_items WHERE cart_id = ?";
+
+    private static final String DELETE_LINE = "DELETE FROM cart_items WHERE cart_id = ? AND product_id = ?";
+
+    private static final String UPDATE_LINE = "UPDATE cart_items SET quantity = ?, price = ?, total_price = ?, updated_at = ? "
+            + "WHERE cart_id = ? AND product_id = ?";
+
+    private static final String INSERT_LINE = "INSERT INTO cart_items "
+            + "(cart_id, product_id, quantity, price, total_price, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String EXISTING_PRODUCTS = "SELECT id FROM products WHERE id IN (%s)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Absolute state of one line at drain time
+    public record LineWrite(Long productId, int quantity, double unitPrice) { }
+
+    // Everything one cart changed since its last flush
+    public record CartDelta(Long cartId, boolean cleared, List<LineWrite> upserts, List<Long> removedProductIds) { }
+
+    // A line that had no row yet, with the id it was given
+    public record InsertedLine(Long cartId, Long productId, Long itemId) { }
+
+    public List<InsertedLine> write(List<CartDelta> deltas) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> clears = new ArrayList<>();
+        List<Object[]> removals = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        List<Long> updateCartIds = new ArrayList<>();
+        List<LineWrite> updateLines = new ArrayList<>();
+        for (CartDelta delta : deltas) {
+            if (delta.cleared()) {
+                clears.add(new Object[]{delta.cartId()});
+            }
+            for (Long productId : delta.removedProductIds()) {
+                removals.add(new Object[]{delta.cartId(), productId});
+            }
+            for (LineWrite line : delta.upserts()) {
+                updates.add(new Object[]{line.quantity(), line.unitPrice(), line.quantity() * line.unitPrice(), now,
+                        delta.cartId(), line.productId()});
+                updateCartIds.add(delta.cartId());
+                updateLines.add(line);
+            }
+        }
+
+        if (!clears.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_ALL_LINES, clears);
+        }
+        if (!removals.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_LINE, removals);
+        }
+        if (updates.isEmpty()) {
+            return List.of();
+        }
+
+        // Lines without a row (new, or re-added after a clear) come back with a zero count
+        int[] counts = jdbcTemplate.batchUpdate(UPDATE_LINE, updates);
+        List<Long> insertCartIds = new ArrayList<>();
+        List<LineWrite> inserts = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                insertCartIds.add(updateCartIds.get(i));
+                inserts.add(updateLines.get(i));
+            }
+        }
+        return inserts.isEmpty() ? List.of() : insert(insertCartIds, inserts, now);
+    }
+
+    // The ones of these products that still exist (a flush that failed may hold lines of deleted ones)
+    public Set<Long> existingProductIds(Collection<Long> productIds) {
+        Set<Long> existing = new HashSet<>();
+        if (productIds.isEmpty()) {
+            return existing;
+        }
+        jdbcTemplate.query(EXISTING_PRODUCTS.formatted(String.join(", ", Collections.nCopies(productIds.size(), "?"))),
+                rs -> {
+                    existing.add(rs.getLong("id"));
+                }, productIds.toArray());
+        return existing;
+    }
+
+    private List<InsertedLine> insert(List<Long> cartIds, List<LineWrite> lines, Timestamp now) {
+        List<Long> ids = jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_LINE, Statement.RETURN_GENERATED_KEYS)) {
+                for (int i = 0; i < lines.size(); i++) {
+                    LineWrite line = lines.get(i);
+                    ps.setLong(1, cartIds.get(i));
+                    ps.setLong(2, line.productId());
+                    ps.setInt(3, line.quantity());
+                    ps.setDouble(4, line.unitPrice());
+                    ps.setDouble(5, line.quantity() * line.unitPrice());
+                    ps.setTimestamp(6, now);
+                    ps.setTimestamp(7, now);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                List<Long> generated = new ArrayList<>(lines.size());
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        generated.add(keys.getLong(1));
+                    }
+                }
+                return generated;
+            }
+        });
+
+        // Ids are only a convenience for responses; without them lines keep their product-based id
+        if (ids == null || ids.size() != lines.size()) {
+            return List.of();
+        }
+        List<InsertedLine> inserted = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            inserted.add(new InsertedLine(cartIds.get(i), lines.get(i).productId(), ids.get(i)));
+        }
+        return inserted;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.backend.repository;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+// Row count + latest updatedAt of a small reference table; changes on every insert, update and delete
+public interface CatalogVersionView {
+
+    DateTimeFormatter VERSION_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSSSSS");
+
+    Long getRowCount();
+
+    LocalDateTime getLastUpdated();
+
+    default String toVersion() {
+        return getRowCount() + "-" + (getLastUpdated() != null ? getLastUpdated().format(VERSION_FORMAT) : "0");
+    }
+}
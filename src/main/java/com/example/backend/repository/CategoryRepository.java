@@ -2,9 +2,14 @@ package com.example.backend.repository;
 
 import com.example.backend.model.Category;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
     boolean existsByNameIgnoreCase(String name);
+
+    // Catalog-wide version for ETags on the category list
+    @Query("SELECT COUNT(c) AS rowCount, MAX(c.updatedAt) AS lastUpdated FROM Category c")
+    CatalogVersionView findCatalogVersion();
 }
\ No newline at end of file
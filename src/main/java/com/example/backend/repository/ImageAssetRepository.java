@@ -0,0 +1,34 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.ImageAsset;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+public interface ImageAssetRepository extends JpaRepository<ImageAsset, Long> {
+
+    Optional<ImageAsset> findByContentHash(String contentHash);
+
+    // Takes a reference for an upload that hit this content; 0 when the asset is gone (or was never stored)
+    @Transactional
+    @Modifying
+    @Query("UPDATE ImageAsset a SET a.refCount = a.refCount + 1 WHERE a.contentHash = :hash")
+    int acquire(@Param("hash") String hash);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE ImageAsset a SET a.refCount = a.refCount - 1 WHERE a.url = :url AND a.refCount > 0")
+    int release(@Param("url") String url);
+
+    // Shared URLs may only be deleted once no upload holds them and no product points at them
+    // (assets stored before ref_count existed start at 1 whatever they are shared by)
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM image_assets WHERE url = :url AND ref_count = 0 "
+            + "AND NOT EXISTS (SELECT 1 FROM product_images WHERE image_url = :url)", nativeQuery = true)
+    int deleteUnreferenced(@Param("url") String url);
+}
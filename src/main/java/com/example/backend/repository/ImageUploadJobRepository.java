@@ -0,0 +1,51 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.ImageUploadJob;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface ImageUploadJobRepository extends JpaRepository<ImageUploadJob, Long> {
+
+    @Query("SELECT j.id FROM ImageUploadJob j WHERE j.status = :status AND j.nextAttemptAt <= :now "
+            + "ORDER BY j.nextAttemptAt, j.id")
+    List<Long> findDueIds(@Param("status") ImageUploadJob.Status status, @Param("now") LocalDateTime now,
+                          Pageable limit);
+
+    // As above, limited to files staged on this node (and rows that predate staging_node)
+    @Query("SELECT j.id FROM ImageUploadJob j WHERE j.status = :status AND j.nextAttemptAt <= :now "
+            + "AND (j.stagingNode = :node OR j.stagingNode IS NULL) ORDER BY j.nextAttemptAt, j.id")
+    List<Long> findDueIdsStagedOn(@Param("node") String node, @Param("status") ImageUploadJob.Status status,
+                                  @Param("now") LocalDateTime now, Pageable limit);
+
+    // Compare-and-set on status: only one worker (on any node) wins the claim
+    @Modifying
+    @Query("UPDATE ImageUploadJob j SET j.status = :to, j.updatedAt = :now WHERE j.id = :id AND j.status = :from")
+    int transition(@Param("id") Long id, @Param("from") ImageUploadJob.Status from,
+                   @Param("to") ImageUploadJob.Status to, @Param("now") LocalDateTime now);
+
+    // Jobs whose worker died mid-flight (crash, redeploy) go back to the queue
+    @Modifying
+    @Query("UPDATE ImageUploadJob j SET j.status = :pending, j.nextAttemptAt = :now, j.updatedAt = :now "
+            + "WHERE j.status = :processing AND j.updatedAt < :staleBefore")
+    int releaseStale(@Param("pending") ImageUploadJob.Status pending,
+                     @Param("processing") ImageUploadJob.Status processing,
+                     @Param("staleBefore") LocalDateTime staleBefore, @Param("now") LocalDateTime now);
+
+    List<ImageUploadJob> findByProductIdAndStatusInOrderById(Long productId, Collection<ImageUploadJob.Status> statuses);
+
+    // Every job of the product in staging order, locked so only one worker attaches at a time
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT j FROM ImageUploadJob j WHERE j.productId = :productId ORDER BY j.id")
+    List<ImageUploadJob> lockByProductId(@Param("productId") Long productId);
+
+    long countByStatus(ImageUploadJob.Status status);
+}
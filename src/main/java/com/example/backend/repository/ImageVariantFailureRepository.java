@@ -0,0 +1,11 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.ImageVariantFailure;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Optional;
+
+public interface ImageVariantFailureRepository extends JpaRepository<ImageVariantFailure, Long> {
+
+    Optional<ImageVariantFailure> findBySourceUrl(String sourceUrl);
+}
@@ -0,0 +1,28 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.ImageVariant;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ImageVariantRepository extends JpaRepository<ImageVariant, Long> {
+
+    List<ImageVariant> findBySourceUrlIn(Collection<String> sourceUrls);
+
+    List<ImageVariant> findBySourceUrl(String sourceUrl);
+
+    // Backfill: product images that still have no thumbnail (missed events, restarts, pre-existing data),
+    // minus the ones given up on after maxAttempts failures, so those can't fill every batch
+    @Query(value = "SELECT DISTINCT i.image_url FROM product_images i "
+            + "LEFT JOIN image_variants v ON v.source_url = i.image_url AND v.kind = 'THUMBNAIL' "
+            + "LEFT JOIN image_variant_failures f ON f.source_url = i.image_url AND f.attempts >= :maxAttempts "
+            + "WHERE v.id IS NULL AND f.id IS NULL", nativeQuery = true)
+    List<String> findImageUrlsWithoutThumbnail(@Param("maxAttempts") int maxAttempts, Pageable limit);
+
+    @Query(value = "SELECT DISTINCT product_id FROM product_images WHERE image_url = :url", nativeQuery = true)
+    List<Long> findProductIdsByImageUrl(@Param("url") String url);
+}
@@ -0,0 +1,106 @@
+package com.example.backend.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * JDBC access to inventory_buckets for striped stock: a guarded decrement of one bucket, and the
+ * locked read / rewrite used to rebalance, restock and re-stripe. Must run inside the caller's
+ * transaction. Re-striping and restocking lock the product row first, then its buckets in bucket_no
+ * order. A checkout never locks the product row: take locks one random bucket, and only the
+ * rebalance after a missed take locks them all in bucket_no order (see StripedStock for why that
+ * can't deadlock at READ COMMITTED).
+ */
+@Repository
+@RequiredArgsConstructor
+public class InventoryBucketRepository {
+
+    private static final String TAKE = "UPDATE inventory_buckets SET stock = stock - ?, version = version + 1, updated_at = ? "
+            + "WHERE product_id = ? AND bucket_no = ? AND stock >= ?";
+    private static final String LOCK_BUCKETS = "SELECT bucket_no, stock, version FROM inventory_buckets "
+            + "WHERE product_id = ? ORDER BY bucket_no FOR UPDATE";
+    private static final String SELECT_BUCKETS = "SELECT bucket_no, stock, version FROM inventory_buckets "
+            + "WHERE product_id = ? ORDER BY bucket_no";
+    private static final String SET_STOCK = "UPDATE inventory_buckets SET stock = ?, version = version + 1, updated_at = ? "
+            + "WHERE product_id = ? AND bucket_no = ?";
+    private static final String INSERT = "INSERT INTO inventory_buckets (product_id, bucket_no, stock, version, created_at, updated_at) "
+            + "VALUES (?, ?, ?, 0, ?, ?)";
+    private static final String DELETE = "DELETE FROM inventory_buckets WHERE product_id = ?";
+
+    private static final String LOCK_PRODUCT = "SELECT stock, stock_buckets FROM products WHERE id = ? FOR UPDATE";
+    private static final String UPDATE_PRODUCT = "UPDATE products SET stock = ?, stock_buckets = ?, version = version + ?, "
+            + "updated_at = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record Bucket(int bucketNo, int stock, long version) { }
+
+    public record ProductStock(int stock, int stockBuckets) { }
+
+    // One guarded UPDATE; false when the bucket can't cover the quantity (then the row stays locked
+    // only above READ COMMITTED)
+    public boolean take(Long productId, int bucketNo, int quantity) {
+        return jdbcTemplate.update(TAKE, quantity, now(), productId, bucketNo, quantity) == 1;
+    }
+
+    public List<Bucket> lockBuckets(Long productId) {
+        return jdbcTemplate.query(LOCK_BUCKETS, (rs, rowNum) ->
+                new Bucket(rs.getInt("bucket_no"), rs.getInt("stock"), rs.getLong("version")), productId);
+    }
+
+    public List<Bucket> findBuckets(Long productId) {
+        return jdbcTemplate.query(SELECT_BUCKETS, (rs, rowNum) ->
+                new Bucket(rs.getInt("bucket_no"), rs.getInt("stock"), rs.getLong("version")), productId);
+    }
+
+    // bucket_no to new stock; one batch
+    public void setStock(Long productId, Map<Integer, Integer> stockByBucket) {
+        if (stockByBucket.isEmpty()) {
+            return;
+        }
+        Timestamp now = now();
+        List<Object[]> args = new ArrayList<>();
+        stockByBucket.forEach((bucketNo, stock) -> args.add(new Object[]{stock, now, productId, bucketNo}));
+        jdbcTemplate.batchUpdate(SET_STOCK, args);
+    }
+
+    // Drops the product's buckets and inserts one per share (bucket_no = index)
+    public void replace(Long productId, int[] shares) {
+        jdbcTemplate.update(DELETE, productId);
+        if (shares.length == 0) {
+            return;
+        }
+        Timestamp now = now();
+        List<Object[]> args = new ArrayList<>();
+        for (int bucketNo = 0; bucketNo < shares.length; bucketNo++) {
+            args.add(new Object[]{productId, bucketNo, shares[bucketNo], now, now});
+        }
+        jdbcTemplate.batchUpdate(INSERT, args);
+    }
+
+    public void deleteByProductId(Long productId) {
+        jdbcTemplate.update(DELETE, productId);
+    }
+
+    public Optional<ProductStock> lockProduct(Long productId) {
+        return jdbcTemplate.query(LOCK_PRODUCT, (rs, rowNum) ->
+                new ProductStock(rs.getInt("stock"), rs.getInt("stock_buckets")), productId).stream().findFirst();
+    }
+
+    // Row stock and stripe count; version grows by versionIncrement so the published version never goes back
+    public void updateProduct(Long productId, int stock, int stockBuckets, long versionIncrement) {
+        jdbcTemplate.update(UPDATE_PRODUCT, stock, stockBuckets, versionIncrement, now(), productId);
+    }
+
+    private static Timestamp now() {
+        return Timestamp.valueOf(LocalDateTime.now());
+    }
+}
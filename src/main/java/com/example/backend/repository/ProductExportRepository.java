@@ -0,0 +1,145 @@
+package com.example.backend.repository;
+
+import com.example.backend.dto.ProductResponseDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Forward-only walk over the catalog for exports.
+ * Rows arrive in product-id order (one row per image), so each product is assembled from
+ * consecutive rows and handed off immediately; memory stays at one product plus the fetch buffer.
+ * On MySQL the statement streams row by row (fetch size Integer.MIN_VALUE), which needs no URL
+ * flag but keeps the connection busy until the last row is read, so the walk takes its own
+ * connection instead of joining a caller's transaction. Other drivers use catalog.export.fetch-size.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductExportRepository {
+
+    // Stock / version as published: striped products add their inventory buckets' sums
+    private static final String EXPORT_SQL = "SELECT p.id, p.name, p.description, p.price, "
+            + "p.stock + COALESCE((SELECT SUM(b.stock) FROM inventory_buckets b WHERE b.product_id = p.id), 0) AS stock, "
+            + "p.version + COALESCE((SELECT SUM(b.version) FROM inventory_buckets b WHERE b.product_id = p.id), 0) AS version, "
+            + "c.id AS category_id, c.name AS category_name, s.id AS seller_id, s.owner_name AS seller_name, "
+            + "r.id AS region_id, r.name AS region_name, i.image_url "
+            + "FROM products p "
+            + "JOIN categories c ON c.id = p.category_id "
+            + "JOIN sellers s ON s.id = p.seller_id "
+            + "JOIN regions r ON r.id = p.region_id "
+            + "LEFT JOIN product_images i ON i.product_id = p.id "
+            + "WHERE 1 = 1";
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${catalog.export.fetch-size:500}")
+    private int fetchSize;
+
+    public void streamProducts(LocalDateTime updatedSince, Long categoryId, Long regionId,
+                               Consumer<ProductResponseDto> consumer) {
+        StringBuilder sql = new StringBuilder(EXPORT_SQL);
+        List<Object> params = new ArrayList<>();
+        if (updatedSince != null) {
+            // Striped stock moves touch only the bucket rows
+            sql.append(" AND (p.updated_at >= ? OR EXISTS (SELECT 1 FROM inventory_buckets b "
+                    + "WHERE b.product_id = p.id AND b.updated_at >= ?))");
+            params.add(Timestamp.valueOf(updatedSince));
+            params.add(Timestamp.valueOf(updatedSince));
+        }
+        if (categoryId != null) {
+            sql.append(" AND p.category_id = ?");
+            params.add(categoryId);
+        }
+        if (regionId != null) {
+            sql.append(" AND p.region_id = ?");
+            params.add(regionId);
+        }
+        // PK order keeps a product's image rows adjacent and lets InnoDB walk the clustered index
+        sql.append(" ORDER BY p.id, i.image_order");
+
+        ProductAssembler assembler = new ProductAssembler(consumer);
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement ps = connection.prepareStatement(sql.toString(),
+                     ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            ps.setFetchSize(fetchSize(connection));
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    assembler.accept(rs);
+                }
+            }
+        } catch (SQLException e) {
+            DataAccessException translated = jdbcTemplate.getExceptionTranslator()
+                    .translate("Catalog export", sql.toString(), e);
+            throw translated != null ? translated : new UncategorizedSQLException("Catalog export", sql.toString(), e);
+        }
+
+        assembler.finish();
+    }
+
+    // Connector/J streams only with Integer.MIN_VALUE; useCursorFetch on the URL would affect every statement
+    private int fetchSize(Connection connection) throws SQLException {
+        return "MySQL".equals(connection.getMetaData().getDatabaseProductName()) ? Integer.MIN_VALUE : fetchSize;
+    }
+
+    // Folds consecutive (product, image) rows into one DTO per product
+    private static final class ProductAssembler {
+
+        private final Consumer<ProductResponseDto> consumer;
+        private ProductResponseDto current;
+
+        private ProductAssembler(Consumer<ProductResponseDto> consumer) {
+            this.consumer = consumer;
+        }
+
+        void accept(ResultSet rs) throws SQLException {
+            long id = rs.getLong("id");
+            if (current == null || current.getId() != id) {
+                finish();
+                current = ProductResponseDto.builder()
+                        .id(id)
+                        .name(rs.getString("name"))
+                        .description(rs.getString("description"))
+                        .price(rs.getDouble("price"))
+                        .stock(rs.getInt("stock"))
+                        .version(rs.getLong("version"))
+                        .categoryId(rs.getLong("category_id"))
+                        .categoryName(rs.getString("category_name"))
+                        .sellerId(rs.getLong("seller_id"))
+                        .sellerName(rs.getString("seller_name"))
+                        .regionId(rs.getLong("region_id"))
+                        .regionName(rs.getString("region_name"))
+                        .imageUrls(new ArrayList<>())
+                        .build();
+            }
+            String imageUrl = rs.getString("image_url");
+            if (imageUrl != null) {
+                current.getImageUrls().add(imageUrl);
+            }
+        }
+
+        void finish() {
+            if (current != null) {
+                consumer.accept(current);
+                current = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.backend.repository;
+
+// Minimal per-product row for the facet aggregate (no joins, FK columns only)
+public interface ProductFacetView {
+    Long getId();
+    Long getCategoryId();
+    Long getRegionId();
+    Double getPrice();
+}
@@ -0,0 +1,8 @@
+package com.example.backend.repository;
+
+// A product's primary image row, fetched for a whole page at once
+public interface ProductImageView {
+    Long getProductId();
+    String getImageUrl();
+    String getThumbnailUrl(); // null until the variant generator has run
+}
@@ -0,0 +1,84 @@
+package com.example.backend.repository;
+
+import com.example.backend.dto.ProductImportRowDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Plain JDBC batch inserts for bulk import. Hibernate can't batch IDENTITY inserts, so import
+ * bypasses the session: one batched INSERT per chunk (rewritten to a multi-row insert by
+ * Connector/J with rewriteBatchedStatements=true) and the auto-increment ids read back from
+ * getGeneratedKeys. Must run inside the caller's transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class ProductImportRepository {
+
+    private static final String INSERT_PRODUCT = "INSERT INTO products "
+            + "(name, description, price, stock, category_id, seller_id, region_id, created_at, updated_at, version) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private static final String INSERT_IMAGE = "INSERT INTO product_images (product_id, image_order, image_url) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Returns generated ids in row order
+    public List<Long> insertProducts(List<ProductImportRowDto> rows) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Long> ids = jdbcTemplate.execute((ConnectionCallback<List<Long>>) connection -> {
+            try (PreparedStatement ps = connection.prepareStatement(INSERT_PRODUCT, Statement.RETURN_GENERATED_KEYS)) {
+                for (ProductImportRowDto row : rows) {
+                    ps.setString(1, row.getName());
+                    ps.setString(2, row.getDescription());
+                    ps.setDouble(3, row.getPrice());
+                    ps.setInt(4, row.getStock());
+                    ps.setLong(5, row.getCategoryId());
+                    ps.setLong(6, row.getSellerId());
+                    ps.setLong(7, row.getRegionId());
+                    ps.setTimestamp(8, now);
+                    ps.setTimestamp(9, now);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+
+                List<Long> generated = new ArrayList<>(rows.size());
+                try (ResultSet keys = ps.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        generated.add(keys.getLong(1));
+                    }
+                }
+                return generated;
+            }
+        });
+
+        if (ids == null || ids.size() != rows.size()) {
+            throw new IllegalStateException("Expected " + rows.size() + " generated ids, got "
+                    + (ids == null ? 0 : ids.size()));
+        }
+        return ids;
+    }
+
+    public void insertImages(List<Long> productIds, List<ProductImportRowDto> rows) {
+        List<Object[]> images = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            List<String> urls = rows.get(i).getImageUrls();
+            for (int order = 0; order < urls.size(); order++) {
+                images.add(new Object[]{productIds.get(i), order, urls.get(order)});
+            }
+        }
+        if (!images.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_IMAGE, images);
+        }
+    }
+}
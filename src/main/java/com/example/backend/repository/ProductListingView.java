@@ -0,0 +1,21 @@
+package com.example.backend.repository;
+
+import java.time.LocalDateTime;
+
+// Flat row for product listings: product columns plus the names the DTO needs,
+// so a page never touches the lazy Category / Seller / Region associations.
+public interface ProductListingView {
+    Long getId();
+    String getName();
+    String getDescription();
+    Double getPrice();
+    Integer getStock();
+    Long getCategoryId();
+    String getCategoryName();
+    Long getSellerId();
+    String getSellerName();
+    Long getRegionId();
+    String getRegionName();
+    LocalDateTime getCreatedAt();
+    Long getVersion();
+}
@@ -3,11 +3,40 @@ package com.example.backend.repository;
 import com.example.backend.model.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
+
+    // Published stock / version: the row's own plus its inventory buckets' (striped products, see StripedStock)
+    String CURRENT_STOCK = "(p.stock + COALESCE((SELECT SUM(b.stock) FROM InventoryBucket b WHERE b.productId = p.id), 0))";
+    String CURRENT_VERSION = "(p.version + COALESCE((SELECT SUM(b.version) FROM InventoryBucket b WHERE b.productId = p.id), 0))";
+
+    // Shared SELECT for listing projections (single statement, no lazy loads)
+    String LISTING_SELECT = "SELECT p.id AS id, p.name AS name, p.description AS description, "
+            + "p.price AS price, " + CURRENT_STOCK + " AS stock, c.id AS categoryId, c.name AS categoryName, "
+            + "s.id AS sellerId, s.ownerName AS sellerName, r.id AS regionId, r.name AS regionName, "
+            + "p.createdAt AS createdAt, "
+            + CURRENT_VERSION + " AS version "
+            + "FROM Product p JOIN p.category c JOIN p.seller s JOIN p.region r";
+
+    String NAME_MATCH = " WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))";
+
+    // Keyset (seek) predicate on (createdAt, id); backed by the composite indexes on Product
+    String AFTER_CURSOR = "(p.createdAt > :createdAt OR (p.createdAt = :createdAt AND p.id > :id))";
+    String SEEK_ORDER = " ORDER BY p.createdAt ASC, p.id ASC";
 
     // Return Pages instead of Lists for performance
     Page<Product> findByCategoryId(Long categoryId, Pageable pageable);
@@ -15,4 +44,90 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     Page<Product> findByRegionId(Long regionId, Pageable pageable);
 
     Page<Product> findByNameContainingIgnoreCase(String name, Pageable pageable);
-}
\ No newline at end of file
+
+    // Product detail: the names are read from the entity, so fetch the three parents in the same SELECT
+    @EntityGraph(attributePaths = {"category", "seller", "region"})
+    @Query("SELECT p FROM Product p WHERE p.id = :id")
+    Optional<Product> findDetailById(@Param("id") Long id);
+
+    // Cheap freshness check for cached product details (PK lookup, one column)
+    @Query("SELECT " + CURRENT_VERSION + " FROM Product p WHERE p.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    // Cart mutations only need price, stock and name (no entity, no associations)
+    @Query("SELECT p.id AS id, p.name AS name, p.price AS price, " + CURRENT_STOCK + " AS stock FROM Product p WHERE p.id = :id")
+    Optional<CartProductView> findCartProductById(@Param("id") Long id);
+
+    // Batch cart mutations: every referenced product in one IN query
+    @Query("SELECT p.id AS id, p.name AS name, p.price AS price, " + CURRENT_STOCK + " AS stock FROM Product p WHERE p.id IN :ids")
+    List<CartProductView> findCartProductsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // --- Listing projections (used by the paged endpoints) ---
+
+    @Query(value = LISTING_SELECT,
+            countQuery = "SELECT COUNT(p) FROM Product p")
+    Page<ProductListingView> findAllListings(Pageable pageable);
+
+    @Query(value = LISTING_SELECT + " WHERE c.id = :categoryId",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.category.id = :categoryId")
+    Page<ProductListingView> findListingsByCategoryId(@Param("categoryId") Long categoryId, Pageable pageable);
+
+    @Query(value = LISTING_SELECT + " WHERE r.id = :regionId",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.region.id = :regionId")
+    Page<ProductListingView> findListingsByRegionId(@Param("regionId") Long regionId, Pageable pageable);
+
+    @Query(value = LISTING_SELECT + NAME_MATCH,
+            countQuery = "SELECT COUNT(p) FROM Product p" + NAME_MATCH)
+    Page<ProductListingView> searchListingsByName(@Param("name") String name, Pageable pageable);
+
+    // --- Keyset listings (no OFFSET, no COUNT; pass PageRequest.of(0, limit)) ---
+
+    @Query(LISTING_SELECT + SEEK_ORDER)
+    List<ProductListingView> findFirstListings(Pageable limit);
+
+    @Query(LISTING_SELECT + " WHERE " + AFTER_CURSOR + SEEK_ORDER)
+    List<ProductListingView> findListingsAfter(@Param("createdAt") LocalDateTime createdAt,
+                                               @Param("id") Long id, Pageable limit);
+
+    @Query(LISTING_SELECT + " WHERE c.id = :categoryId" + SEEK_ORDER)
+    List<ProductListingView> findFirstListingsByCategoryId(@Param("categoryId") Long categoryId, Pageable limit);
+
+    @Query(LISTING_SELECT + " WHERE c.id = :categoryId AND " + AFTER_CURSOR + SEEK_ORDER)
+    List<ProductListingView> findListingsByCategoryIdAfter(@Param("categoryId") Long categoryId,
+                                                           @Param("createdAt") LocalDateTime createdAt,
+                                                           @Param("id") Long id, Pageable limit);
+
+    @Query(LISTING_SELECT + " WHERE r.id = :regionId" + SEEK_ORDER)
+    List<ProductListingView> findFirstListingsByRegionId(@Param("regionId") Long regionId, Pageable limit);
+
+    @Query(LISTING_SELECT + " WHERE r.id = :regionId AND " + AFTER_CURSOR + SEEK_ORDER)
+    List<ProductListingView> findListingsByRegionIdAfter(@Param("regionId") Long regionId,
+                                                         @Param("createdAt") LocalDateTime createdAt,
+                                                         @Param("id") Long id, Pageable limit);
+
+    // --- Lookups by id (search index results, startup index build) ---
+
+    @Query(LISTING_SELECT + " WHERE p.id IN :ids")
+    List<ProductListingView> findListingsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(LISTING_SELECT)
+    List<ProductListingView> findAllListingsForIndex();
+
+    // --- Catalog browse ---
+
+    @Query("SELECT p.id AS id, p.category.id AS categoryId, p.region.id AS regionId, p.price AS price FROM Product p")
+    List<ProductFacetView> findAllFacetRows();
+
+    // Derived data (image renditions) changed: moving the version makes caches and ETags on every node revalidate
+    @Transactional
+    @Modifying
+    @Query("UPDATE Product p SET p.version = p.version + 1 WHERE p.id IN :ids")
+    int incrementVersions(@Param("ids") Collection<Long> ids);
+
+    // Primary image (index 0, with its thumbnail if generated) for a whole page in one statement
+    @Query("SELECT p.id AS productId, img AS imageUrl, v.url AS thumbnailUrl FROM Product p JOIN p.imageUrls img "
+            + "LEFT JOIN ImageVariant v ON v.sourceUrl = img "
+            + "AND v.kind = com.example.backend.model.ImageVariant.Kind.THUMBNAIL "
+            + "WHERE p.id IN :ids AND INDEX(img) = 0")
+    List<ProductImageView> findPrimaryImagesByProductIds(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,61 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.InventoryBucket;
+import com.example.backend.model.Product;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+// Composable filters for ProductRepository.findAll(Specification, Pageable).
+// Each predicate lines up with a composite index on products (scope column first, then price).
+public final class ProductSpecifications {
+
+    private ProductSpecifications() {
+    }
+
+    public static Specification<Product> hasCategory(Long categoryId) {
+        return (root, query, cb) -> cb.equal(root.get("category").get("id"), categoryId);
+    }
+
+    public static Specification<Product> hasRegion(Long regionId) {
+        return (root, query, cb) -> cb.equal(root.get("region").get("id"), regionId);
+    }
+
+    public static Specification<Product> hasSeller(Long sellerId) {
+        return (root, query, cb) -> cb.equal(root.get("seller").get("id"), sellerId);
+    }
+
+    public static Specification<Product> priceAtLeast(Double minPrice) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("price"), minPrice);
+    }
+
+    public static Specification<Product> priceAtMost(Double maxPrice) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("price"), maxPrice);
+    }
+
+    // Row stock, or any striped bucket with stock (striped products keep products.stock at 0)
+    public static Specification<Product> inStock() {
+        return (root, query, cb) -> {
+            Subquery<Integer> stockedBucket = query.subquery(Integer.class);
+            Root<InventoryBucket> bucket = stockedBucket.from(InventoryBucket.class);
+            stockedBucket.select(cb.literal(1)).where(
+                    cb.equal(bucket.get("productId"), root.get("id")),
+                    cb.greaterThan(bucket.get("stock"), 0));
+            return cb.or(cb.greaterThan(root.get("stock"), 0), cb.exists(stockedBucket));
+        };
+    }
+
+    // Fetch-joins the to-one associations the DTO needs (skipped for the count query)
+    public static Specification<Product> fetchListingAssociations() {
+        return (root, query, cb) -> {
+            Class<?> resultType = query.getResultType();
+            if (resultType != Long.class && resultType != long.class) {
+                root.fetch("category", JoinType.INNER);
+                root.fetch("seller", JoinType.INNER);
+                root.fetch("region", JoinType.INNER);
+            }
+            return null;
+        };
+    }
+}
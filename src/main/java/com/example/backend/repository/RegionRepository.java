@@ -2,9 +2,14 @@ package com.example.backend.repository;
 
 import com.example.backend.model.Region;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface RegionRepository extends JpaRepository<Region, Long> {
     boolean existsByName(String name);
+
+    // Catalog-wide version for ETags on the region list
+    @Query("SELECT COUNT(r) AS rowCount, MAX(r.updatedAt) AS lastUpdated FROM Region r")
+    CatalogVersionView findCatalogVersion();
 }
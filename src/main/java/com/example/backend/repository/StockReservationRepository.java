@@ -0,0 +1,228 @@
+package com.example.backend.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+/**
+ * JDBC access to the reservation ledger: stock_reservations (one hold per user and product) and
+ * stock_hold_totals (per product, the sum of its holds). Every write keeps the two in step inside
+ * the caller's transaction, and the totals are only changed by guarded or relative UPDATEs, so
+ * several nodes can share them. Multi-row writes go as one batch each, in product order; locks are
+ * taken hold rows first, then totals, and each transaction changes its totals in one product-ordered
+ * batch. The one exception is a product's first hold: its total row is created after that batch
+ * and updated once more, so a deadlock there is possible (once per product) and left to the retry.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StockReservationRepository {
+
+    private static final String HELD_BY_OTHERS = "SELECT t.product_id, t.held - COALESCE(r.quantity, 0) AS held "
+            + "FROM stock_hold_totals t LEFT JOIN stock_reservations r ON r.user_id = ? AND r.product_id = t.product_id "
+            + "WHERE t.product_id IN (%s)";
+
+    private static final String LOCK_USER = "SELECT product_id, quantity FROM stock_reservations "
+            + "WHERE user_id = ? ORDER BY product_id FOR UPDATE";
+
+    private static final String ADD = "INSERT INTO stock_reservations "
+            + "(user_id, product_id, quantity, expires_at, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?) "
+            + "ON DUPLICATE KEY UPDATE quantity = quantity + ?, expires_at = ?, updated_at = ?";
+
+    private static final String INSERT = "INSERT INTO stock_reservations "
+            + "(user_id, product_id, quantity, expires_at, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE = "UPDATE stock_reservations SET quantity = ?, expires_at = ?, updated_at = ? "
+            + "WHERE user_id = ? AND product_id = ?";
+
+    private static final String DELETE = "DELETE FROM stock_reservations WHERE user_id = ? AND product_id = ?";
+
+    private static final String SELECT_EXPIRED = "SELECT user_id, product_id, quantity, expires_at FROM stock_reservations "
+            + "WHERE expires_at <= ? ORDER BY expires_at LIMIT ?";
+
+    private static final String DELETE_EXPIRED = "DELETE FROM stock_reservations "
+            + "WHERE user_id = ? AND product_id = ? AND quantity = ? AND expires_at <= ?";
+
+    // Only an increase is guarded: releasing held stock always succeeds
+    private static final String CHANGE_HELD = "UPDATE stock_hold_totals SET held = held + ? "
+            + "WHERE product_id = ? AND (? <= 0 OR held + ? <= ?)";
+
+    private static final String ENSURE_TOTAL = "INSERT INTO stock_hold_totals (product_id, held) VALUES (?, 0) "
+            + "ON DUPLICATE KEY UPDATE held = held";
+
+    private static final String SUBTRACT_HELD = "UPDATE stock_hold_totals SET held = held - ? WHERE product_id = ?";
+
+    private static final String COUNT_ACTIVE = "SELECT COUNT(*) FROM stock_reservations WHERE expires_at > ?";
+
+    private static final String SUM_HELD = "SELECT COALESCE(SUM(held), 0) FROM stock_hold_totals";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record HoldRow(Long userId, Long productId, int quantity, LocalDateTime expiresAt) { }
+
+    /**
+     * Stock of each product held by every cart but this user's: one statement, primary-key lookups.
+     *
+     * @return product id to held quantity; products nobody holds are absent
+     */
+    public Map<Long, Integer> heldByOthers(Long userId, Collection<Long> productIds) {
+        Map<Long, Integer> held = new HashMap<>();
+        if (productIds.isEmpty()) {
+            return held;
+        }
+        List<Object> args = new ArrayList<>();
+        args.add(userId);
+        args.addAll(productIds);
+        jdbcTemplate.query(HELD_BY_OTHERS.formatted(String.join(", ", Collections.nCopies(productIds.size(), "?"))),
+                rs -> {
+                    held.put(rs.getLong("product_id"), rs.getInt("held"));
+                }, args.toArray());
+        return held;
+    }
+
+    /**
+     * Locks the user's holds until the transaction ends, so only this transaction (or the sweep,
+     * after it) can change them.
+     *
+     * @return product id to quantity, expired holds included until swept (they still count in the totals)
+     */
+    public Map<Long, Integer> lockByUser(Long userId) {
+        Map<Long, Integer> quantities = new TreeMap<>();
+        jdbcTemplate.query(LOCK_USER, rs -> {
+            quantities.put(rs.getLong("product_id"), rs.getInt("quantity"));
+        }, userId);
+        return quantities;
+    }
+
+    // Grows the hold (or creates it) by quantity and moves its expiry
+    public void add(Long userId, Long productId, int quantity, LocalDateTime expiresAt) {
+        Timestamp now = now();
+        Timestamp expires = Timestamp.valueOf(expiresAt);
+        jdbcTemplate.update(ADD, userId, productId, quantity, expires, now, now, quantity, expires, now);
+    }
+
+    // product id to quantity; the holds must not exist yet
+    public void insert(Long userId, Map<Long, Integer> quantities, LocalDateTime expiresAt) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        Timestamp now = now();
+        Timestamp expires = Timestamp.valueOf(expiresAt);
+        List<Object[]> args = new ArrayList<>();
+        new TreeMap<>(quantities).forEach((productId, quantity) ->
+                args.add(new Object[]{userId, productId, quantity, expires, now, now}));
+        jdbcTemplate.batchUpdate(INSERT, args);
+    }
+
+    // product id to quantity; the holds must be locked by lockByUser
+    public void update(Long userId, Map<Long, Integer> quantities, LocalDateTime expiresAt) {
+        if (quantities.isEmpty()) {
+            return;
+        }
+        Timestamp now = now();
+        Timestamp expires = Timestamp.valueOf(expiresAt);
+        List<Object[]> args = new ArrayList<>();
+        new TreeMap<>(quantities).forEach((productId, quantity) ->
+                args.add(new Object[]{quantity, expires, now, userId, productId}));
+        jdbcTemplate.batchUpdate(UPDATE, args);
+    }
+
+    // The holds must be locked by lockByUser
+    public void delete(Long userId, Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(DELETE, productIds.stream().sorted()
+                .map(productId -> new Object[]{userId, productId})
+                .toList());
+    }
+
+    // Oldest first, at most limit rows
+    public List<HoldRow> findExpired(LocalDateTime now, int limit) {
+        return jdbcTemplate.query(SELECT_EXPIRED, (rs, rowNum) -> new HoldRow(rs.getLong("user_id"),
+                rs.getLong("product_id"), rs.getInt("quantity"), rs.getTimestamp("expires_at").toLocalDateTime()),
+                Timestamp.valueOf(now), limit);
+    }
+
+    /**
+     * Deletes the rows in one batch, each only if it is unchanged and still expired, so a hold
+     * refreshed meanwhile survives and concurrent sweeps reclaim each row once.
+     *
+     * @return per row, 1 if this call deleted it
+     */
+    public int[] deleteExpired(List<HoldRow> rows, LocalDateTime now) {
+        Timestamp cutoff = Timestamp.valueOf(now);
+        List<Object[]> args = new ArrayList<>();
+        rows.forEach(row -> args.add(new Object[]{row.userId(), row.productId(), row.quantity(), cutoff}));
+        return jdbcTemplate.batchUpdate(DELETE_EXPIRED, args);
+    }
+
+    /**
+     * Changes the totals in one batch in product order: decreases always apply, an increase only
+     * while the product's total stays within its stock. A product without a total row gets one and
+     * is tried once more.
+     *
+     * @param deltas product id to the signed change (0 entries are skipped)
+     * @param stock  product id to Product.stock, for every product with an increase
+     * @return the products whose increase did not apply (not enough stock), in id order
+     */
+    public List<Long> changeHeld(Map<Long, Integer> deltas, Map<Long, Integer> stock) {
+        List<Long> productIds = new TreeMap<>(deltas).entrySet().stream()
+                .filter(entry -> entry.getValue() != 0)
+                .map(Map.Entry::getKey)
+                .toList();
+        List<Long> missed = changeHeld(productIds, deltas, stock);
+        if (missed.isEmpty()) {
+            return missed;
+        }
+        jdbcTemplate.batchUpdate(ENSURE_TOTAL, missed.stream().map(productId -> new Object[]{productId}).toList());
+        return changeHeld(missed, deltas, stock);
+    }
+
+    // product id to released quantity; one batch in product order
+    public void subtractHeld(Map<Long, Integer> released) {
+        if (released.isEmpty()) {
+            return;
+        }
+        List<Object[]> args = new ArrayList<>();
+        new TreeMap<>(released).forEach((productId, quantity) -> args.add(new Object[]{quantity, productId}));
+        jdbcTemplate.batchUpdate(SUBTRACT_HELD, args);
+    }
+
+    public int countActive(LocalDateTime now) {
+        Integer count = jdbcTemplate.queryForObject(COUNT_ACTIVE, Integer.class, Timestamp.valueOf(now));
+        return count == null ? 0 : count;
+    }
+
+    public long sumHeld() {
+        Long held = jdbcTemplate.queryForObject(SUM_HELD, Long.class);
+        return held == null ? 0 : held;
+    }
+
+    private List<Long> changeHeld(List<Long> productIds, Map<Long, Integer> deltas, Map<Long, Integer> stock) {
+        if (productIds.isEmpty()) {
+            return productIds;
+        }
+        int[] counts = jdbcTemplate.batchUpdate(CHANGE_HELD, productIds.stream().map(productId -> new Object[]{
+                deltas.get(productId), productId, deltas.get(productId), deltas.get(productId),
+                stock.getOrDefault(productId, 0)}).toList());
+        return IntStream.range(0, productIds.size())
+                .filter(i -> counts[i] == 0)
+                .mapToObj(productIds::get)
+                .toList();
+    }
+
+    private static Timestamp now() {
+        return Timestamp.valueOf(LocalDateTime.now());
+    }
+}
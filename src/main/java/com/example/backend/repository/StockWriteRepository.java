@@ -0,0 +1,51 @@
+package com.example.backend.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Guarded, set-based stock deduction. Each row is decremented only if it still has enough stock,
+ * so the check and the write are one atomic step in MySQL and no product has to be loaded or
+ * version-checked first. version is bumped so cached product details are still invalidated.
+ * Must run inside the caller's transaction.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StockWriteRepository {
+
+    private static final String DECREMENT = "UPDATE products SET stock = stock - ?, version = version + 1, updated_at = ? "
+            + "WHERE id = ? AND stock >= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record StockDeduction(Long productId, int quantity) { }
+
+    /**
+     * Sends every deduction as one JDBC batch, in product-id order so concurrent checkouts lock
+     * rows in the same order and can't deadlock.
+     *
+     * @return the deductions that did not apply (not enough stock, or product gone), in id order
+     */
+    public List<StockDeduction> decrement(List<StockDeduction> deductions) {
+        List<StockDeduction> ordered = deductions.stream()
+                .sorted(Comparator.comparing(StockDeduction::productId))
+                .toList();
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        int[] counts = jdbcTemplate.batchUpdate(DECREMENT, ordered.stream()
+                .map(deduction -> new Object[]{deduction.quantity(), now, deduction.productId(), deduction.quantity()})
+                .toList());
+
+        return IntStream.range(0, ordered.size())
+                .filter(i -> counts[i] == 0)
+                .mapToObj(ordered::get)
+                .toList();
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.backend.retry;
+
+import com.example.backend.dto.RetryStatsDto;
+import com.example.backend.exception.ConcurrentUpdateException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Retry policy for writes that lose races: on a {@link ConcurrencyFailureException} (which covers
+ * optimistic-lock failures, deadlocks and lock timeouts) the action runs again after a jittered
+ * exponential backoff, up to max-attempts, then gives up with {@link ConcurrentUpdateException} (409).
+ * The action must be a whole transaction, so every attempt re-reads current state.
+ * Counters are kept per operation name.
+ */
+@Component
+public class ConflictRetrier {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConflictRetrier.class);
+
+    private static final class Counters {
+        final AtomicLong calls = new AtomicLong();
+        final AtomicLong conflicts = new AtomicLong();
+        final AtomicLong retries = new AtomicLong();
+        final AtomicLong giveUps = new AtomicLong();
+    }
+
+    private final int defaultMaxAttempts;
+    private final long baseBackoffMs;
+    private final long maxBackoffMs;
+
+    private final Map<String, Counters> counters = new ConcurrentHashMap<>();
+
+    public ConflictRetrier(@Value("${catalog.retry.max-attempts:5}") int defaultMaxAttempts,
+                           @Value("${catalog.retry.backoff-ms:10}") long baseBackoffMs,
+                           @Value("${catalog.retry.max-backoff-ms:200}") long maxBackoffMs) {
+        this.defaultMaxAttempts = Math.max(1, defaultMaxAttempts);
+        this.baseBackoffMs = Math.max(1, baseBackoffMs);
+        this.maxBackoffMs = Math.max(this.baseBackoffMs, maxBackoffMs);
+    }
+
+    public <T> T execute(String operation, Supplier<T> action) {
+        return execute(operation, 0, action);
+    }
+
+    // maxAttempts 0 = catalog.retry.max-attempts
+    public <T> T execute(String operation, int maxAttempts, Supplier<T> action) {
+        int attemptsAllowed = maxAttempts > 0 ? maxAttempts : defaultMaxAttempts;
+        Counters stats = counters.computeIfAbsent(operation, name -> new Counters());
+        stats.calls.incrementAndGet();
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (ConcurrencyFailureException e) {
+                stats.conflicts.incrementAndGet();
+                if (attempt >= attemptsAllowed) {
+                    stats.giveUps.incrementAndGet();
+                    logger.warn("{} still conflicting after {} attempts: {}", operation, attempt, e.getMessage());
+                    throw new ConcurrentUpdateException(operation + " conflicted with concurrent updates; please retry", e);
+                }
+                stats.retries.incrementAndGet();
+                sleep(backoffMs(attempt));
+            }
+        }
+    }
+
+    public List<RetryStatsDto> stats() {
+        return counters.entrySet().stream()
+                .map(entry -> RetryStatsDto.builder()
+                        .operation(entry.getKey())
+                        .calls(entry.getValue().calls.get())
+                        .conflicts(entry.getValue().conflicts.get())
+                        .retries(entry.getValue().retries.get())
+                        .giveUps(entry.getValue().giveUps.get())
+                        .build())
+                .sorted(Comparator.comparing(RetryStatsDto::getOperation))
+                .toList();
+    }
+
+    // Exponential with "equal jitter": half fixed, half random, so a burst of losers spreads out
+    long backoffMs(int attempt) {
+        long exponential = Math.min(maxBackoffMs, baseBackoffMs << Math.min(attempt - 1, 20));
+        return exponential / 2 + ThreadLocalRandom.current().nextLong(exponential / 2 + 1);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while backing off", e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.backend.retry;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Re-runs the whole annotated service method, including its transaction, when it fails with a
+ * concurrency conflict (optimistic version mismatch, deadlock, lock timeout). See {@link ConflictRetrier}.
+ * Calls made inside an already running transaction are not retried here; the outermost
+ * retrying method re-runs instead.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+
+    // 0 = catalog.retry.max-attempts
+    int maxAttempts() default 0;
+}
@@ -0,0 +1,214 @@
+package com.example.backend.search;
+
+import com.example.backend.dto.ProductResponseDto;
+import com.example.backend.event.ProductChangedEvent;
+import com.example.backend.repository.ProductFacetView;
+import com.example.backend.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Incrementally maintained facet aggregate for catalog browse.
+ * Products are grouped into (category, region) cells; each cell keeps a sorted price -> count
+ * histogram, so category / region / price-bucket counts for any filter combination are a walk
+ * over the cells instead of a GROUP BY over products.
+ * <p>
+ * Counts are eventually consistent: this node's committed writes apply right after commit, while
+ * writes that reach the table without an event here (another node, direct SQL) show up at the
+ * next periodic rebuild. Browse takes its page total from here, so the total can lag the rows by
+ * up to catalog.facets.rebuild-interval-ms.
+ */
+@Component
+public class CatalogFacetIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogFacetIndex.class);
+
+    private record Cell(Long categoryId, Long regionId) { }
+
+    private record Entry(Cell cell, double price) { }
+
+    /**
+     * Facet counts for one filter combination. Each facet ignores its own filter (so the UI can
+     * show the alternatives); {@code total} applies every filter.
+     */
+    public record FacetCounts(Map<Long, Long> categories, Map<Long, Long> regions, long[] priceBuckets, long total) { }
+
+    private final ProductRepository productRepository;
+    private final double[] priceBoundaries;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Entry> entriesByProduct = new HashMap<>();
+    private final Map<Cell, TreeMap<Double, Integer>> pricesByCell = new HashMap<>();
+    private final Set<Long> touchedDuringLoad = new HashSet<>();
+    private boolean loading;
+    private volatile boolean loaded;
+
+    public CatalogFacetIndex(ProductRepository productRepository,
+                             @Value("${catalog.facets.price-buckets:100,250,500,1000}") double[] priceBoundaries) {
+        this.productRepository = productRepository;
+        this.priceBoundaries = priceBoundaries.clone();
+        Arrays.sort(this.priceBoundaries);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        ensureLoaded();
+    }
+
+    public synchronized void ensureLoaded() {
+        if (loaded) return;
+        reload();
+    }
+
+    // Picks up writes this node never saw as events (other nodes, direct SQL); counts are exact again afterwards
+    @Scheduled(initialDelayString = "${catalog.facets.rebuild-interval-ms:300000}",
+            fixedDelayString = "${catalog.facets.rebuild-interval-ms:300000}")
+    public synchronized void rebuild() {
+        reload();
+    }
+
+    private void reload() {
+        long start = System.currentTimeMillis();
+        withWriteLock(() -> loading = true);
+        try {
+            List<ProductFacetView> rows = productRepository.findAllFacetRows();
+            withWriteLock(() -> {
+                // Events applied since the read began are newer than the rows; keep them
+                Map<Long, Entry> touched = new HashMap<>();
+                for (Long id : touchedDuringLoad) {
+                    Entry entry = entriesByProduct.get(id);
+                    if (entry != null) touched.put(id, entry);
+                }
+                entriesByProduct.clear();
+                pricesByCell.clear();
+                for (ProductFacetView row : rows) {
+                    if (!touchedDuringLoad.contains(row.getId())) {
+                        put(row.getId(), row.getCategoryId(), row.getRegionId(), row.getPrice());
+                    }
+                }
+                touched.forEach((id, entry) -> put(id, entry.cell().categoryId(), entry.cell().regionId(), entry.price()));
+                loaded = true;
+            });
+            logger.info("Catalog facets loaded: {} products in {} ms", rows.size(), System.currentTimeMillis() - start);
+        } finally {
+            withWriteLock(() -> {
+                loading = false;
+                touchedDuringLoad.clear();
+            });
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        switch (event.type()) {
+            case UPSERTED -> {
+                ProductResponseDto product = event.product();
+                withWriteLock(() -> {
+                    if (loading || !loaded) touchedDuringLoad.add(product.getId());
+                    put(product.getId(), product.getCategoryId(), product.getRegionId(), product.getPrice());
+                });
+            }
+            case DELETED -> withWriteLock(() -> {
+                if (loading || !loaded) touchedDuringLoad.add(event.productId());
+                remove(event.productId());
+            });
+            default -> { } // Stock moves don't affect these facets
+        }
+    }
+
+    public FacetCounts count(Long categoryId, Long regionId, Double minPrice, Double maxPrice) {
+        if (!loaded) ensureLoaded();
+
+        Map<Long, Long> categories = new HashMap<>();
+        Map<Long, Long> regions = new HashMap<>();
+        long[] buckets = new long[priceBoundaries.length + 1];
+        long total = 0;
+
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<Cell, TreeMap<Double, Integer>> entry : pricesByCell.entrySet()) {
+                Cell cell = entry.getKey();
+                TreeMap<Double, Integer> prices = entry.getValue();
+                boolean categoryMatches = categoryId == null || categoryId.equals(cell.categoryId());
+                boolean regionMatches = regionId == null || regionId.equals(cell.regionId());
+
+                if (regionMatches || categoryMatches) {
+                    long inRange = countBetween(prices, minPrice, true, maxPrice, true);
+                    if (regionMatches && inRange > 0) categories.merge(cell.categoryId(), inRange, Long::sum);
+                    if (categoryMatches && inRange > 0) regions.merge(cell.regionId(), inRange, Long::sum);
+                    if (categoryMatches && regionMatches) total += inRange;
+                }
+                if (categoryMatches && regionMatches) {
+                    for (int i = 0; i < buckets.length; i++) {
+                        Double lower = i == 0 ? null : priceBoundaries[i - 1];
+                        Double upper = i == priceBoundaries.length ? null : priceBoundaries[i];
+                        buckets[i] += countBetween(prices, lower, true, upper, false);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new FacetCounts(categories, regions, buckets, total);
+    }
+
+    public double[] priceBoundaries() {
+        return priceBoundaries.clone();
+    }
+
+    // --- Helper Methods (callers hold the write lock) ---
+
+    private void put(Long productId, Long categoryId, Long regionId, Double price) {
+        remove(productId);
+        if (categoryId == null || regionId == null || price == null) return;
+
+        Cell cell = new Cell(categoryId, regionId);
+        entriesByProduct.put(productId, new Entry(cell, price));
+        pricesByCell.computeIfAbsent(cell, c -> new TreeMap<>()).merge(price, 1, Integer::sum);
+    }
+
+    private void remove(Long productId) {
+        Entry entry = entriesByProduct.remove(productId);
+        if (entry == null) return;
+
+        TreeMap<Double, Integer> prices = pricesByCell.get(entry.cell());
+        if (prices.merge(entry.price(), -1, Integer::sum) == 0) {
+            prices.remove(entry.price());
+        }
+        if (prices.isEmpty()) {
+            pricesByCell.remove(entry.cell());
+        }
+    }
+
+    private static long countBetween(NavigableMap<Double, Integer> prices,
+                                     Double lower, boolean lowerInclusive,
+                                     Double upper, boolean upperInclusive) {
+        NavigableMap<Double, Integer> range = prices;
+        if (lower != null) range = range.tailMap(lower, lowerInclusive);
+        if (upper != null) range = range.headMap(upper, upperInclusive);
+
+        long count = 0;
+        for (int value : range.values()) {
+            count += value;
+        }
+        return count;
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
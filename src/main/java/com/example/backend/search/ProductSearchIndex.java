@@ -0,0 +1,315 @@
+package com.example.backend.search;
+
+import com.example.backend.dto.ProductResponseDto;
+import com.example.backend.event.ProductChangedEvent;
+import com.example.backend.repository.ProductListingView;
+import com.example.backend.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory inverted index over product name, description, category and region.
+ * Tokens are case- and accent-folded; ranking is field-weighted TF-IDF, the last query word
+ * also matches as a prefix (search-as-you-type) and unknown words fall back to trigram
+ * similarity, so small typos ("mago achr") still find "Mango Achar".
+ * Built in the background at startup, kept current by product events, and rebuilt in full every
+ * catalog.search.rebuild-interval-ms to pick up writes made on other nodes.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    // A hit in the name outranks one in the description
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float CATEGORY_WEIGHT = 1.5f;
+    private static final float REGION_WEIGHT = 1.5f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+
+    private static final float PREFIX_FACTOR = 0.8f;
+    private static final float FUZZY_FACTOR = 0.6f;
+    private static final double MIN_TRIGRAM_SIMILARITY = 0.4; // Dice coefficient
+    private static final int MIN_TOKEN_LENGTH = 2;
+    private static final int MIN_FUZZY_LENGTH = 3;
+
+    private final ProductRepository productRepository;
+
+    // Startup build off the ready-event thread; one thread, shut down with the context
+    private final ExecutorService builder = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "product-search-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final Map<Long, Set<String>> tokensByProduct = new HashMap<>();
+    private final Map<String, Set<String>> tokensByTrigram = new HashMap<>();
+
+    // Products changed by live events while a rebuild is loading; the rebuild must not overwrite them
+    private final Set<Long> touchedDuringBuild = new HashSet<>();
+    private boolean building;
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        builder.execute(this::rebuild);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        builder.shutdownNow(); // A half-read snapshot is simply dropped
+    }
+
+    // Serialized so two rebuilds never interleave their snapshots
+    @Scheduled(initialDelayString = "${catalog.search.rebuild-interval-ms:300000}",
+            fixedDelayString = "${catalog.search.rebuild-interval-ms:300000}")
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        withWriteLock(() -> {
+            building = true;
+            touchedDuringBuild.clear();
+        });
+
+        try {
+            List<ProductListingView> rows = productRepository.findAllListingsForIndex();
+            Set<Long> snapshotIds = rows.stream().map(ProductListingView::getId).collect(Collectors.toSet());
+
+            withWriteLock(() -> {
+                for (Long id : new ArrayList<>(tokensByProduct.keySet())) {
+                    if (!snapshotIds.contains(id) && !touchedDuringBuild.contains(id)) {
+                        removeTokens(id);
+                    }
+                }
+                for (ProductListingView row : rows) {
+                    if (!touchedDuringBuild.contains(row.getId())) {
+                        putTokens(row.getId(), row.getName(), row.getDescription(), row.getCategoryName(), row.getRegionName());
+                    }
+                }
+                ready = true;
+            });
+            logger.info("Product search index built: {} products, {} tokens in {} ms",
+                    rows.size(), postings.size(), System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            logger.error("Product search index build failed, search stays on the database: {}", e.getMessage());
+        } finally {
+            withWriteLock(() -> {
+                building = false;
+                touchedDuringBuild.clear();
+            });
+        }
+    }
+
+    // Applied after commit so rolled-back writes never reach the index
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        switch (event.type()) {
+            case UPSERTED -> index(event.product());
+            case DELETED -> remove(event.productId());
+            default -> { } // Stock moves don't change searchable text
+        }
+    }
+
+    public void index(ProductResponseDto product) {
+        withWriteLock(() -> {
+            if (building) touchedDuringBuild.add(product.getId());
+            putTokens(product.getId(), product.getName(), product.getDescription(),
+                    product.getCategoryName(), product.getRegionName());
+        });
+    }
+
+    public void remove(Long productId) {
+        withWriteLock(() -> {
+            if (building) touchedDuringBuild.add(productId);
+            removeTokens(productId);
+        });
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // True when the index can answer this query; otherwise callers use the database
+    public boolean canServe(String query) {
+        return ready && !tokenize(query).isEmpty();
+    }
+
+    /**
+     * Returns matching product ids, best first: products matching more query words rank
+     * higher, then by accumulated score, then by id for a stable order.
+     */
+    public List<Long> search(String query) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, Float> scores = new HashMap<>();
+        Map<Long, Integer> matchedTerms = new HashMap<>();
+
+        lock.readLock().lock();
+        try {
+            int documents = Math.max(1, tokensByProduct.size());
+            for (int i = 0; i < terms.size(); i++) {
+                Map<String, Float> candidates = expand(terms.get(i), i == terms.size() - 1);
+
+                // Best match per product for this term (a term should not count twice)
+                Map<Long, Float> termScores = new HashMap<>();
+                candidates.forEach((token, factor) -> {
+                    Map<Long, Float> posting = postings.get(token);
+                    double idf = Math.log(1.0 + (double) documents / posting.size());
+                    posting.forEach((id, weight) -> termScores.merge(id, (float) (factor * weight * idf), Math::max));
+                });
+
+                termScores.forEach((id, score) -> {
+                    scores.merge(id, score, Float::sum);
+                    matchedTerms.merge(id, 1, Integer::sum);
+                });
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Long> ranked = new ArrayList<>(scores.keySet());
+        ranked.sort((a, b) -> {
+            int byTerms = Integer.compare(matchedTerms.get(b), matchedTerms.get(a));
+            if (byTerms != 0) return byTerms;
+            int byScore = Float.compare(scores.get(b), scores.get(a));
+            return byScore != 0 ? byScore : Long.compare(a, b);
+        });
+        return ranked;
+    }
+
+    // --- Helper Methods (callers hold the lock) ---
+
+    private Map<String, Float> expand(String term, boolean lastTerm) {
+        Map<String, Float> candidates = new HashMap<>();
+        if (postings.containsKey(term)) {
+            candidates.put(term, 1.0f);
+        }
+
+        // The user may still be typing the final word
+        if (lastTerm) {
+            for (String token : postings.subMap(term, false, term + Character.MAX_VALUE, false).keySet()) {
+                candidates.putIfAbsent(token, PREFIX_FACTOR);
+            }
+        }
+
+        // Typo tolerance: only when the exact word is unknown
+        if (!postings.containsKey(term) && term.length() >= MIN_FUZZY_LENGTH) {
+            Set<String> grams = trigrams(term);
+            Map<String, Integer> shared = new HashMap<>();
+            for (String gram : grams) {
+                for (String token : tokensByTrigram.getOrDefault(gram, Collections.emptySet())) {
+                    shared.merge(token, 1, Integer::sum);
+                }
+            }
+            shared.forEach((token, common) -> {
+                double similarity = 2.0 * common / (grams.size() + trigrams(token).size());
+                if (similarity >= MIN_TRIGRAM_SIMILARITY) {
+                    candidates.putIfAbsent(token, (float) (FUZZY_FACTOR * similarity));
+                }
+            });
+        }
+        return candidates;
+    }
+
+    private void putTokens(Long id, String name, String description, String categoryName, String regionName) {
+        removeTokens(id);
+
+        Map<String, Float> weights = new HashMap<>();
+        addWeights(weights, name, NAME_WEIGHT);
+        addWeights(weights, description, DESCRIPTION_WEIGHT);
+        addWeights(weights, categoryName, CATEGORY_WEIGHT);
+        addWeights(weights, regionName, REGION_WEIGHT);
+
+        weights.forEach((token, weight) -> {
+            Map<Long, Float> posting = postings.get(token);
+            if (posting == null) {
+                posting = new HashMap<>();
+                postings.put(token, posting);
+                for (String gram : trigrams(token)) {
+                    tokensByTrigram.computeIfAbsent(gram, g -> new HashSet<>()).add(token);
+                }
+            }
+            posting.put(id, weight);
+        });
+        tokensByProduct.put(id, weights.keySet());
+    }
+
+    private void removeTokens(Long id) {
+        Set<String> tokens = tokensByProduct.remove(id);
+        if (tokens == null) return;
+
+        for (String token : tokens) {
+            Map<Long, Float> posting = postings.get(token);
+            if (posting == null) continue;
+            posting.remove(id);
+            if (posting.isEmpty()) {
+                postings.remove(token);
+                for (String gram : trigrams(token)) {
+                    Set<String> gramTokens = tokensByTrigram.get(gram);
+                    if (gramTokens != null) {
+                        gramTokens.remove(token);
+                        if (gramTokens.isEmpty()) tokensByTrigram.remove(gram);
+                    }
+                }
+            }
+        }
+    }
+
+    private static void addWeights(Map<String, Float> weights, String text, float fieldWeight) {
+        for (String token : tokenize(text)) {
+            weights.merge(token, fieldWeight, Float::sum);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        String folded = Normalizer.normalize(text, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+        for (String part : folded.split("[^\\p{L}\\p{Nd}]+")) {
+            if (part.length() >= MIN_TOKEN_LENGTH) {
+                tokens.add(part);
+            }
+        }
+        return tokens;
+    }
+
+    static Set<String> trigrams(String token) {
+        String padded = "$" + token + "$";
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    private void withWriteLock(Runnable action) {
+        lock.writeLock().lock();
+        try {
+            action.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.backend.service;
 
+import com.example.backend.dto.CartBatchRequestDto;
 import com.example.backend.dto.CartItemRequestDto;
 import com.example.backend.dto.CartResponseDto;
 
@@ -8,4 +9,5 @@ public interface CartService {
     CartResponseDto addItemToCart(Long userId, CartItemRequestDto requestDto);
     CartResponseDto removeItem(Long userId, Long cartItemId);
     CartResponseDto clearCart(Long userId);
+    CartResponseDto applyBatch(Long userId, CartBatchRequestDto request);
 }
\ No newline at end of file
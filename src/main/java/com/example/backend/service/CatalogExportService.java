@@ -0,0 +1,9 @@
+package com.example.backend.service;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+public interface CatalogExportService {
+    // Writes one JSON product per line (NDJSON); all filters optional
+    void exportProducts(LocalDateTime updatedSince, Long categoryId, Long regionId, OutputStream out);
+}
@@ -9,6 +9,7 @@ public interface CategoryService {
     CategoryResponseDto createCategory(CategoryRequestDto request);
     CategoryResponseDto getCategory(Long id);
     List<CategoryResponseDto> getAllCategories();
+    String getCatalogVersion(); // Changes whenever any category is created, updated or deleted
     CategoryResponseDto updateCategory(Long id, CategoryRequestDto request);
     void deleteCategory(Long id);
 }
\ No newline at end of file
@@ -2,13 +2,28 @@ package com.example.backend.service;
 
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Map;
 
 @Service
-public class CloudinaryService {
+@Qualifier("imageStorageBackend") // Wrapped by DeduplicatingImageStorage
+@ConditionalOnProperty(name = "catalog.images.storage", havingValue = "cloudinary", matchIfMissing = true)
+public class CloudinaryService implements ImageStorage {
+
+    private static final Logger logger = LoggerFactory.getLogger(CloudinaryService.class);
+    private static final int READ_TIMEOUT_MS = 10_000;
 
     private final Cloudinary cloudinary;
 
@@ -16,10 +31,28 @@ public class CloudinaryService {
         this.cloudinary = cloudinary;
     }
 
+    // Streams from disk: the multipart part is moved (or stream-copied) to a temp file and the
+    // client sends that file in small buffered chunks, so heap use doesn't grow with image size.
+    @Override
     public String uploadFile(MultipartFile file) {
+        Path tempFile = null;
+        try {
+            tempFile = Files.createTempFile("product-upload-", ".tmp");
+            file.transferTo(tempFile);
+            return uploadFile(tempFile, file.getOriginalFilename());
+
+        } catch (IOException e) {
+            throw new RuntimeException("Image upload failed");
+        } finally {
+            deleteQuietly(tempFile);
+        }
+    }
+
+    @Override
+    public String uploadFile(Path file, String originalFilename) {
         try {
             Map uploadResult = cloudinary.uploader().upload(
-                    file.getBytes(),
+                    file.toFile(),
                     ObjectUtils.asMap("resource_type", "auto")
             );
 
@@ -29,4 +62,44 @@ public class CloudinaryService {
             throw new RuntimeException("Image upload failed");
         }
     }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) return;
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Could not delete temp upload file {}: {}", path, e.getMessage());
+        }
+    }
+
+    // Removes an uploaded image by its delivery URL (public id = path after the version segment, no extension)
+    @Override
+    public void deleteFile(String url) {
+        try {
+            cloudinary.uploader().destroy(publicIdOf(url), ObjectUtils.emptyMap());
+        } catch (Exception e) {
+            throw new RuntimeException("Image delete failed");
+        }
+    }
+
+    @Override
+    public InputStream openStream(String url) throws IOException {
+        URLConnection connection = URI.create(url).toURL().openConnection();
+        connection.setConnectTimeout(READ_TIMEOUT_MS);
+        connection.setReadTimeout(READ_TIMEOUT_MS);
+        return connection.getInputStream();
+    }
+
+    static String publicIdOf(String url) {
+        int upload = url.indexOf("/upload/");
+        if (upload < 0) {
+            throw new IllegalArgumentException("Not a Cloudinary delivery URL: " + url);
+        }
+        String path = url.substring(upload + "/upload/".length());
+        if (path.matches("v\\d+/.*")) {
+            path = path.substring(path.indexOf('/') + 1);
+        }
+        int dot = path.lastIndexOf('.');
+        return dot > path.lastIndexOf('/') ? path.substring(0, dot) : path;
+    }
 }
@@ -0,0 +1,27 @@
+package com.example.backend.service;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+/**
+ * Where product images live. Selected with catalog.images.storage:
+ * "cloudinary" (default, {@link CloudinaryService}) or "local" ({@link LocalImageStorage}).
+ * Callers get the content-dedupe decorator (DeduplicatingImageStorage), which wraps the backend.
+ */
+public interface ImageStorage {
+
+    // Stores the file and returns the public URL clients should use
+    String uploadFile(MultipartFile file);
+
+    // Same, for a file already on local disk (e.g. staged by the async image queue); the source is left in place
+    String uploadFile(Path file, String originalFilename);
+
+    // Removes a previously stored image by the URL uploadFile returned
+    void deleteFile(String url);
+
+    // Reads a stored image back (e.g. to derive thumbnails); caller closes the stream
+    InputStream openStream(String url) throws IOException;
+}
@@ -0,0 +1,109 @@
+package com.example.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Stores images on local disk and serves them through LocalImageController. Used for self-hosting
+ * and for environments without network access to Cloudinary.
+ * Stored names are random UUIDs, so a name never changes content and can be cached forever.
+ */
+@Service
+@Qualifier("imageStorageBackend") // Wrapped by DeduplicatingImageStorage
+@ConditionalOnProperty(name = "catalog.images.storage", havingValue = "local")
+public class LocalImageStorage implements ImageStorage {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalImageStorage.class);
+    private static final Pattern STORED_NAME = Pattern.compile("[a-f0-9-]{36}(\\.[a-z0-9]{1,5})?");
+    private static final Pattern EXTENSION = Pattern.compile("[a-z0-9]{1,5}");
+
+    private final Path rootDir;
+    private final String baseUrl;
+
+    public LocalImageStorage(@Value("${catalog.images.local.root-dir:./data/images}") String rootDir,
+                             @Value("${catalog.images.local.base-url:/api/v1/images}") String baseUrl) {
+        this.rootDir = Path.of(rootDir).toAbsolutePath().normalize();
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        try {
+            Files.createDirectories(this.rootDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create image directory " + this.rootDir, e);
+        }
+        logger.info("Local image storage at {}", this.rootDir);
+    }
+
+    @Override
+    public String uploadFile(MultipartFile file) {
+        String name = UUID.randomUUID() + extensionOf(file.getOriginalFilename());
+        try {
+            // Disk-backed parts are moved, not copied through the heap
+            file.transferTo(rootDir.resolve(name));
+            return baseUrl + "/" + name;
+        } catch (IOException e) {
+            throw new RuntimeException("Image upload failed");
+        }
+    }
+
+    @Override
+    public String uploadFile(Path file, String originalFilename) {
+        String name = UUID.randomUUID() + extensionOf(originalFilename);
+        try {
+            Files.copy(file, rootDir.resolve(name));
+            return baseUrl + "/" + name;
+        } catch (IOException e) {
+            throw new RuntimeException("Image upload failed");
+        }
+    }
+
+    @Override
+    public void deleteFile(String url) {
+        String name = url.substring(url.lastIndexOf('/') + 1);
+        resolve(name).ifPresent(path -> {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                throw new RuntimeException("Image delete failed");
+            }
+        });
+    }
+
+    @Override
+    public InputStream openStream(String url) throws IOException {
+        String name = url.substring(url.lastIndexOf('/') + 1);
+        Path path = resolve(name).orElseThrow(() -> new FileNotFoundException("No stored image for " + url));
+        return Files.newInputStream(path);
+    }
+
+    // Maps a stored name to its file; anything that isn't a name we generated (e.g. "../x") is rejected
+    public Optional<Path> resolve(String name) {
+        if (name == null || !STORED_NAME.matcher(name).matches()) {
+            return Optional.empty();
+        }
+        Path path = rootDir.resolve(name);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    private static String extensionOf(String filename) {
+        if (filename == null) return "";
+        int dot = filename.lastIndexOf('.');
+        if (dot < 0) return "";
+        String extension = filename.substring(dot + 1).toLowerCase(Locale.ROOT);
+        return EXTENSION.matcher(extension).matches() ? "." + extension : "";
+    }
+}
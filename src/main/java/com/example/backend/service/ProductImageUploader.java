@@ -0,0 +1,87 @@
+package com.example.backend.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+/**
+ * Uploads a product's images concurrently, before any DB transaction is opened, so wall time is
+ * roughly the slowest single upload and no pooled connection idles on remote I/O.
+ * All-or-nothing: if any upload fails or times out, the ones that succeeded are deleted again,
+ * including uploads that only finish after the batch has given up on them.
+ */
+@Component
+public class ProductImageUploader {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImageUploader.class);
+
+    private final ImageStorage imageStorage;
+    private final ExecutorService executor;
+    private final long timeoutSeconds;
+
+    public ProductImageUploader(ImageStorage imageStorage,
+                                @Qualifier("imageUploadExecutor") ExecutorService executor,
+                                @Value("${catalog.images.upload-timeout-seconds:30}") long timeoutSeconds) {
+        this.imageStorage = imageStorage;
+        this.executor = executor;
+        this.timeoutSeconds = timeoutSeconds;
+    }
+
+    // Returns the URLs in the same order as the (non-empty) files
+    public List<String> uploadAll(List<MultipartFile> files) {
+        if (files == null || files.isEmpty()) return new ArrayList<>();
+
+        // The uploads themselves; the timeout applies to copies, so an upload that finishes late still reports its URL
+        List<CompletableFuture<String>> uploads = files.stream()
+                .filter(file -> !file.isEmpty())
+                .map(file -> CompletableFuture.supplyAsync(() -> imageStorage.uploadFile(file), executor))
+                .toList();
+        List<CompletableFuture<String>> timed = uploads.stream()
+                .map(upload -> upload.copy().orTimeout(timeoutSeconds, TimeUnit.SECONDS))
+                .toList();
+
+        try {
+            CompletableFuture.allOf(timed.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            // Delete every upload that succeeds: now for the finished ones, on completion for the late ones
+            long succeeded = uploads.stream()
+                    .filter(upload -> upload.isDone() && !upload.isCompletedExceptionally())
+                    .count();
+            for (CompletableFuture<String> upload : uploads) {
+                upload.whenComplete((url, error) -> {
+                    if (url != null) discard(List.of(url));
+                });
+            }
+
+            Throwable cause = e.getCause();
+            logger.error("Image upload failed ({} of {} succeeded): {}", succeeded, uploads.size(),
+                    cause instanceof TimeoutException ? "timed out after " + timeoutSeconds + "s" : cause.getMessage());
+            throw new RuntimeException("Image upload failed");
+        }
+
+        return timed.stream().map(CompletableFuture::join).collect(Collectors.toCollection(ArrayList::new));
+    }
+
+    // Best-effort removal of already-uploaded assets (failed upload batch or failed DB save)
+    public void discard(List<String> urls) {
+        for (String url : urls) {
+            try {
+                imageStorage.deleteFile(url);
+            } catch (RuntimeException e) {
+                logger.warn("Could not delete orphaned image {}: {}", url, e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.BulkImportResultDto;
+import com.example.backend.exception.InvalidImportFileException;
+
+import java.io.InputStream;
+
+public interface ProductImportService {
+
+    enum Format {
+        CSV,
+        JSON_LINES;
+
+        // Explicit format wins; otherwise guess from the file extension (CSV by default)
+        public static Format resolve(String format, String filename) {
+            if (format != null && !format.isBlank()) {
+                return switch (format.trim().toLowerCase()) {
+                    case "csv" -> CSV;
+                    case "jsonl", "ndjson", "json" -> JSON_LINES;
+                    default -> throw new InvalidImportFileException(0, "Unsupported import format: " + format);
+                };
+            }
+            String name = filename == null ? "" : filename.toLowerCase();
+            return name.endsWith(".jsonl") || name.endsWith(".ndjson") || name.endsWith(".json") ? JSON_LINES : CSV;
+        }
+    }
+
+    BulkImportResultDto importProducts(InputStream input, Format format);
+}
@@ -1,7 +1,11 @@
 package com.example.backend.service;
 
+import com.example.backend.dto.CatalogBrowseResponseDto;
+import com.example.backend.dto.ProductCursorPageDto;
+import com.example.backend.dto.ProductFilterDto;
 import com.example.backend.dto.ProductRequestDto;
 import com.example.backend.dto.ProductResponseDto;
+import com.example.backend.dto.StockBucketsDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.multipart.MultipartFile;
@@ -18,6 +22,11 @@ public interface ProductService {
 
     void deleteProduct(Long id);
 
+    // Striped inventory for hot products: stock split across N bucket rows (0 = off)
+    StockBucketsDto getStockBuckets(Long id);
+
+    StockBucketsDto setStockBuckets(Long id, int buckets);
+
     // Pagination & Filtering
     Page<ProductResponseDto> getAllProducts(Pageable pageable);
 
@@ -26,4 +35,18 @@ public interface ProductService {
     Page<ProductResponseDto> getProductsByRegion(Long regionId, Pageable pageable);
 
     Page<ProductResponseDto> searchProductsByName(String name, Pageable pageable);
+
+    // Combined filter: category, region, seller, price range, in-stock; sortable by price / createdAt / name
+    Page<ProductResponseDto> filterProducts(ProductFilterDto filter, Pageable pageable);
+
+    // Product page + facet counts (category, region, price buckets) in one call
+    CatalogBrowseResponseDto browseCatalog(Long categoryId, Long regionId, Double minPrice, Double maxPrice,
+                                           Pageable pageable);
+
+    // Keyset (cursor) pagination: no OFFSET and no COUNT, flat cost at any depth
+    ProductCursorPageDto getAllProductsAfter(String cursor, int size);
+
+    ProductCursorPageDto getProductsByCategoryAfter(Long categoryId, String cursor, int size);
+
+    ProductCursorPageDto getProductsByRegionAfter(Long regionId, String cursor, int size);
 }
\ No newline at end of file
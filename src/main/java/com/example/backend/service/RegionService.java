@@ -13,6 +13,8 @@ public interface RegionService {
 
     List<RegionResponseDto> getAllRegions();
 
+    String getCatalogVersion(); // Changes whenever any region is created, updated or deleted
+
     RegionResponseDto updateRegion(Long id, RegionRequestDto request);
 
     void deleteRegion(Long id);
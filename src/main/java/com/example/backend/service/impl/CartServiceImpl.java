@@ -1,35 +1,54 @@
 package com.example.backend.service.impl;
 
+import com.example.backend.cart.CartBatchPlan;
+import com.example.backend.dto.CartBatchRequestDto;
 import com.example.backend.dto.CartItemResponseDto;
 import com.example.backend.dto.CartItemRequestDto;
 import com.example.backend.dto.CartResponseDto;
+import com.example.backend.inventory.StockReservationLedger;
 import com.example.backend.model.Cart;
 import com.example.backend.model.CartItem;
 import com.example.backend.model.Product;
 import com.example.backend.model.User;
 import com.example.backend.repository.CartItemRepository;
+import com.example.backend.repository.CartProductView;
 import com.example.backend.repository.CartRepository;
+import com.example.backend.repository.CartWriteRepository;
+import com.example.backend.repository.CartWriteRepository.CartDelta;
+import com.example.backend.repository.CartWriteRepository.LineWrite;
 import com.example.backend.repository.ProductRepository;
 import com.example.backend.repository.UserRepository;
+import com.example.backend.retry.RetryOnConflict;
 import com.example.backend.service.CartService;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+// Every operation straight against the database (catalog.cart.store=database)
 @Service
 @RequiredArgsConstructor
 @Transactional
+@ConditionalOnProperty(name = "catalog.cart.store", havingValue = "database")
 public class CartServiceImpl implements CartService {
 
     private final CartRepository cartRepository;
     private final UserRepository userRepository;
     private final ProductRepository productRepository;
     private final CartItemRepository cartItemRepository;
+    private final CartWriteRepository cartWriteRepository;
+    private final EntityManager entityManager;
+    private final StockReservationLedger reservations;
 
     @Override
     public CartResponseDto getUserCart(Long userId) {
@@ -38,79 +57,123 @@ public class CartServiceImpl implements CartService {
     }
 
     @Override
+    @RetryOnConflict
     public CartResponseDto addItemToCart(Long userId, CartItemRequestDto request) {
         Cart cart = getOrCreateCart(userId);
 
+        // Products already in the cart were fetch-joined, so this is a persistence-context hit
         Product product = productRepository.findById(request.getProductId())
                 .orElseThrow(() -> new EntityNotFoundException("Product not found with ID: " + request.getProductId()));
 
         // 1. Stock Check
-        if (product.getStock() < request.getQuantity()) {
+        if (product.currentStock() < request.getQuantity()) {
             throw new IllegalArgumentException("Insufficient stock for product: " + product.getName());
         }
 
-        // 2. Check if item exists in cart (Merge logic)
-        Optional<CartItem> existingItemOpt = cartItemRepository
-                .findByCartIdAndProductId(cart.getId(), product.getId());
-
-        if (existingItemOpt.isPresent()) {
-            // Update existing item
-            CartItem existingItem = existingItemOpt.get();
-            int newQuantity = existingItem.getQuantity() + request.getQuantity();
+        // 2. Re-check stock for the TOTAL quantity, against the loaded items (a lapsed hold no longer covers them)
+        int inCart = cart.getCartItems().stream()
+                .filter(item -> item.getProduct().getId().equals(product.getId()))
+                .mapToInt(CartItem::getQuantity)
+                .sum();
+        if (inCart > 0 && product.currentStock() < inCart + request.getQuantity()) {
+            throw new IllegalArgumentException("Insufficient stock to add more of: " + product.getName());
+        }
 
-            // Re-check stock for the TOTAL new quantity
-            if (product.getStock() < newQuantity) {
-                throw new IllegalArgumentException("Insufficient stock to add more of: " + product.getName());
-            }
+        // 3. Insert the line or merge into it atomically (concurrent adds sum up)
+        cartItemRepository.upsertQuantity(cart.getId(), product.getId(), request.getQuantity(), product.getPrice(),
+                request.getQuantity() * product.getPrice(), LocalDateTime.now());
 
-            existingItem.setQuantity(newQuantity);
-            existingItem.setTotalPrice(newQuantity * product.getPrice());
-            cartItemRepository.save(existingItem);
-        } else {
-            // Create new item
-            CartItem newItem = new CartItem();
-            newItem.setCart(cart);
-            newItem.setProduct(product);
-            newItem.setQuantity(request.getQuantity());
-            newItem.setPrice(product.getPrice());
-            newItem.setTotalPrice(request.getQuantity() * product.getPrice());
-            cartItemRepository.save(newItem);
+        // 4. Hold the added quantity; other carts' holds count against the stock. The hold joins this
+        // transaction, so a refusal or a conflict retry rolls the write and the hold back together
+        if (!reservations.reserve(userId, product.getId(), request.getQuantity(), product.currentStock())) {
+            throw new IllegalArgumentException((inCart > 0 ? "Insufficient stock to add more of: "
+                    : "Insufficient stock for product: ") + product.getName());
         }
 
-        return getUserCart(userId); // Return updated cart state
+        // The upsert cleared the session, so this reads the merged row
+        return convertToDto(cartRepository.findWithItemsByUserId(userId).orElseThrow());
     }
 
     @Override
+    @RetryOnConflict
     public CartResponseDto removeItem(Long userId, Long cartItemId) {
         // Validate cart ownership before deleting (Security best practice)
         Cart cart = getOrCreateCart(userId);
 
-        CartItem itemToDelete = cartItemRepository.findById(cartItemId)
-                .orElseThrow(() -> new EntityNotFoundException("Cart Item not found"));
+        Optional<CartItem> itemToDelete = cart.getCartItems().stream()
+                .filter(item -> item.getId().equals(cartItemId))
+                .findFirst();
 
-        if (!itemToDelete.getCart().getId().equals(cart.getId())) {
-            throw new SecurityException("You are not authorized to remove this item");
+        if (itemToDelete.isEmpty()) {
+            if (cartItemRepository.existsById(cartItemId)) {
+                throw new SecurityException("You are not authorized to remove this item");
+            }
+            throw new EntityNotFoundException("Cart Item not found");
         }
 
-        cartItemRepository.delete(itemToDelete);
-        return getUserCart(userId);
+        cart.getCartItems().remove(itemToDelete.get()); // orphanRemoval deletes the row
+        reservations.release(userId, itemToDelete.get().getProduct().getId());
+        return convertToDto(cart);
     }
 
     @Override
+    @RetryOnConflict
     public CartResponseDto clearCart(Long userId) {
+        // Only the cart id is needed: the items go with one bulk DELETE and are never loaded
+        Long cartId = cartRepository.findIdByUserId(userId).orElseGet(() -> getOrCreateCart(userId).getId());
+        cartItemRepository.deleteByCartId(cartId);
+        reservations.releaseAll(userId);
+
+        CartResponseDto response = new CartResponseDto();
+        response.setId(cartId);
+        response.setUserId(userId);
+        response.setTotalCartPrice(0.0);
+        return response;
+    }
+
+    @Override
+    @RetryOnConflict
+    public CartResponseDto applyBatch(Long userId, CartBatchRequestDto request) {
         Cart cart = getOrCreateCart(userId);
 
-        // Use orphanRemoval logic or manual delete
-        cartItemRepository.deleteAll(cart.getCartItems());
-        cart.getCartItems().clear();
+        // All referenced products in one query
+        Map<Long, CartProductView> products = productRepository
+                .findCartProductsByIdIn(CartBatchPlan.productIds(request.getOperations())).stream()
+                .collect(Collectors.toMap(CartProductView::getId, Function.identity()));
+
+        Map<Long, Integer> current = cart.getCartItems().stream()
+                .collect(Collectors.toMap(item -> item.getProduct().getId(), CartItem::getQuantity, Integer::sum));
+        // Other carts' holds on all of them in one lookup; throws before any write
+        Map<Long, Integer> available = reservations.availableTo(userId, products.values().stream()
+                .collect(Collectors.toMap(CartProductView::getId, CartProductView::getStock)));
+        CartBatchPlan plan = CartBatchPlan.of(current, request.getOperations(), products,
+                product -> available.get(product.getId()));
+
+        List<LineWrite> upserts = new ArrayList<>();
+        List<Long> removed = new ArrayList<>();
+        plan.changes().forEach((productId, quantity) -> {
+            if (quantity == 0) {
+                removed.add(productId);
+            } else {
+                upserts.add(new LineWrite(productId, quantity, products.get(productId).getPrice()));
+            }
+        });
+        if (upserts.isEmpty() && removed.isEmpty()) {
+            return convertToDto(cart);
+        }
 
-        return convertToDto(cartRepository.save(cart));
+        // One JDBC batch per statement shape, then a single re-read of the final cart
+        entityManager.flush();
+        cartWriteRepository.write(List.of(new CartDelta(cart.getId(), false, upserts, removed)));
+        plan.holdStock(reservations, userId, products); // After the write, like addItemToCart
+        entityManager.clear(); // The loaded items are stale now
+        return convertToDto(cartRepository.findWithItemsByUserId(userId).orElseThrow());
     }
 
     // --- Helper Methods ---
 
     private Cart getOrCreateCart(Long userId) {
-        return cartRepository.findByUserId(userId)
+        return cartRepository.findWithItemsByUserId(userId)
                 .orElseGet(() -> {
                     User user = userRepository.findById(userId)
                             .orElseThrow(() -> new EntityNotFoundException("User not found with ID: " + userId));
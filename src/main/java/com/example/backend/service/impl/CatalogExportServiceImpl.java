@@ -0,0 +1,47 @@
+package com.example.backend.service.impl;
+
+import com.example.backend.repository.ProductExportRepository;
+import com.example.backend.service.CatalogExportService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Service
+@RequiredArgsConstructor
+public class CatalogExportServiceImpl implements CatalogExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogExportServiceImpl.class);
+    private static final byte NEWLINE = '\n';
+
+    private final ProductExportRepository productExportRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public void exportProducts(LocalDateTime updatedSince, Long categoryId, Long regionId, OutputStream out) {
+        long start = System.currentTimeMillis();
+        ObjectWriter writer = objectMapper.writer();
+        AtomicLong exported = new AtomicLong();
+
+        // No @Transactional: the walk holds one connection for its own duration only
+        productExportRepository.streamProducts(updatedSince, categoryId, regionId, product -> {
+            try {
+                out.write(writer.writeValueAsBytes(product));
+                out.write(NEWLINE);
+                exported.incrementAndGet();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Client aborted catalog export", e);
+            }
+        });
+
+        logger.info("Catalog export finished: {} products in {} ms", exported.get(), System.currentTimeMillis() - start);
+    }
+}
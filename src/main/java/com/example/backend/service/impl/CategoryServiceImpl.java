@@ -1,5 +1,6 @@
 package com.example.backend.service.impl;
 
+import com.example.backend.cache.ReferenceDataCache;
 import com.example.backend.dto.CategoryRequestDto;
 import com.example.backend.dto.CategoryResponseDto;
 import com.example.backend.model.Category;
@@ -22,6 +23,7 @@ public class CategoryServiceImpl implements CategoryService {
 
     private static final Logger logger = LoggerFactory.getLogger(CategoryServiceImpl.class);
     private final CategoryRepository categoryRepository;
+    private final ReferenceDataCache referenceDataCache;
 
     @Override
     @Transactional
@@ -40,6 +42,7 @@ public class CategoryServiceImpl implements CategoryService {
                 .build();
 
         Category saved = categoryRepository.save(category);
+        referenceDataCache.categorySaved(saved);
         return mapToDto(saved);
     }
 
@@ -58,6 +61,11 @@ public class CategoryServiceImpl implements CategoryService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public String getCatalogVersion() {
+        return categoryRepository.findCatalogVersion().toVersion();
+    }
+
     @Override
     @Transactional
     public CategoryResponseDto updateCategory(Long id, CategoryRequestDto request) {
@@ -77,6 +85,7 @@ public class CategoryServiceImpl implements CategoryService {
         category.setDescription(request.getDescription());
 
         Category updated = categoryRepository.save(category);
+        referenceDataCache.categorySaved(updated);
         return mapToDto(updated);
     }
 
@@ -87,6 +96,7 @@ public class CategoryServiceImpl implements CategoryService {
             throw new EntityNotFoundException("Category not found with ID: " + id);
         }
         categoryRepository.deleteById(id);
+        referenceDataCache.categoryDeleted(id);
         logger.info("Category ID {} deleted successfully", id);
     }
 
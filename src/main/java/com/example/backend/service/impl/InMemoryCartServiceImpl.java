@@ -0,0 +1,135 @@
+package com.example.backend.service.impl;
+
+import com.example.backend.cart.CartBatchPlan;
+import com.example.backend.cart.HotCartStore;
+import com.example.backend.dto.CartBatchRequestDto;
+import com.example.backend.dto.CartItemRequestDto;
+import com.example.backend.dto.CartResponseDto;
+import com.example.backend.inventory.StockReservationLedger;
+import com.example.backend.repository.CartItemRepository;
+import com.example.backend.repository.CartProductView;
+import com.example.backend.repository.ProductRepository;
+import com.example.backend.retry.RetryOnConflict;
+import com.example.backend.service.CartService;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Cart operations against {@link HotCartStore}: reads are served from memory, mutations cost at
+ * most one product lookup, and the rows are written back by the store's flush.
+ * <p>
+ * Mutations change the in-memory cart only after its stock holds are written, so when a hold
+ * loses a race (duplicate key, deadlock) the whole call can simply run again.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "catalog.cart.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryCartServiceImpl implements CartService {
+
+    private final HotCartStore cartStore;
+    private final ProductRepository productRepository;
+    private final CartItemRepository cartItemRepository;
+    private final StockReservationLedger reservations;
+
+    @Override
+    public CartResponseDto getUserCart(Long userId) {
+        return cartStore.withCart(userId, cart -> cart.toDto());
+    }
+
+    @Override
+    @RetryOnConflict
+    public CartResponseDto addItemToCart(Long userId, CartItemRequestDto request) {
+        CartProductView product = productRepository.findCartProductById(request.getProductId())
+                .orElseThrow(() -> new EntityNotFoundException("Product not found with ID: " + request.getProductId()));
+
+        // 1. Stock Check
+        if (product.getStock() < request.getQuantity()) {
+            throw new IllegalArgumentException("Insufficient stock for product: " + product.getName());
+        }
+
+        return cartStore.withCart(userId, cart -> {
+            // 2. Merge with an existing line; re-check stock for the TOTAL new quantity
+            int existing = cart.quantityOf(product.getId());
+            int newQuantity = existing + request.getQuantity();
+            if (existing > 0 && product.getStock() < newQuantity) {
+                throw new IllegalArgumentException("Insufficient stock to add more of: " + product.getName());
+            }
+
+            // 3. Hold the added quantity; other carts' holds count against the stock
+            if (!reservations.reserve(userId, product.getId(), request.getQuantity(), product.getStock())) {
+                throw new IllegalArgumentException((existing > 0 ? "Insufficient stock to add more of: "
+                        : "Insufficient stock for product: ") + product.getName());
+            }
+
+            cart.put(product.getId(), product.getName(), newQuantity, product.getPrice());
+            return cart.toDto();
+        });
+    }
+
+    @Override
+    @RetryOnConflict
+    public CartResponseDto removeItem(Long userId, Long cartItemId) {
+        CartResponseDto response = cartStore.withCart(userId, cart -> {
+            Long productId = cart.productOf(cartItemId);
+            if (productId == null) {
+                return null;
+            }
+            // Release first: if that fails, the cart is unchanged
+            reservations.release(userId, productId);
+            cart.removeItem(cartItemId);
+            return cart.toDto();
+        });
+        if (response != null) {
+            return response;
+        }
+
+        // Validate cart ownership (Security best practice)
+        if (cartItemId > 0 && cartItemRepository.existsById(cartItemId)) {
+            throw new SecurityException("You are not authorized to remove this item");
+        }
+        throw new EntityNotFoundException("Cart Item not found");
+    }
+
+    @Override
+    @RetryOnConflict
+    public CartResponseDto clearCart(Long userId) {
+        return cartStore.withCart(userId, cart -> {
+            reservations.releaseAll(userId); // First: if that fails, the cart is unchanged
+            cart.clear();
+            return cart.toDto();
+        });
+    }
+
+    @Override
+    @RetryOnConflict
+    public CartResponseDto applyBatch(Long userId, CartBatchRequestDto request) {
+        // All referenced products in one query, before taking the cart's lock
+        Map<Long, CartProductView> products = productRepository
+                .findCartProductsByIdIn(CartBatchPlan.productIds(request.getOperations())).stream()
+                .collect(Collectors.toMap(CartProductView::getId, Function.identity()));
+
+        return cartStore.withCart(userId, cart -> {
+            // Validated as a whole before the first change (other carts' holds in one lookup); written by one flush
+            Map<Long, Integer> available = reservations.availableTo(userId, products.values().stream()
+                    .collect(Collectors.toMap(CartProductView::getId, CartProductView::getStock)));
+            CartBatchPlan plan = CartBatchPlan.of(cart.quantities(), request.getOperations(), products,
+                    product -> available.get(product.getId()));
+            plan.holdStock(reservations, userId, products);
+            plan.changes().forEach((productId, quantity) -> {
+                if (quantity == 0) {
+                    cart.removeProduct(productId);
+                } else {
+                    CartProductView product = products.get(productId);
+                    cart.put(productId, product.getName(), quantity, product.getPrice());
+                }
+            });
+            return cart.toDto();
+        });
+    }
+}
@@ -1,16 +1,33 @@
 package com.example.backend.service.impl;
 
+import com.example.backend.cart.HotCartStore;
 import com.example.backend.dto.*;
+import com.example.backend.event.ProductChangedEvent;
+import com.example.backend.inventory.StockReservationLedger;
+import com.example.backend.inventory.StripedStock;
 import com.example.backend.model.OrderStatus;
 import com.example.backend.model.*;
 import com.example.backend.repository.*;
+import com.example.backend.repository.StockWriteRepository.StockDeduction;
+import com.example.backend.retry.ConflictRetrier;
 import com.example.backend.service.OrderService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -21,17 +38,39 @@ public class OrderServiceImpl implements OrderService {
     private final UserRepository userRepository;
     private final OrderRepository orderRepository;
     private final CartRepository cartRepository;
-    private final ProductRepository productRepository; // Needed for stock update
+    private final CartItemRepository cartItemRepository;
+    private final StockWriteRepository stockWriteRepository; // Guarded stock deduction
+    private final StripedStock stripedStock; // Hot products: stock split across bucket rows
+    private final ApplicationEventPublisher eventPublisher;
+    private final HotCartStore cartStore;
+    private final StockReservationLedger reservations;
+    private final ConflictRetrier conflictRetrier;
+    private final PlatformTransactionManager transactionManager;
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // The cart flush commits first; only the checkout is transactional
     public OrderResponseDto placeOrder(OrderRequestDto request) {
 
+        // 0. Write back pending in-memory cart changes before the cart is read. It commits before the
+        //    checkout transaction begins, so a checkout never holds two pooled connections at once
+        cartStore.flush(request.getUserId());
+
+        // Read committed: a striped bucket take that misses keeps no lock on that bucket (see StripedStock)
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+
+        // Re-runs the whole checkout transaction on deadlocks / version conflicts
+        return conflictRetrier.execute("OrderService.placeOrder",
+                () -> transaction.execute(status -> checkout(request)));
+    }
+
+    private OrderResponseDto checkout(OrderRequestDto request) {
         // 1. Validate User
         User user = userRepository.findById(request.getUserId())
                 .orElseThrow(() -> new EntityNotFoundException("User not found"));
 
         // 2. Validate Cart
-        Cart cart = cartRepository.findByUserId(request.getUserId())
+        Cart cart = cartRepository.findWithItemsByUserId(request.getUserId())
                 .orElseThrow(() -> new EntityNotFoundException("Cart not found"));
 
         if (cart.getCartItems().isEmpty()) {
@@ -48,21 +87,28 @@ public class OrderServiceImpl implements OrderService {
                 .build();
 
         double calculatedTotal = 0.0;
+        List<StockDeduction> deductions = new ArrayList<>();
+        Map<Long, Integer> stripedBuckets = new HashMap<>();
 
-        // 4. Process Items & Deduct Stock
+        // Other carts' holds on every product in the cart, in one lookup
+        Map<Long, Integer> available = reservations.availableTo(user.getId(), cart.getCartItems().stream()
+                .map(CartItem::getProduct)
+                .collect(Collectors.toMap(Product::getId, Product::currentStock, (first, second) -> first)));
+
+        // 4. Process Items
         for (CartItem cartItem : cart.getCartItems()) {
             Product product = cartItem.getProduct();
 
-            // A. Stock Check
-            if (product.getStock() < cartItem.getQuantity()) {
+            // A. Stock Check (other carts' holds are not ours to take); the deduction below re-checks atomically
+            if (available.get(product.getId()) < cartItem.getQuantity()) {
                 throw new IllegalArgumentException("Insufficient stock for product: " + product.getName());
             }
+            deductions.add(new StockDeduction(product.getId(), cartItem.getQuantity()));
+            if (product.getStockBuckets() > 0) {
+                stripedBuckets.put(product.getId(), product.getStockBuckets());
+            }
 
-            // B. Deduct Stock
-            product.setStock(product.getStock() - cartItem.getQuantity());
-            productRepository.save(product);
-
-            // C. Create Order Item
+            // B. Create Order Item
             OrderItem orderItem = OrderItem.builder()
                     .order(order)
                     .product(product)
@@ -75,14 +121,40 @@ public class OrderServiceImpl implements OrderService {
             calculatedTotal += cartItem.getTotalPrice();
         }
 
+        // C. Deduct Stock: guarded UPDATEs in one batch; a row that didn't change means another
+        // checkout got there first, and the exception rolls back every deduction made so far.
+        // Striped products take from one random bucket row each instead (after the batch, in id order)
+        List<StockDeduction> failed = new ArrayList<>(stockWriteRepository.decrement(deductions.stream()
+                .filter(deduction -> !stripedBuckets.containsKey(deduction.productId()))
+                .toList()));
+        for (StockDeduction deduction : deductions.stream()
+                .filter(deduction -> stripedBuckets.containsKey(deduction.productId()))
+                .sorted(Comparator.comparing(StockDeduction::productId))
+                .toList()) {
+            if (!stripedStock.take(deduction.productId(), stripedBuckets.get(deduction.productId()), deduction.quantity())) {
+                failed.add(deduction);
+                break;
+            }
+        }
+        if (!failed.isEmpty()) {
+            Long productId = failed.get(0).productId();
+            String name = cart.getCartItems().stream()
+                    .filter(item -> item.getProduct().getId().equals(productId))
+                    .map(item -> item.getProduct().getName())
+                    .findFirst().orElse(String.valueOf(productId));
+            throw new IllegalArgumentException("Insufficient stock for product: " + name);
+        }
+        deductions.forEach(deduction -> eventPublisher.publishEvent(ProductChangedEvent.stockChanged(deduction.productId())));
+
         order.setTotalAmount(calculatedTotal);
 
         // 5. Save Order
         Order savedOrder = orderRepository.save(order);
 
-        // 6. Clear Cart
-        cart.getCartItems().clear();
-        cartRepository.save(cart);
+        // 6. Clear Cart (one bulk DELETE) and drop the holds: the deduction replaces them, atomically
+        cartItemRepository.deleteByCartId(cart.getId());
+        reservations.releaseAll(request.getUserId());
+        releaseCartAfterCommit(request.getUserId());
 
         return mapToResponse(savedOrder);
     }
@@ -101,6 +173,16 @@ public class OrderServiceImpl implements OrderService {
                 .collect(Collectors.toList());
     }
 
+    // The cart rows were emptied here, so the in-memory copy is dropped and reloaded on next access
+    private void releaseCartAfterCommit(Long userId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                cartStore.evict(userId);
+            }
+        });
+    }
+
     private OrderResponseDto mapToResponse(Order order) {
         return OrderResponseDto.builder()
                 .orderId(order.getId())
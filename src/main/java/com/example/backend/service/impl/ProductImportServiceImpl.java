@@ -0,0 +1,309 @@
+package com.example.backend.service.impl;
+
+import com.example.backend.cache.ReferenceDataCache;
+import com.example.backend.dto.BulkImportResultDto;
+import com.example.backend.dto.BulkImportRowErrorDto;
+import com.example.backend.dto.ProductImportRowDto;
+import com.example.backend.dto.ProductResponseDto;
+import com.example.backend.event.ProductChangedEvent;
+import com.example.backend.exception.InvalidImportFileException;
+import com.example.backend.repository.ProductImportRepository;
+import com.example.backend.service.ProductImportService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Streams the upload line by line, validates each row against the cached reference data and
+ * writes valid rows in fixed-size JDBC batches, one transaction per chunk. A bad row is reported
+ * and skipped; if a whole chunk is rejected by the database it is retried row by row so only the
+ * offending rows fail.
+ */
+@Service
+public class ProductImportServiceImpl implements ProductImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductImportServiceImpl.class);
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    private static final List<String> CSV_COLUMNS =
+            List.of("name", "description", "price", "stock", "categoryId", "sellerId", "regionId", "imageUrls");
+
+    private final ProductImportRepository productImportRepository;
+    private final ReferenceDataCache referenceDataCache;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+
+    public ProductImportServiceImpl(ProductImportRepository productImportRepository,
+                                    ReferenceDataCache referenceDataCache,
+                                    Validator validator,
+                                    ObjectMapper objectMapper,
+                                    TransactionTemplate transactionTemplate,
+                                    ApplicationEventPublisher eventPublisher,
+                                    @Value("${catalog.import.batch-size:500}") int batchSize) {
+        this.productImportRepository = productImportRepository;
+        this.referenceDataCache = referenceDataCache;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = batchSize;
+    }
+
+    // A validated row plus the reference names resolved while validating (reused for the event snapshot)
+    private record PendingRow(int row, ProductImportRowDto product,
+                              String categoryName, String sellerName, String regionName) {
+    }
+
+    @Override
+    public BulkImportResultDto importProducts(InputStream input, Format format) {
+        long start = System.currentTimeMillis();
+        BulkImportResultDto result = BulkImportResultDto.builder().build();
+        List<PendingRow> chunk = new ArrayList<>(batchSize);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            Map<String, Integer> header = null;
+            int lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) continue;
+
+                if (format == Format.CSV && header == null) {
+                    header = parseHeader(line, lineNumber);
+                    continue;
+                }
+
+                result.setTotalRows(result.getTotalRows() + 1);
+                try {
+                    ProductImportRowDto product = format == Format.CSV ? parseCsvRow(line, header) : parseJsonRow(line);
+                    chunk.add(validate(lineNumber, product));
+                } catch (IllegalArgumentException | EntityNotFoundException e) {
+                    reject(result, lineNumber, e.getMessage());
+                }
+
+                if (chunk.size() >= batchSize) {
+                    flush(chunk, result);
+                    chunk.clear();
+                }
+            }
+            flush(chunk, result);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read import file", e);
+        }
+
+        logger.info("Bulk import finished: {} rows, {} imported, {} failed in {} ms",
+                result.getTotalRows(), result.getImported(), result.getFailed(), System.currentTimeMillis() - start);
+        return result;
+    }
+
+    // --- Parsing ---
+
+    // A bad header makes every row unreadable, so it rejects the whole file (400) naming the column
+    private Map<String, Integer> parseHeader(String line, int lineNumber) {
+        Set<String> known = CSV_COLUMNS.stream().map(String::toLowerCase).collect(Collectors.toSet());
+        List<String> columns = splitCsv(line);
+        Map<String, Integer> header = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            String column = columns.get(i).trim();
+            if (!known.contains(column.toLowerCase())) {
+                throw invalidHeader(lineNumber, "has unknown column '" + column + "'");
+            }
+            if (header.put(column.toLowerCase(), i) != null) {
+                throw invalidHeader(lineNumber, "repeats column '" + column + "'");
+            }
+        }
+        for (String required : List.of("name", "price", "categoryId", "sellerId", "regionId")) {
+            if (!header.containsKey(required.toLowerCase())) {
+                throw invalidHeader(lineNumber, "is missing column '" + required + "'");
+            }
+        }
+        return header;
+    }
+
+    private static InvalidImportFileException invalidHeader(int lineNumber, String problem) {
+        return new InvalidImportFileException(lineNumber,
+                "CSV header " + problem + ". Expected: " + String.join(",", CSV_COLUMNS));
+    }
+
+    private ProductImportRowDto parseCsvRow(String line, Map<String, Integer> header) {
+        List<String> values = splitCsv(line);
+        String images = column(values, header, "imageUrls");
+        return ProductImportRowDto.builder()
+                .name(column(values, header, "name"))
+                .description(column(values, header, "description"))
+                .price(parseNumber(column(values, header, "price"), "price", Double::valueOf))
+                .stock(parseNumber(column(values, header, "stock"), "stock", Integer::valueOf, 0))
+                .categoryId(parseNumber(column(values, header, "categoryId"), "categoryId", Long::valueOf))
+                .sellerId(parseNumber(column(values, header, "sellerId"), "sellerId", Long::valueOf))
+                .regionId(parseNumber(column(values, header, "regionId"), "regionId", Long::valueOf))
+                .imageUrls(images == null ? new ArrayList<>() : Arrays.stream(images.split("\\|"))
+                        .map(String::trim)
+                        .filter(url -> !url.isEmpty())
+                        .collect(Collectors.toCollection(ArrayList::new)))
+                .build();
+    }
+
+    private ProductImportRowDto parseJsonRow(String line) {
+        try {
+            ProductImportRowDto product = objectMapper.readValue(line, ProductImportRowDto.class);
+            if (product.getImageUrls() == null) {
+                product.setImageUrls(new ArrayList<>());
+            }
+            return product;
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+        }
+    }
+
+    private static String column(List<String> values, Map<String, Integer> header, String name) {
+        Integer index = header.get(name.toLowerCase());
+        if (index == null || index >= values.size()) return null;
+        String value = values.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static <T> T parseNumber(String value, String field, Function<String, T> parser) {
+        return parseNumber(value, field, parser, null);
+    }
+
+    private static <T> T parseNumber(String value, String field, Function<String, T> parser, T fallback) {
+        if (value == null) return fallback;
+        try {
+            return parser.apply(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + field + ": " + value);
+        }
+    }
+
+    // RFC 4180 style: commas inside double quotes, "" for a literal quote (single-line records only)
+    private static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    // --- Validation (bean constraints, then cached FK checks) ---
+
+    private PendingRow validate(int lineNumber, ProductImportRowDto product) {
+        Set<ConstraintViolation<ProductImportRowDto>> violations = validator.validate(product);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        return new PendingRow(lineNumber, product,
+                referenceDataCache.requireCategory(product.getCategoryId()),
+                referenceDataCache.requireSeller(product.getSellerId()),
+                referenceDataCache.requireRegion(product.getRegionId()));
+    }
+
+    // --- Writing ---
+
+    private void flush(List<PendingRow> chunk, BulkImportResultDto result) {
+        if (chunk.isEmpty()) return;
+        try {
+            insert(chunk);
+            result.setImported(result.getImported() + chunk.size());
+        } catch (DataAccessException e) {
+            logger.warn("Import batch of {} rows rejected ({}); retrying row by row",
+                    chunk.size(), NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            for (PendingRow row : chunk) {
+                try {
+                    insert(List.of(row));
+                    result.setImported(result.getImported() + 1);
+                } catch (DataAccessException rowError) {
+                    reject(result, row.row(), NestedExceptionUtils.getMostSpecificCause(rowError).getMessage());
+                }
+            }
+        }
+    }
+
+    private void insert(List<PendingRow> rows) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<ProductImportRowDto> products = rows.stream().map(PendingRow::product).toList();
+            List<Long> ids = productImportRepository.insertProducts(products);
+            productImportRepository.insertImages(ids, products);
+
+            // Published inside the transaction so listeners only see committed chunks
+            for (int i = 0; i < rows.size(); i++) {
+                eventPublisher.publishEvent(ProductChangedEvent.upserted(snapshot(ids.get(i), rows.get(i))));
+            }
+        });
+    }
+
+    private static ProductResponseDto snapshot(Long id, PendingRow row) {
+        ProductImportRowDto product = row.product();
+        return ProductResponseDto.builder()
+                .id(id)
+                .name(product.getName())
+                .description(product.getDescription())
+                .price(product.getPrice())
+                .stock(product.getStock())
+                .categoryId(product.getCategoryId())
+                .categoryName(row.categoryName())
+                .sellerId(product.getSellerId())
+                .sellerName(row.sellerName())
+                .regionId(product.getRegionId())
+                .regionName(row.regionName())
+                .imageUrls(new ArrayList<>(product.getImageUrls()))
+                .version(0L)
+                .build();
+    }
+
+    private static void reject(BulkImportResultDto result, int row, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new BulkImportRowErrorDto(row, message));
+        }
+    }
+}
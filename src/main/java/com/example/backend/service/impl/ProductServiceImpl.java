@@ -1,24 +1,64 @@
 package com.example.backend.service.impl;
 
 import com.example.backend.adapter.ProductAdapter;
+import com.example.backend.cache.ProductDetailCache;
+import com.example.backend.cache.ReferenceDataCache;
+import com.example.backend.dto.CatalogBrowseResponseDto;
+import com.example.backend.dto.FacetCountDto;
+import com.example.backend.dto.PriceBucketCountDto;
+import com.example.backend.dto.ProductCursor;
+import com.example.backend.dto.ProductCursorPageDto;
+import com.example.backend.dto.ProductFilterDto;
 import com.example.backend.dto.ProductRequestDto;
 import com.example.backend.dto.ProductResponseDto;
+import com.example.backend.dto.StockBucketsDto;
+import com.example.backend.event.ProductChangedEvent;
+import com.example.backend.exception.ConcurrentUpdateException;
+import com.example.backend.images.DeduplicatingImageStorage;
+import com.example.backend.images.ImageUploadQueue;
+import com.example.backend.images.ImageVariantGenerator;
+import com.example.backend.inventory.StripedStock;
 import com.example.backend.model.Product;
+import com.example.backend.repository.ProductImageView;
+import com.example.backend.repository.ProductListingView;
 import com.example.backend.repository.ProductRepository;
-import com.example.backend.service.CloudinaryService;
+import com.example.backend.repository.ProductSpecifications;
+import com.example.backend.retry.ConflictRetrier;
+import com.example.backend.retry.RetryOnConflict;
+import com.example.backend.search.CatalogFacetIndex;
+import com.example.backend.search.ProductSearchIndex;
+import com.example.backend.service.ProductImageUploader;
 import com.example.backend.service.ProductService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataAccessException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -26,86 +66,156 @@ import java.util.List;
 public class ProductServiceImpl implements ProductService {
 
     private static final Logger logger = LoggerFactory.getLogger(ProductServiceImpl.class);
+    private static final int MAX_SEEK_PAGE_SIZE = 100;
+    private static final Set<String> FILTER_SORT_PROPERTIES = Set.of("price", "createdAt", "name");
 
     private final ProductRepository productRepository;
     private final ProductAdapter productAdapter;
-    private final CloudinaryService cloudinaryService;
+    private final ProductImageUploader imageUploader;
+    private final ImageUploadQueue imageQueue;
+    private final DeduplicatingImageStorage imageDedupe;
+    private final ImageVariantGenerator variantGenerator;
+    private final TransactionTemplate transactionTemplate;
+    private final ProductSearchIndex searchIndex;
+    private final ProductDetailCache productCache;
+    private final CatalogFacetIndex facetIndex;
+    private final ReferenceDataCache referenceDataCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ConflictRetrier conflictRetrier;
+    private final StripedStock stripedStock;
+
+    // async: images are staged and uploaded by ImageUploadWorker; inline: uploaded before the insert
+    @Value("${catalog.images.processing:async}")
+    private String imageProcessing;
 
     // Note: Seller/Category/Region repos are now used inside the Adapter to keep Service clean.
 
     @Override
-    @Transactional // Write operation
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // Uploads run first; only the insert is transactional
     public ProductResponseDto createProduct(ProductRequestDto dto, List<MultipartFile> files) {
         logger.info("Attempting to create product: {}", dto.getName());
 
+        // 1. Fail fast on bad references before paying for any upload (cached lookups)
+        validateReferences(dto);
+
+        // 2. Images: queue them (async) or upload concurrently (inline), outside the transaction
+        List<ImageUploadQueue.StagedImage> staged = asyncImages() ? imageQueue.stage(files) : List.of();
+        List<String> imageUrls = asyncImages() ? List.of() : imageUploader.uploadAll(files);
+
         try {
-            // 1. Convert DTO to Entity (Adapter handles FK lookups)
-            Product product = productAdapter.toEntity(dto);
-
-            // 2. Upload Images (Multi-image support)
-            if (files != null && !files.isEmpty()) {
-                for (MultipartFile file : files) {
-                    if (!file.isEmpty()) {
-                        String url = cloudinaryService.uploadFile(file);
-                        product.getImageUrls().add(url);
-                    }
-                }
-            }
+            // 3. Convert + Save in a short transaction (Adapter attaches FK proxies)
+            ProductResponseDto response = transactionTemplate.execute(status -> {
+                Product product = productAdapter.toEntity(dto);
+                imageDedupe.appendDistinct(product.getImageUrls(), imageUrls);
+                Product savedProduct = productRepository.save(product);
 
-            // 3. Save
-            Product savedProduct = productRepository.save(product);
+                ProductResponseDto created = productAdapter.toDto(savedProduct);
+                created.setPendingImages(imageQueue.enqueue(savedProduct.getId(), staged));
+                eventPublisher.publishEvent(ProductChangedEvent.upserted(created));
+                return created;
+            });
 
-            logger.info("Product created successfully with ID: {}", savedProduct.getId());
-            return productAdapter.toDto(savedProduct);
+            logger.info("Product created successfully with ID: {}", response.getId());
+            return response;
 
         } catch (DataAccessException e) {
+            discardImages(imageUrls, staged);
             logger.error("Database error creating product: {}", e.getMessage());
             throw new RuntimeException("Service unavailable. Please try again later.");
         } catch (Exception e) {
+            discardImages(imageUrls, staged);
             logger.error("Unexpected error: {}", e.getMessage());
             throw new RuntimeException("Internal Server Error: " + e.getMessage());
         }
     }
 
     @Override
-    @Transactional // Write operation
+    @Transactional(propagation = Propagation.NOT_SUPPORTED) // Uploads run first; only the update is transactional
     public ProductResponseDto updateProduct(Long id, ProductRequestDto dto, List<MultipartFile> files) {
         logger.info("Attempting to update product ID: {}", id);
 
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException("Product not found with ID: " + id));
+        if (!productRepository.existsById(id)) {
+            throw new EntityNotFoundException("Product not found with ID: " + id);
+        }
+        validateReferences(dto);
+
+        // 1. New Images: queue them (async) or upload concurrently (inline), outside the transaction
+        List<ImageUploadQueue.StagedImage> staged = asyncImages() ? imageQueue.stage(files) : List.of();
+        List<String> imageUrls = asyncImages() ? List.of() : imageUploader.uploadAll(files);
 
         try {
-            // 1. Update Basic Fields via Adapter
-            productAdapter.updateEntity(product, dto);
-
-            // 2. Handle New Images (Append to existing list)
-            if (files != null && !files.isEmpty()) {
-                for (MultipartFile file : files) {
-                    if (!file.isEmpty()) {
-                        String url = cloudinaryService.uploadFile(file);
-                        product.getImageUrls().add(url);
-                    }
+            // Only the transaction is retried on a version conflict; the images are prepared once
+            ProductResponseDto response = conflictRetrier.execute("ProductService.updateProduct", () -> transactionTemplate.execute(status -> {
+                Product product = productRepository.findById(id)
+                        .orElseThrow(() -> new EntityNotFoundException("Product not found with ID: " + id));
+
+                // 2. Update Basic Fields via Adapter, append new images
+                productAdapter.updateEntity(product, dto);
+                imageDedupe.appendDistinct(product.getImageUrls(), imageUrls);
+                int stock = product.getStock();
+                if (product.getStockBuckets() > 0) {
+                    product.setStock(0); // Striped: the buckets hold it
+                }
+
+                // 3. Save (Optimistic locking @Version is handled automatically by JPA here)
+                Product savedProduct = productRepository.saveAndFlush(product);
+                if (savedProduct.getStockBuckets() > 0) {
+                    stripedStock.restock(savedProduct, stock); // After the row, same lock order as resize
                 }
-            }
 
-            // 3. Save (Optimistic locking @Version is handled automatically by JPA here)
-            Product savedProduct = productRepository.save(product);
+                imageQueue.enqueue(id, staged);
+                ProductResponseDto updated = productAdapter.toDto(savedProduct);
+                updated.setPendingImages(imageQueue.pendingFor(id));
+                eventPublisher.publishEvent(ProductChangedEvent.upserted(updated));
+                return updated;
+            }));
 
-            logger.info("Product updated successfully: {}", savedProduct.getId());
-            return productAdapter.toDto(savedProduct);
+            logger.info("Product updated successfully: {}", id);
+            return response;
 
+        } catch (ConcurrentUpdateException e) {
+            discardImages(imageUrls, staged);
+            throw e; // 409: retries exhausted, the client can try again
         } catch (Exception e) {
+            discardImages(imageUrls, staged);
             logger.error("Error updating product ID {}: {}", id, e.getMessage());
             throw new RuntimeException("Failed to update product.");
         }
     }
 
+    private boolean asyncImages() {
+        return !"inline".equalsIgnoreCase(imageProcessing);
+    }
+
+    // The write never committed: nothing references these images
+    private void discardImages(List<String> uploadedUrls, List<ImageUploadQueue.StagedImage> staged) {
+        imageUploader.discard(uploadedUrls);
+        imageQueue.discard(staged);
+    }
+
+    // The only FK check for product writes; the adapter then just attaches proxies
+    private void validateReferences(ProductRequestDto dto) {
+        referenceDataCache.requireCategory(dto.getCategoryId());
+        referenceDataCache.requireSeller(dto.getSellerId());
+        referenceDataCache.requireRegion(dto.getRegionId());
+    }
+
     @Override
     public ProductResponseDto getProduct(Long id) {
-        return productRepository.findById(id)
-                .map(productAdapter::toDto)
-                .orElseThrow(() -> new EntityNotFoundException("Product not found with ID: " + id));
+        // Cache hits cost one version lookup instead of the full load + lazy associations
+        return productCache.get(id,
+                () -> productRepository.findVersionById(id),
+                () -> productRepository.findDetailById(id)
+                        .map(product -> {
+                            ProductResponseDto detail = productAdapter.toDto(product);
+                            detail.setPendingImages(imageQueue.pendingFor(id));
+                            detail.setImageVariants(variantGenerator.variantsFor(detail.getImageUrls()));
+                            detail.setThumbnailUrl(detail.getImageVariants().stream().findFirst()
+                                    .map(image -> image.getThumbnail() != null ? image.getThumbnail() : image.getOriginal())
+                                    .orElse(null));
+                            return new ProductDetailCache.VersionedProduct(detail, product.currentVersion());
+                        })
+                        .orElseThrow(() -> new EntityNotFoundException("Product not found with ID: " + id)));
     }
 
     @Override
@@ -116,6 +226,8 @@ public class ProductServiceImpl implements ProductService {
         }
         try {
             productRepository.deleteById(id);
+            stripedStock.remove(id);
+            eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
             logger.info("Product ID {} deleted successfully.", id);
         } catch (DataAccessException e) {
             logger.error("Database error deleting product: {}", e.getMessage());
@@ -123,29 +235,244 @@ public class ProductServiceImpl implements ProductService {
         }
     }
 
+    @Override
+    public StockBucketsDto getStockBuckets(Long id) {
+        Product product = productRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException("Product not found with ID: " + id));
+        return StockBucketsDto.builder()
+                .productId(id)
+                .buckets(product.getStockBuckets())
+                .stock(product.currentStock())
+                .bucketStock(stripedStock.bucketStock(id))
+                .build();
+    }
+
+    @Override
+    @Transactional
+    @RetryOnConflict // Locks the row and every bucket; may deadlock with a checkout's rebalance
+    public StockBucketsDto setStockBuckets(Long id, int buckets) {
+        stripedStock.resize(id, buckets);
+        eventPublisher.publishEvent(ProductChangedEvent.stockChanged(id));
+        return getStockBuckets(id);
+    }
+
     // --- Pagination & Search Methods ---
+    // Listings use flat projections + one batched image query, so each page costs a fixed
+    // number of statements (rows, count, images) regardless of page size.
 
     @Override
     public Page<ProductResponseDto> getAllProducts(Pageable pageable) {
-        return productRepository.findAll(pageable)
-                .map(productAdapter::toDto);
+        return toListingPage(productRepository.findAllListings(pageable));
     }
 
     @Override
     public Page<ProductResponseDto> getProductsByCategory(Long categoryId, Pageable pageable) {
-        return productRepository.findByCategoryId(categoryId, pageable)
-                .map(productAdapter::toDto);
+        return toListingPage(productRepository.findListingsByCategoryId(categoryId, pageable));
     }
 
     @Override
     public Page<ProductResponseDto> getProductsByRegion(Long regionId, Pageable pageable) {
-        return productRepository.findByRegionId(regionId, pageable)
-                .map(productAdapter::toDto);
+        return toListingPage(productRepository.findListingsByRegionId(regionId, pageable));
     }
 
     @Override
     public Page<ProductResponseDto> searchProductsByName(String name, Pageable pageable) {
-        return productRepository.findByNameContainingIgnoreCase(name, pageable)
-                .map(productAdapter::toDto);
+        if (!searchIndex.canServe(name)) {
+            // Index still building (or nothing tokenizable in the query): use the LIKE query
+            return toListingPage(productRepository.searchListingsByName(name, pageable));
+        }
+
+        // Relevance order comes from the index; the DB only loads the rows for this page
+        List<Long> rankedIds = searchIndex.search(name);
+        int from = (int) Math.min(pageable.getOffset(), rankedIds.size());
+        int to = Math.min(from + pageable.getPageSize(), rankedIds.size());
+
+        return new PageImpl<>(loadListingsInOrder(rankedIds.subList(from, to)), pageable, rankedIds.size());
+    }
+
+    // --- Multi-criteria Filter ---
+
+    @Override
+    public Page<ProductResponseDto> filterProducts(ProductFilterDto filter, Pageable pageable) {
+        validateFilterSort(pageable);
+
+        Specification<Product> criteria = listingCriteria(filter.getCategoryId(), filter.getRegionId(),
+                filter.getSellerId(), filter.getMinPrice(), filter.getMaxPrice(), filter.isInStockOnly());
+
+        // Rows (with fetched associations) + count + one batched image query
+        Page<Product> products = productRepository.findAll(criteria, pageable);
+        Map<Long, String> thumbnails = loadThumbnails(
+                products.getContent().stream().map(Product::getId).collect(Collectors.toList()));
+
+        return products.map(product -> productAdapter.toListingDto(product, thumbnails.get(product.getId())));
+    }
+
+    // --- Catalog Browse ---
+
+    @Override
+    public CatalogBrowseResponseDto browseCatalog(Long categoryId, Long regionId, Double minPrice, Double maxPrice,
+                                                  Pageable pageable) {
+        validateFilterSort(pageable);
+
+        // Counts (and the page total) come from the in-memory aggregate, not GROUP BY / COUNT scans.
+        // The total is eventually consistent with the rows (see CatalogFacetIndex).
+        CatalogFacetIndex.FacetCounts counts = facetIndex.count(categoryId, regionId, minPrice, maxPrice);
+
+        // Same indexed Specifications as the filter endpoint, fetched as a slice (no count query)
+        Specification<Product> criteria = listingCriteria(categoryId, regionId, null, minPrice, maxPrice, false);
+        Slice<Product> rows = productRepository.findBy(criteria, query -> query.slice(pageable));
+        Map<Long, String> thumbnails = loadThumbnails(
+                rows.getContent().stream().map(Product::getId).collect(Collectors.toList()));
+        List<ProductResponseDto> content = rows.getContent().stream()
+                .map(product -> productAdapter.toListingDto(product, thumbnails.get(product.getId())))
+                .collect(Collectors.toList());
+
+        return CatalogBrowseResponseDto.builder()
+                .products(new PageImpl<>(content, pageable, counts.total()))
+                .categories(toFacetCounts(counts.categories(), referenceDataCache::categoryName))
+                .regions(toFacetCounts(counts.regions(), referenceDataCache::regionName))
+                .priceRanges(toPriceBuckets(counts.priceBuckets()))
+                .build();
+    }
+
+    // --- Keyset (cursor) Pagination ---
+
+    @Override
+    public ProductCursorPageDto getAllProductsAfter(String cursor, int size) {
+        return seek(cursor, size,
+                productRepository::findFirstListings,
+                (after, limit) -> productRepository.findListingsAfter(after.createdAt(), after.id(), limit));
+    }
+
+    @Override
+    public ProductCursorPageDto getProductsByCategoryAfter(Long categoryId, String cursor, int size) {
+        return seek(cursor, size,
+                limit -> productRepository.findFirstListingsByCategoryId(categoryId, limit),
+                (after, limit) -> productRepository.findListingsByCategoryIdAfter(
+                        categoryId, after.createdAt(), after.id(), limit));
+    }
+
+    @Override
+    public ProductCursorPageDto getProductsByRegionAfter(Long regionId, String cursor, int size) {
+        return seek(cursor, size,
+                limit -> productRepository.findFirstListingsByRegionId(regionId, limit),
+                (after, limit) -> productRepository.findListingsByRegionIdAfter(
+                        regionId, after.createdAt(), after.id(), limit));
+    }
+
+    // --- Helper Methods ---
+
+    private static void validateFilterSort(Pageable pageable) {
+        for (Sort.Order order : pageable.getSort()) {
+            if (!FILTER_SORT_PROPERTIES.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Unsupported sort property: " + order.getProperty());
+            }
+        }
+    }
+
+    // Each predicate lines up with a composite index on products; null filters are left out
+    private static Specification<Product> listingCriteria(Long categoryId, Long regionId, Long sellerId,
+                                                          Double minPrice, Double maxPrice, boolean inStockOnly) {
+        List<Specification<Product>> criteria = new ArrayList<>();
+        criteria.add(ProductSpecifications.fetchListingAssociations());
+        if (categoryId != null) criteria.add(ProductSpecifications.hasCategory(categoryId));
+        if (regionId != null) criteria.add(ProductSpecifications.hasRegion(regionId));
+        if (sellerId != null) criteria.add(ProductSpecifications.hasSeller(sellerId));
+        if (minPrice != null) criteria.add(ProductSpecifications.priceAtLeast(minPrice));
+        if (maxPrice != null) criteria.add(ProductSpecifications.priceAtMost(maxPrice));
+        if (inStockOnly) criteria.add(ProductSpecifications.inStock());
+        return Specification.allOf(criteria);
+    }
+
+    private ProductCursorPageDto seek(String cursor, int size,
+                                      Function<Pageable, List<ProductListingView>> firstPage,
+                                      BiFunction<ProductCursor, Pageable, List<ProductListingView>> nextPage) {
+        int pageSize = Math.max(1, Math.min(size, MAX_SEEK_PAGE_SIZE));
+        Pageable limit = PageRequest.of(0, pageSize + 1); // One extra row tells us whether a next page exists
+
+        List<ProductListingView> rows = (cursor == null || cursor.isBlank())
+                ? firstPage.apply(limit)
+                : nextPage.apply(ProductCursor.decode(cursor), limit);
+
+        boolean hasNext = rows.size() > pageSize;
+        List<ProductListingView> pageRows = hasNext ? rows.subList(0, pageSize) : rows;
+
+        Map<Long, String> thumbnails = loadThumbnails(
+                pageRows.stream().map(ProductListingView::getId).collect(Collectors.toList()));
+
+        List<ProductResponseDto> items = pageRows.stream()
+                .map(view -> productAdapter.toListingDto(view, thumbnails.get(view.getId())))
+                .collect(Collectors.toList());
+
+        String nextCursor = null;
+        if (hasNext) {
+            ProductListingView last = pageRows.get(pageRows.size() - 1);
+            nextCursor = new ProductCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return ProductCursorPageDto.builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .size(items.size())
+                .build();
+    }
+
+    private Page<ProductResponseDto> toListingPage(Page<ProductListingView> listings) {
+        Map<Long, String> thumbnails = loadThumbnails(
+                listings.getContent().stream().map(ProductListingView::getId).collect(Collectors.toList()));
+
+        return listings.map(view -> productAdapter.toListingDto(view, thumbnails.get(view.getId())));
+    }
+
+    private List<FacetCountDto> toFacetCounts(Map<Long, Long> counts, Function<Long, Optional<String>> names) {
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<Long, Long>comparingByValue().reversed())
+                .map(entry -> FacetCountDto.builder()
+                        .id(entry.getKey())
+                        .name(names.apply(entry.getKey()).orElse("N/A"))
+                        .count(entry.getValue())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private List<PriceBucketCountDto> toPriceBuckets(long[] bucketCounts) {
+        double[] boundaries = facetIndex.priceBoundaries();
+        List<PriceBucketCountDto> buckets = new ArrayList<>();
+        for (int i = 0; i < bucketCounts.length; i++) {
+            buckets.add(PriceBucketCountDto.builder()
+                    .min(i == 0 ? null : boundaries[i - 1])
+                    .max(i == boundaries.length ? null : boundaries[i])
+                    .count(bucketCounts[i])
+                    .build());
+        }
+        return buckets;
+    }
+
+    private List<ProductResponseDto> loadListingsInOrder(List<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, ProductListingView> rowsById = productRepository.findListingsByIdIn(productIds).stream()
+                .collect(Collectors.toMap(ProductListingView::getId, Function.identity()));
+        Map<Long, String> thumbnails = loadThumbnails(productIds);
+
+        return productIds.stream()
+                .filter(rowsById::containsKey) // Deleted since the index was read
+                .map(id -> productAdapter.toListingDto(rowsById.get(id), thumbnails.get(id)))
+                .collect(Collectors.toList());
+    }
+
+    // Primary (first) image per product -> its thumbnail, or the original while the thumbnail is pending
+    private Map<Long, String> loadThumbnails(List<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Long, String> thumbnails = new HashMap<>();
+        for (ProductImageView image : productRepository.findPrimaryImagesByProductIds(productIds)) {
+            thumbnails.put(image.getProductId(),
+                    image.getThumbnailUrl() != null ? image.getThumbnailUrl() : image.getImageUrl());
+        }
+        return thumbnails;
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.example.backend.service.impl;
 
+import com.example.backend.cache.ReferenceDataCache;
 import com.example.backend.dto.RegionRequestDto;
 import com.example.backend.dto.RegionResponseDto;
 import com.example.backend.model.Region;
@@ -23,6 +24,7 @@ public class RegionServiceImpl implements RegionService {
 
     private static final Logger logger = LoggerFactory.getLogger(RegionServiceImpl.class);
     private final RegionRepository regionRepository;
+    private final ReferenceDataCache referenceDataCache;
 
     @Override
     @Transactional
@@ -44,6 +46,7 @@ public class RegionServiceImpl implements RegionService {
                 .build();
 
         Region saved = regionRepository.save(region);
+        referenceDataCache.regionSaved(saved);
         logger.info("Region created successfully with ID: {}", saved.getId());
 
         return mapToDto(saved);
@@ -64,6 +67,11 @@ public class RegionServiceImpl implements RegionService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public String getCatalogVersion() {
+        return regionRepository.findCatalogVersion().toVersion();
+    }
+
     @Override
     @Transactional
     public RegionResponseDto updateRegion(Long id, RegionRequestDto request) {
@@ -85,6 +93,7 @@ public class RegionServiceImpl implements RegionService {
         region.setDescription(request.getDescription());
 
         Region updated = regionRepository.save(region);
+        referenceDataCache.regionSaved(updated);
         logger.info("Region updated successfully: {}", id);
 
         return mapToDto(updated);
@@ -98,6 +107,7 @@ public class RegionServiceImpl implements RegionService {
             throw new EntityNotFoundException("Cannot delete. Region not found with ID: " + id);
         }
         regionRepository.deleteById(id);
+        referenceDataCache.regionDeleted(id);
         logger.info("Region deleted successfully");
     }
 
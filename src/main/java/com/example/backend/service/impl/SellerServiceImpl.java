@@ -1,5 +1,6 @@
 package com.example.backend.service.impl;
 
+import com.example.backend.cache.ReferenceDataCache;
 import com.example.backend.dto.SellerRequestDto;
 import com.example.backend.dto.SellerResponseDto;
 import com.example.backend.model.Seller;
@@ -22,6 +23,7 @@ public class SellerServiceImpl implements SellerService {
 
     private static final Logger logger = LoggerFactory.getLogger(SellerServiceImpl.class);
     private final SellerRepository sellerRepository;
+    private final ReferenceDataCache referenceDataCache;
 
     @Override
     @Transactional
@@ -48,6 +50,7 @@ public class SellerServiceImpl implements SellerService {
                 .build();
 
         Seller saved = sellerRepository.save(seller);
+        referenceDataCache.sellerSaved(saved);
         logger.info("Seller registered successfully with ID: {}", saved.getId());
 
         return mapToDto(saved);
@@ -97,6 +100,7 @@ public class SellerServiceImpl implements SellerService {
         }
 
         Seller updated = sellerRepository.save(seller);
+        referenceDataCache.sellerSaved(updated);
         return mapToDto(updated);
     }
 
@@ -107,6 +111,7 @@ public class SellerServiceImpl implements SellerService {
             throw new EntityNotFoundException("Cannot delete. Seller not found with ID: " + id);
         }
         sellerRepository.deleteById(id);
+        referenceDataCache.sellerDeleted(id);
         logger.info("Seller ID {} deleted successfully", id);
     }
 
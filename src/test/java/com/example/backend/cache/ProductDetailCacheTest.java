@@ -0,0 +1,102 @@
+package com.example.backend.cache;
+
+import com.example.backend.dto.ProductResponseDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductDetailCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+    private final AtomicLong version = new AtomicLong(1);
+
+    @Test
+    void servesHitsWhileVersionIsUnchanged() {
+        ProductDetailCache cache = new ProductDetailCache(10, 60);
+
+        cache.get(1L, this::currentVersion, this::load);
+        cache.get(1L, this::currentVersion, this::load);
+
+        assertThat(loads).hasValue(1);
+        assertThat(cache.stats().getHits()).isEqualTo(1);
+        assertThat(cache.stats().getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    void neverServesAnEntryOlderThanTheRowVersion() {
+        ProductDetailCache cache = new ProductDetailCache(10, 60);
+        cache.get(1L, this::currentVersion, this::load);
+
+        version.incrementAndGet(); // A write committed elsewhere
+
+        ProductResponseDto fresh = cache.get(1L, this::currentVersion, this::load);
+        assertThat(fresh.getName()).isEqualTo("v2");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondMaxSize() {
+        ProductDetailCache cache = new ProductDetailCache(2, 60);
+        cache.get(1L, this::currentVersion, this::load);
+        cache.get(2L, this::currentVersion, this::load);
+        cache.get(3L, this::currentVersion, this::load);
+
+        assertThat(cache.stats().getSize()).isEqualTo(2);
+        assertThat(cache.stats().getEvictions()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        ProductDetailCache cache = new ProductDetailCache(10, 60);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<ProductResponseDto>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                results.add(pool.submit(() -> cache.get(7L, this::currentVersion, () -> {
+                    await(release);
+                    return load();
+                })));
+            }
+            Thread.sleep(100); // Let every caller reach the in-flight load
+            release.countDown();
+
+            for (Future<ProductResponseDto> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS).getName()).isEqualTo("v1");
+            }
+            assertThat(loads).hasValue(1);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private Optional<Long> currentVersion() {
+        return Optional.of(version.get());
+    }
+
+    private ProductDetailCache.VersionedProduct load() {
+        loads.incrementAndGet();
+        long current = version.get();
+        return new ProductDetailCache.VersionedProduct(
+                ProductResponseDto.builder().id(1L).name("v" + current).build(), current);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
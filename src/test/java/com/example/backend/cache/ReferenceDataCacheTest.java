@@ -0,0 +1,199 @@
+package com.example.backend.cache;
+
+import com.example.backend.model.Category;
+import com.example.backend.model.Region;
+import com.example.backend.model.Seller;
+import com.example.backend.repository.CategoryRepository;
+import com.example.backend.repository.RegionRepository;
+import com.example.backend.repository.SellerRepository;
+import jakarta.persistence.EntityNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReferenceDataCacheTest {
+
+    private final CategoryRepository categoryRepository = mock(CategoryRepository.class);
+    private final RegionRepository regionRepository = mock(RegionRepository.class);
+    private final SellerRepository sellerRepository = mock(SellerRepository.class);
+    private final ProductDetailCache productCache = mock(ProductDetailCache.class);
+
+    private ReferenceDataCache cache;
+
+    @BeforeEach
+    void setUp() {
+        when(categoryRepository.findAll()).thenReturn(List.of(category(1L, "Pickles")));
+        when(regionRepository.findAll()).thenReturn(List.of(region(1L, "Bihar")));
+        cache = new ReferenceDataCache(categoryRepository, regionRepository, sellerRepository, productCache, 2);
+        cache.load();
+    }
+
+    @AfterEach
+    void clearSynchronization() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void preloadedReferencesAreHitsWithoutQueries() {
+        assertThat(cache.requireCategory(1L)).isEqualTo("Pickles");
+        assertThat(cache.requireRegion(1L)).isEqualTo("Bihar");
+
+        verify(categoryRepository, never()).findById(1L);
+        verify(regionRepository, never()).findById(1L);
+    }
+
+    @Test
+    void missFallsThroughOnceAndIsRemembered() {
+        when(categoryRepository.findById(2L)).thenReturn(Optional.of(category(2L, "Sweets")));
+
+        assertThat(cache.categoryName(2L)).isEmpty();
+        assertThat(cache.requireCategory(2L)).isEqualTo("Sweets");
+        assertThat(cache.requireCategory(2L)).isEqualTo("Sweets");
+
+        verify(categoryRepository, times(1)).findById(2L);
+        assertThat(cache.categoryName(2L)).contains("Sweets");
+    }
+
+    @Test
+    void unknownReferenceThrowsAndIsNotCached() {
+        when(regionRepository.findById(9L)).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> cache.requireRegion(9L))
+                .isInstanceOf(EntityNotFoundException.class)
+                .hasMessage("Region not found with ID: 9");
+        assertThatThrownBy(() -> cache.requireRegion(9L)).isInstanceOf(EntityNotFoundException.class);
+
+        verify(regionRepository, times(2)).findById(9L);
+    }
+
+    @Test
+    void sellerCacheEvictsTheLeastRecentlyUsed() {
+        for (long id = 1; id <= 3; id++) {
+            when(sellerRepository.findById(id)).thenReturn(Optional.of(seller(id, "Owner " + id)));
+        }
+
+        cache.requireSeller(1L);
+        cache.requireSeller(2L);
+        cache.requireSeller(1L); // 1 is now the most recently used
+        cache.requireSeller(3L); // Over the max size of 2: evicts 2
+
+        assertThat(cache.sellerName(1L)).contains("Owner 1");
+        assertThat(cache.sellerName(2L)).isEmpty();
+        assertThat(cache.sellerName(3L)).contains("Owner 3");
+
+        cache.requireSeller(2L);
+        verify(sellerRepository, times(2)).findById(2L);
+        verify(sellerRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void refreshHooksWaitForTheCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.categorySaved(category(1L, "Achar"));
+        cache.regionDeleted(1L);
+        cache.sellerSaved(seller(5L, "Sita Devi"));
+
+        // Still the committed state while the write is in flight
+        assertThat(cache.categoryName(1L)).contains("Pickles");
+        assertThat(cache.regionName(1L)).contains("Bihar");
+        assertThat(cache.sellerName(5L)).isEmpty();
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(cache.categoryName(1L)).contains("Achar");
+        assertThat(cache.regionName(1L)).isEmpty();
+        assertThat(cache.sellerName(5L)).contains("Sita Devi");
+    }
+
+    @Test
+    void rolledBackWritesNeverReachTheCache() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        cache.categoryDeleted(1L);
+        cache.sellerSaved(seller(5L, "Sita Devi"));
+
+        // Rollback: afterCommit is never invoked
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertThat(cache.categoryName(1L)).contains("Pickles");
+        assertThat(cache.sellerName(5L)).isEmpty();
+    }
+
+    @Test
+    void renamesDropCachedProductDetails() {
+        cache.categorySaved(category(1L, "Pickles")); // Same name: detail views are still right
+        verify(productCache, never()).invalidateAll();
+
+        cache.categorySaved(category(1L, "Achar"));
+        verify(productCache, times(1)).invalidateAll();
+    }
+
+    @Test
+    void refreshHooksApplyImmediatelyOutsideATransaction() {
+        cache.regionSaved(region(2L, "Assam"));
+        cache.sellerSaved(seller(5L, "Sita Devi"));
+        cache.sellerDeleted(5L);
+
+        assertThat(cache.regionName(2L)).contains("Assam");
+        assertThat(cache.sellerName(5L)).isEmpty();
+    }
+
+    @Test
+    void reloadPicksUpWritesMadeOnOtherNodes() {
+        when(sellerRepository.findById(5L)).thenReturn(Optional.of(seller(5L, "Sita Devi")));
+        cache.requireSeller(5L);
+
+        when(categoryRepository.findAll()).thenReturn(List.of(category(1L, "Achar"), category(2L, "Sweets")));
+        when(regionRepository.findAll()).thenReturn(List.of());
+        when(sellerRepository.findAllById(List.of(5L))).thenReturn(List.of(seller(5L, "Sita Kumari")));
+        cache.reload();
+
+        assertThat(cache.categoryName(1L)).contains("Achar");
+        assertThat(cache.categoryName(2L)).contains("Sweets");
+        assertThat(cache.regionName(1L)).isEmpty();
+        assertThat(cache.sellerName(5L)).contains("Sita Kumari");
+        verify(productCache, times(1)).invalidateAll();
+    }
+
+    @Test
+    void reloadWithNothingChangedKeepsCachedProductDetails() {
+        cache.reload();
+
+        assertThat(cache.categoryName(1L)).contains("Pickles");
+        verify(productCache, never()).invalidateAll();
+    }
+
+    private static Category category(Long id, String name) {
+        Category category = Category.builder().name(name).build();
+        category.setId(id);
+        return category;
+    }
+
+    private static Region region(Long id, String name) {
+        Region region = Region.builder().name(name).build();
+        region.setId(id);
+        return region;
+    }
+
+    private static Seller seller(Long id, String ownerName) {
+        return Seller.builder().id(id).ownerName(ownerName).build();
+    }
+}
@@ -0,0 +1,254 @@
+package com.example.backend.cart;
+
+import com.example.backend.dto.CartBatchRequestDto;
+import com.example.backend.dto.CartItemRequestDto;
+import com.example.backend.dto.CartItemResponseDto;
+import com.example.backend.dto.CartOperationDto;
+import com.example.backend.dto.CartResponseDto;
+import com.example.backend.inventory.StockReservationLedger;
+import com.example.backend.model.Cart;
+import com.example.backend.model.CartItem;
+import com.example.backend.model.Category;
+import com.example.backend.model.Product;
+import com.example.backend.model.Region;
+import com.example.backend.model.Seller;
+import com.example.backend.model.User;
+import com.example.backend.repository.CartRepository;
+import com.example.backend.repository.ProductRepository;
+import com.example.backend.repository.UserRepository;
+import com.example.backend.service.CartService;
+import com.example.backend.support.CatalogFixtures;
+import com.example.backend.support.StatementCounter;
+import com.example.backend.support.StatementCountingConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static com.example.backend.dto.CartOperationDto.Type.ADD;
+import static com.example.backend.dto.CartOperationDto.Type.REMOVE;
+import static com.example.backend.dto.CartOperationDto.Type.SET;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The default (memory) cart store answers reads without touching the database and writes changes
+ * back only when flushed. The scheduled flush is effectively off in the test profile.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import({StatementCountingConfig.class, CatalogFixtures.class})
+class HotCartStoreTest {
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private HotCartStore cartStore;
+
+    @Autowired
+    private StockReservationLedger reservations;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CatalogFixtures fixtures;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    private List<Product> products;
+    private Long userId;
+
+    @BeforeEach
+    void seed() {
+        Category category = fixtures.category("Achar");
+        Region region = fixtures.region("Bihar");
+        Seller seller = fixtures.seller("Sita Devi");
+        products = fixtures.products(3, category, seller, region);
+        userId = newUser();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        cartStore.evict(userId);
+        cartRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void mutationsAreServedFromMemoryAndWrittenBackOnFlush() {
+        cartService.getUserCart(userId); // Miss: loads (creates) the cart
+
+        // A mutation costs its product lookup and the stock hold: upsert + guarded total, plus the
+        // total row and a second try on a product's first hold. A read costs nothing
+        count(5, () -> cartService.addItemToCart(userId, item(0, 1)));
+        count(5, () -> cartService.addItemToCart(userId, item(1, 2)));
+        count(3, () -> cartService.addItemToCart(userId, item(0, 2)));
+        CartResponseDto cart = count(0, () -> cartService.getUserCart(userId));
+
+        assertThat(cart.getItems()).hasSize(2);
+        assertThat(line(cart, 0).getQuantity()).isEqualTo(3);
+        assertThat(line(cart, 0).getId()).isEqualTo(-products.get(0).getId()); // No row yet
+        assertThat(storedLines()).isEmpty();
+
+        cartService.removeItem(userId, line(cart, 1).getId());
+        cartStore.flush(userId);
+
+        List<CartItem> rows = storedLines();
+        assertThat(rows).singleElement().satisfies(row -> {
+            assertThat(row.getProduct().getId()).isEqualTo(products.get(0).getId());
+            assertThat(row.getQuantity()).isEqualTo(3);
+            assertThat(row.getTotalPrice()).isEqualTo(3 * products.get(0).getPrice());
+        });
+        assertThat(line(cartService.getUserCart(userId), 0).getId()).isEqualTo(rows.get(0).getId());
+    }
+
+    @Test
+    void clearedCartIsRewrittenOnFlushAndReloadedAfterEviction() {
+        cartService.addItemToCart(userId, item(0, 1));
+        cartService.addItemToCart(userId, item(1, 1));
+        cartStore.flush(userId);
+
+        cartService.clearCart(userId);
+        cartService.addItemToCart(userId, item(2, 4));
+        cartStore.flush(userId);
+
+        assertThat(storedLines()).singleElement()
+                .satisfies(row -> assertThat(row.getProduct().getId()).isEqualTo(products.get(2).getId()));
+
+        // Clean and idle: evicted, then reloaded with one fetch-joined read
+        assertThat(cartStore.evictBefore(System.currentTimeMillis() + 1)).isPositive();
+        CartResponseDto cart = count(1, () -> cartService.getUserCart(userId));
+        assertThat(cart.getItems()).singleElement().satisfies(item -> {
+            assertThat(item.getProductId()).isEqualTo(products.get(2).getId());
+            assertThat(item.getQuantity()).isEqualTo(4);
+        });
+    }
+
+    @Test
+    void batchCostsOneProductQueryAndIsRejectedAsAWhole() {
+        cartService.addItemToCart(userId, item(0, 1));
+
+        // Products + held-by-others lookup + holds (lock, UPDATE, INSERT, guarded totals, total row, again)
+        CartResponseDto cart = count(8, () -> cartService.applyBatch(userId, batch(
+                op(SET, 0, 5), op(ADD, 1, 2), op(ADD, 1, 1), op(ADD, 2, 1), op(REMOVE, 2, 0))));
+        assertThat(cart.getItems()).hasSize(2);
+        assertThat(line(cart, 0).getQuantity()).isEqualTo(5);
+        assertThat(line(cart, 1).getQuantity()).isEqualTo(3);
+
+        // One line over stock rejects the whole batch, including the valid line before it
+        assertThatThrownBy(() -> cartService.applyBatch(userId, batch(op(ADD, 2, 1), op(SET, 0, 51))))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("available 50");
+        assertThat(cartService.getUserCart(userId).getItems()).hasSize(2);
+    }
+
+    @Test
+    void addBeyondStockIsRejectedEvenAfterTheHoldLapsed() {
+        cartService.addItemToCart(userId, item(0, 40));
+        reservations.releaseAll(userId); // Hold expired and swept; the line is still in the cart
+
+        assertThatThrownBy(() -> cartService.addItemToCart(userId, item(0, 20)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Insufficient stock to add more of");
+        assertThat(line(cartService.getUserCart(userId), 0).getQuantity()).isEqualTo(40);
+    }
+
+    @Test
+    void cartWithADeletedProductDoesNotHoldBackTheOthersInItsFlush() {
+        Long otherUserId = newUser();
+        cartService.addItemToCart(userId, item(0, 1));
+        cartService.addItemToCart(otherUserId, item(0, 2));
+        cartService.addItemToCart(otherUserId, item(1, 1));
+        reservations.releaseAll(otherUserId);
+        productRepository.deleteById(products.get(1).getId()); // Only in memory, so nothing blocks the delete
+
+        long failedBefore = cartStore.stats().getFailedFlushes();
+        cartStore.flushDirty(); // One chunk: its batch hits the cart_items.product_id foreign key
+
+        assertThat(cartStore.stats().getFailedFlushes()).isGreaterThan(failedBefore);
+        assertThat(storedLines()).singleElement()
+                .satisfies(row -> assertThat(row.getProduct().getId()).isEqualTo(products.get(0).getId()));
+        assertThat(cartRepository.findWithItemsByUserId(otherUserId).orElseThrow().getCartItems()).singleElement()
+                .satisfies(row -> assertThat(row.getQuantity()).isEqualTo(2));
+        assertThat(cartService.getUserCart(otherUserId).getItems()).hasSize(1); // The deleted product's line is gone
+        cartStore.evict(otherUserId);
+    }
+
+    @Test
+    void cartThatKeepsFailingIsGivenUpAfterMaxFlushAttempts() {
+        cartService.addItemToCart(userId, item(0, 1));
+        cartRepository.deleteById(cartService.getUserCart(userId).getId()); // Every write now fails its foreign key
+
+        long abandonedBefore = cartStore.stats().getAbandonedCarts();
+        for (int i = 0; i < 5; i++) { // max-flush-attempts defaults to 5
+            cartStore.flushDirty();
+        }
+
+        assertThat(cartStore.stats().getAbandonedCarts()).isEqualTo(abandonedBefore + 1);
+        // Evicted with its unwritten line: the next access reloads (here recreates) the cart
+        assertThat(cartService.getUserCart(userId).getItems()).isNullOrEmpty();
+    }
+
+    private Long newUser() {
+        return userRepository.save(User.builder()
+                .fullName("Ravi Kumar")
+                .email(UUID.randomUUID() + "@example.com")
+                .password("secret123")
+                .phone("8888888888")
+                .build()).getId();
+    }
+
+    private List<CartItem> storedLines() {
+        return cartRepository.findWithItemsByUserId(userId).map(Cart::getCartItems).orElse(List.of());
+    }
+
+    private CartItemResponseDto line(CartResponseDto cart, int productIndex) {
+        Long productId = products.get(productIndex).getId();
+        return cart.getItems().stream().filter(item -> item.getProductId().equals(productId)).findFirst().orElseThrow();
+    }
+
+    private CartResponseDto count(int expected, Supplier<CartResponseDto> operation) {
+        statementCounter.start();
+        CartResponseDto response = operation.get();
+        int statements = statementCounter.stop();
+        assertThat(statements).as("statements").isEqualTo(expected);
+        return response;
+    }
+
+    private static CartBatchRequestDto batch(CartOperationDto... operations) {
+        CartBatchRequestDto request = new CartBatchRequestDto();
+        request.setOperations(List.of(operations));
+        return request;
+    }
+
+    private CartOperationDto op(CartOperationDto.Type type, int productIndex, int quantity) {
+        CartOperationDto operation = new CartOperationDto();
+        operation.setType(type);
+        operation.setProductId(products.get(productIndex).getId());
+        operation.setQuantity(quantity);
+        return operation;
+    }
+
+    private CartItemRequestDto item(int productIndex, int quantity) {
+        CartItemRequestDto request = new CartItemRequestDto();
+        request.setProductId(products.get(productIndex).getId());
+        request.setQuantity(quantity);
+        return request;
+    }
+}
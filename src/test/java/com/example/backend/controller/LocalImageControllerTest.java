@@ -0,0 +1,89 @@
+package com.example.backend.controller;
+
+import com.example.backend.service.ImageStorage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LocalImageControllerTest {
+
+    private static final byte[] IMAGE = "0123456789abcdefghij".getBytes();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ImageStorage imageStorage;
+
+    private String url;
+
+    @BeforeEach
+    void storeImage() {
+        url = imageStorage.uploadFile(new MockMultipartFile("images", "achar.JPG", "image/jpeg", IMAGE));
+    }
+
+    @AfterEach
+    void dropImage() {
+        imageStorage.deleteFile(url); // Each upload of the same bytes holds its own reference
+    }
+
+    @Test
+    void servesWholeFileWithCacheHeaders() throws Exception {
+        assertThat(url).startsWith("/api/v1/images/").endsWith(".jpg");
+
+        mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "image/jpeg"))
+                .andExpect(header().string(HttpHeaders.ACCEPT_RANGES, "bytes"))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable"))
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andExpect(content().bytes(IMAGE));
+    }
+
+    @Test
+    void servesSingleByteRange() throws Exception {
+        mockMvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=5-9"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes 5-9/20"))
+                .andExpect(content().bytes("56789".getBytes()));
+    }
+
+    @Test
+    void rejectsRangePastEndOfFile() throws Exception {
+        mockMvc.perform(get(url).header(HttpHeaders.RANGE, "bytes=50-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable())
+                .andExpect(header().string(HttpHeaders.CONTENT_RANGE, "bytes */20"));
+    }
+
+    @Test
+    void revalidatesWithETag() throws Exception {
+        String eTag = mockMvc.perform(get(url)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get(url).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void rejectsNamesItDidNotGenerate() throws Exception {
+        mockMvc.perform(get("/api/v1/images/..%2Fapplication.properties"))
+                .andExpect(status().isNotFound());
+        imageStorage.deleteFile(url);
+        mockMvc.perform(get(url)).andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.backend.controller;
+
+import com.example.backend.model.Category;
+import com.example.backend.model.Product;
+import com.example.backend.model.Region;
+import com.example.backend.model.Seller;
+import com.example.backend.repository.ProductRepository;
+import com.example.backend.support.Benchmark;
+import com.example.backend.support.BenchmarkTimer;
+import com.example.backend.support.CatalogFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+/**
+ * Product detail revalidation: a matching If-None-Match (304, no body written) vs a full 200 of
+ * the same cached product. Both pay the one version lookup; the 304 skips serialization and transfer.
+ */
+@Benchmark
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(CatalogFixtures.class)
+class ProductETagBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductETagBenchmark.class);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CatalogFixtures fixtures;
+
+    @AfterEach
+    void cleanUp() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void notModifiedIsCheaperThanAFullResponse() throws Exception {
+        Category category = fixtures.category("Achar");
+        Region region = fixtures.region("Bihar");
+        Seller seller = fixtures.seller("Sita Devi");
+        Product product = fixtures.products(1, category, seller, region).get(0);
+        String eTag = perform(get("/api/v1/products/{id}", product.getId())).getHeader(HttpHeaders.ETAG);
+
+        long okMicros = BenchmarkTimer.medianMicros(50, 500, () -> {
+            MockHttpServletResponse response = perform(get("/api/v1/products/{id}", product.getId()));
+            assertThat(response.getStatus()).isEqualTo(200);
+        });
+        long notModifiedMicros = BenchmarkTimer.medianMicros(50, 500, () -> {
+            MockHttpServletResponse response = perform(get("/api/v1/products/{id}", product.getId())
+                    .header(HttpHeaders.IF_NONE_MATCH, eTag));
+            assertThat(response.getStatus()).isEqualTo(304);
+        });
+        logger.info("product detail: 200 {} us, 304 {} us", okMicros, notModifiedMicros);
+
+        assertThat(notModifiedMicros).isLessThanOrEqualTo(okMicros);
+    }
+
+    private MockHttpServletResponse perform(MockHttpServletRequestBuilder request) {
+        try {
+            return mockMvc.perform(request).andReturn().getResponse();
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.example.backend.controller;
+
+import com.example.backend.dto.CategoryRequestDto;
+import com.example.backend.model.Category;
+import com.example.backend.model.Product;
+import com.example.backend.model.Region;
+import com.example.backend.model.Seller;
+import com.example.backend.repository.ProductRepository;
+import com.example.backend.service.CategoryService;
+import com.example.backend.support.CatalogFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Conditional GETs of product detail and of the category/region lists: 304 while the body would be
+ * the same, 200 with a new ETag once it isn't.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(CatalogFixtures.class)
+class ProductETagTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private CatalogFixtures fixtures;
+
+    private Category category;
+    private Product product;
+
+    @BeforeEach
+    void seed() {
+        category = fixtures.category("Achar");
+        Region region = fixtures.region("Bihar");
+        Seller seller = fixtures.seller("Sita Devi");
+        product = fixtures.products(1, category, seller, region).get(0);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void matchingIfNoneMatchGets304WithoutABody() throws Exception {
+        String eTag = productETag();
+
+        mockMvc.perform(get("/api/v1/products/{id}", product.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void eTagIsTheVersionPlusASha256OfWhatChangesWithoutIt() throws Exception {
+        assertThat(productETag()).matches("\"product-" + product.getId() + "-v\\d+-[0-9a-f]{64}\"");
+    }
+
+    @Test
+    void staleOrForeignIfNoneMatchGets200() throws Exception {
+        String eTag = productETag();
+
+        mockMvc.perform(get("/api/v1/products/{id}", product.getId()).header(HttpHeaders.IF_NONE_MATCH, "\"product-0-v0-0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(jsonPath("$.id").value(product.getId()));
+    }
+
+    @Test
+    void productWriteChangesTheETag() throws Exception {
+        String before = productETag();
+
+        Product edited = productRepository.findById(product.getId()).orElseThrow();
+        edited.setPrice(edited.getPrice() + 10);
+        productRepository.save(edited);
+
+        mockMvc.perform(get("/api/v1/products/{id}", product.getId()).header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.price").value(edited.getPrice()));
+        assertThat(productETag()).isNotEqualTo(before);
+    }
+
+    @Test
+    void categoryRenameChangesTheProductETagWithoutAVersionBump() throws Exception {
+        String before = productETag();
+
+        CategoryRequestDto rename = new CategoryRequestDto();
+        rename.setName(category.getName() + " Renamed");
+        categoryService.updateCategory(category.getId(), rename);
+
+        mockMvc.perform(get("/api/v1/products/{id}", product.getId()).header(HttpHeaders.IF_NONE_MATCH, before))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.categoryName").value(rename.getName()))
+                .andExpect(jsonPath("$.version").value(product.getVersion()));
+    }
+
+    @Test
+    void categoryListRevalidates() throws Exception {
+        String eTag = listETag("/api/v1/categories");
+
+        mockMvc.perform(get("/api/v1/categories").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        fixtures.category("Sweets");
+        mockMvc.perform(get("/api/v1/categories").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+        assertThat(listETag("/api/v1/categories")).isNotEqualTo(eTag);
+    }
+
+    @Test
+    void regionListRevalidates() throws Exception {
+        String eTag = listETag("/api/v1/regions");
+
+        mockMvc.perform(get("/api/v1/regions").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+
+        fixtures.region("Kerala");
+        mockMvc.perform(get("/api/v1/regions").header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk());
+        assertThat(listETag("/api/v1/regions")).isNotEqualTo(eTag);
+    }
+
+    private String productETag() throws Exception {
+        return listETag("/api/v1/products/" + product.getId());
+    }
+
+    private String listETag(String path) throws Exception {
+        String eTag = mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(eTag).isNotBlank();
+        return eTag;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.backend.dto;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProductCursorTest {
+
+    @Test
+    void roundTripsThroughTheOpaqueToken() {
+        ProductCursor cursor = new ProductCursor(LocalDateTime.of(2024, 3, 1, 10, 15, 30, 123_456_000), 42L);
+
+        String token = cursor.encode();
+
+        assertThat(token).doesNotContain("|", "=", "+", "/");
+        assertThat(ProductCursor.decode(token)).isEqualTo(cursor);
+    }
+
+    @Test
+    void rejectsMalformedAndTamperedTokens() {
+        assertThatThrownBy(() -> ProductCursor.decode(null)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> ProductCursor.decode("not base64!")).hasMessageStartingWith("Invalid cursor");
+        assertThatThrownBy(() -> ProductCursor.decode(token("no separator"))).hasMessageStartingWith("Invalid cursor");
+        assertThatThrownBy(() -> ProductCursor.decode(token("yesterday|42"))).hasMessageStartingWith("Invalid cursor");
+        assertThatThrownBy(() -> ProductCursor.decode(token("2024-03-01T10:15:30|abc"))).hasMessageStartingWith("Invalid cursor");
+        assertThatThrownBy(() -> ProductCursor.decode(token("null|42"))).hasMessageStartingWith("Invalid cursor");
+    }
+
+    @Test
+    void refusesToEncodeARowWithoutCreatedAt() {
+        assertThatThrownBy(() -> new ProductCursor(null, 42L)).isInstanceOf(NullPointerException.class);
+    }
+
+    private static String token(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.backend.images;
+
+import com.example.backend.dto.ImageDedupeStatsDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class DeduplicatingImageStorageTest {
+
+    @Autowired
+    private DeduplicatingImageStorage imageStorage;
+
+    @Test
+    void sameContentIsStoredOnceAndReturnsTheSameUrl() {
+        byte[] photo = UUID.randomUUID().toString().getBytes(); // Unique per run
+        ImageDedupeStatsDto before = imageStorage.stats();
+
+        String first = imageStorage.uploadFile(new MockMultipartFile("images", "front.jpg", "image/jpeg", photo));
+        String second = imageStorage.uploadFile(new MockMultipartFile("images", "copy-of-front.jpg", "image/jpeg", photo));
+        String other = imageStorage.uploadFile(new MockMultipartFile("images", "back.jpg", "image/jpeg",
+                UUID.randomUUID().toString().getBytes()));
+
+        assertThat(second).isEqualTo(first);
+        assertThat(other).isNotEqualTo(first);
+
+        ImageDedupeStatsDto after = imageStorage.stats();
+        assertThat(after.getHits() - before.getHits()).isEqualTo(1);
+        assertThat(after.getMisses() - before.getMisses()).isEqualTo(2);
+        assertThat(after.getBytesSaved() - before.getBytesSaved()).isEqualTo(photo.length);
+    }
+
+    @Test
+    void sharedImageIsOnlyDeletedOnceEveryUploadHasLetItGo() throws Exception {
+        byte[] photo = UUID.randomUUID().toString().getBytes();
+        String url = imageStorage.uploadFile(new MockMultipartFile("images", "front.jpg", "image/jpeg", photo));
+        // A second product's upload hits the same content before the first upload is discarded
+        String shared = imageStorage.uploadFile(new MockMultipartFile("images", "front.jpg", "image/jpeg", photo));
+
+        imageStorage.deleteFile(url);
+        try (InputStream in = imageStorage.openStream(shared)) {
+            assertThat(in.readAllBytes()).isEqualTo(photo);
+        }
+
+        imageStorage.deleteFile(shared);
+        assertThatThrownBy(() -> imageStorage.openStream(shared)).isInstanceOf(IOException.class);
+        // The asset is gone too, so the same bytes are stored afresh rather than hitting a dead URL
+        String fresh = imageStorage.uploadFile(new MockMultipartFile("images", "front.jpg", "image/jpeg", photo));
+        assertThat(fresh).isNotEqualTo(url);
+        imageStorage.deleteFile(fresh);
+    }
+
+    @Test
+    void appendDistinctCollapsesUrlsTheProductAlreadyHas() {
+        List<String> imageUrls = new ArrayList<>(List.of("/api/v1/images/a.jpg"));
+        long collapsedBefore = imageStorage.stats().getCollapsedDuplicates();
+
+        int appended = imageStorage.appendDistinct(imageUrls,
+                List.of("/api/v1/images/a.jpg", "/api/v1/images/b.jpg", "/api/v1/images/b.jpg"));
+
+        assertThat(appended).isEqualTo(1);
+        assertThat(imageUrls).containsExactly("/api/v1/images/a.jpg", "/api/v1/images/b.jpg");
+        assertThat(imageStorage.stats().getCollapsedDuplicates() - collapsedBefore).isEqualTo(2);
+    }
+}
@@ -0,0 +1,174 @@
+package com.example.backend.images;
+
+import com.example.backend.dto.ImageQueueStatsDto;
+import com.example.backend.dto.PendingImageDto;
+import com.example.backend.dto.ProductRequestDto;
+import com.example.backend.dto.ProductResponseDto;
+import com.example.backend.model.Category;
+import com.example.backend.model.ImageUploadJob;
+import com.example.backend.model.Product;
+import com.example.backend.model.Region;
+import com.example.backend.model.Seller;
+import com.example.backend.repository.ImageUploadJobRepository;
+import com.example.backend.repository.ProductRepository;
+import com.example.backend.service.ProductService;
+import com.example.backend.support.CatalogFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(CatalogFixtures.class)
+class ImageUploadPipelineTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ImageUploadJobRepository jobRepository;
+
+    @Autowired
+    private ImageUploadWorker worker;
+
+    @Autowired
+    private ImageUploadQueue imageQueue;
+
+    @Autowired
+    private CatalogFixtures fixtures;
+
+    @AfterEach
+    void cleanUp() {
+        jobRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void createReturnsImmediatelyAndWorkerAttachesImages() throws InterruptedException {
+        long completedBefore = worker.stats().getCompletedTotal();
+
+        ProductResponseDto created = productService.createProduct(request(), List.of(image("a.jpg", 1), image("b.png", 2)));
+
+        assertThat(created.getImageUrls()).isEmpty();
+        assertThat(created.getPendingImages()).extracting(PendingImageDto::getFilename)
+                .containsExactlyInAnyOrder("a.jpg", "b.png");
+
+        awaitTrue(() -> productService.getProduct(created.getId()).getImageUrls().size() == 2);
+
+        ProductResponseDto detail = productService.getProduct(created.getId());
+        assertThat(detail.getPendingImages()).isEmpty();
+        assertThat(detail.getImageUrls()).allSatisfy(url -> assertThat(url).startsWith("/api/v1/images/"));
+        assertThat(detail.getVersion()).isGreaterThan(created.getVersion());
+
+        ImageQueueStatsDto stats = worker.stats();
+        assertThat(stats.getPending()).isZero();
+        assertThat(stats.getCompletedTotal() - completedBefore).isEqualTo(2);
+        assertThat(stats.getCompletedLastMinute()).isGreaterThanOrEqualTo(2);
+    }
+
+    @Test
+    void jobsStagedOnAnotherNodeAreLeftToThatNode() throws InterruptedException {
+        Product product = product();
+        ImageUploadJob theirs = jobRepository.save(job(product.getId(), "other-node", null, LocalDateTime.now()));
+        ImageUploadJob ours = jobRepository.save(job(product.getId(), imageQueue.nodeId(), "/api/v1/images/ours.jpg",
+                LocalDateTime.now()));
+
+        awaitTrue(() -> !jobRepository.existsById(ours.getId()));
+        Thread.sleep(300); // A few more polls
+
+        ImageUploadJob untouched = jobRepository.findById(theirs.getId()).orElseThrow();
+        assertThat(untouched.getStatus()).isEqualTo(ImageUploadJob.Status.PENDING);
+        assertThat(untouched.getAttempts()).isZero(); // Never opened here, so never failed here
+    }
+
+    @Test
+    void imagesAreAttachedInStagingOrderWhateverOrderUploadsFinish() throws InterruptedException {
+        Product product = product();
+        List<String> before = product.getImageUrls();
+        // The first image is still uploading (not due yet); the second finished first
+        ImageUploadJob first = jobRepository.save(job(product.getId(), imageQueue.nodeId(), null,
+                LocalDateTime.now().plusHours(1)));
+        ImageUploadJob second = jobRepository.save(job(product.getId(), imageQueue.nodeId(),
+                "/api/v1/images/second.jpg", LocalDateTime.now()));
+
+        awaitTrue(() -> jobRepository.findById(second.getId()).orElseThrow().getNextAttemptAt()
+                .isAfter(second.getNextAttemptAt()));
+        assertThat(productService.getProduct(product.getId()).getImageUrls()).isEqualTo(before); // Waits for the first
+
+        first.setUploadedUrl("/api/v1/images/first.jpg");
+        first.setNextAttemptAt(LocalDateTime.now());
+        jobRepository.save(first);
+
+        awaitTrue(() -> jobRepository.count() == 0);
+        assertThat(productService.getProduct(product.getId()).getImageUrls())
+                .hasSize(before.size() + 2)
+                .endsWith("/api/v1/images/first.jpg", "/api/v1/images/second.jpg");
+    }
+
+    @Test
+    void backoffGrowsAndStaysWithinJitterBounds() {
+        // test profile: backoff-ms=100
+        for (int attempt = 1; attempt <= 4; attempt++) {
+            long ceiling = 100L << (attempt - 1);
+            assertThat(worker.backoffMs(attempt)).isBetween(ceiling / 2, ceiling);
+        }
+    }
+
+    private ProductRequestDto request() {
+        Category category = fixtures.category("Achar");
+        Region region = fixtures.region("Bihar");
+        Seller seller = fixtures.seller("Sita Devi");
+        return ProductRequestDto.builder()
+                .name("Mango Achar")
+                .price(120.0)
+                .stock(10)
+                .categoryId(category.getId())
+                .sellerId(seller.getId())
+                .regionId(region.getId())
+                .build();
+    }
+
+    private Product product() {
+        return fixtures.products(1, fixtures.category("Achar"), fixtures.seller("Sita Devi"),
+                fixtures.region("Bihar")).get(0);
+    }
+
+    // A queued image; with uploadedUrl set the worker only has to attach it
+    private static ImageUploadJob job(Long productId, String node, String uploadedUrl, LocalDateTime due) {
+        return ImageUploadJob.builder()
+                .productId(productId)
+                .stagedPath("build/test-image-staging/missing.upload")
+                .stagingNode(node)
+                .originalFilename("photo.jpg")
+                .status(ImageUploadJob.Status.PENDING)
+                .nextAttemptAt(due)
+                .uploadedUrl(uploadedUrl)
+                .build();
+    }
+
+    private static MultipartFile image(String name, int seed) {
+        return new MockMultipartFile("images", name, "image/jpeg", new byte[]{(byte) seed, 2, 3, 4});
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition not met in time").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.backend.images;
+
+import com.example.backend.dto.ImageVariantsDto;
+import com.example.backend.dto.ProductResponseDto;
+import com.example.backend.model.Category;
+import com.example.backend.model.ImageVariant;
+import com.example.backend.model.ImageVariantFailure;
+import com.example.backend.model.Product;
+import com.example.backend.model.Region;
+import com.example.backend.model.Seller;
+import com.example.backend.repository.ImageVariantFailureRepository;
+import com.example.backend.repository.ImageVariantRepository;
+import com.example.backend.repository.ProductRepository;
+import com.example.backend.service.ImageStorage;
+import com.example.backend.service.ProductService;
+import com.example.backend.support.CatalogFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(CatalogFixtures.class)
+class ImageVariantGeneratorTest {
+
+    @Autowired
+    private ImageVariantGenerator variantGenerator;
+
+    @Autowired
+    private ImageVariantRepository variantRepository;
+
+    @Autowired
+    private ImageVariantFailureRepository failureRepository;
+
+    @Autowired
+    private ImageStorage imageStorage;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CatalogFixtures fixtures;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @AfterEach
+    void cleanUp() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void generatesBoundedVariantsAndListViewsUseTheThumbnail() throws Exception {
+        String original = imageStorage.uploadFile(new MockMultipartFile("images", "wide.png", "image/png",
+                png(1200, 600)));
+        Product product = saveProduct(original);
+
+        variantGenerator.submit(original);
+        awaitVariants(original);
+
+        List<ImageVariant> variants = variantRepository.findBySourceUrl(original);
+        assertThat(variants).extracting(ImageVariant::getKind)
+                .containsExactlyInAnyOrder(ImageVariant.Kind.THUMBNAIL, ImageVariant.Kind.MEDIUM);
+        ImageVariant thumbnail = variants.stream()
+                .filter(variant -> variant.getKind() == ImageVariant.Kind.THUMBNAIL).findFirst().orElseThrow();
+        assertThat(thumbnail.getWidth()).isEqualTo(200);
+        assertThat(thumbnail.getHeight()).isEqualTo(100);
+        try (InputStream in = imageStorage.openStream(thumbnail.getUrl())) {
+            assertThat(ImageIO.read(in).getWidth()).isEqualTo(200);
+        }
+
+        ProductResponseDto listed = productService.getAllProducts(PageRequest.of(0, 10)).getContent().stream()
+                .filter(dto -> dto.getId().equals(product.getId())).findFirst().orElseThrow();
+        assertThat(listed.getThumbnailUrl()).isEqualTo(thumbnail.getUrl());
+        assertThat(listed.getImageUrls()).isNull();
+
+        ProductResponseDto detail = productService.getProduct(product.getId());
+        assertThat(detail.getImageUrls()).containsExactly(original);
+        assertThat(detail.getImageVariants()).singleElement().satisfies(image -> {
+            assertThat(image.getOriginal()).isEqualTo(original);
+            assertThat(image.getThumbnail()).isEqualTo(thumbnail.getUrl());
+            assertThat(image.getMedium()).isNotNull();
+        });
+    }
+
+    @Test
+    void generatedVariantsInvalidateTheProductETag() throws Exception {
+        String original = imageStorage.uploadFile(new MockMultipartFile("images", "square.png", "image/png",
+                png(400, 400)));
+        Product product = saveProduct(original);
+
+        String eTag = mockMvc.perform(get("/api/v1/products/{id}", product.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imageVariants[0].thumbnail").doesNotExist())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        Long before = productRepository.findVersionById(product.getId()).orElseThrow();
+
+        variantGenerator.submit(original);
+        awaitVariants(original);
+        awaitVersionAbove(product.getId(), before);
+
+        mockMvc.perform(get("/api/v1/products/{id}", product.getId()).header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imageVariants[0].thumbnail").exists())
+                .andExpect(header().string(HttpHeaders.ETAG, not(eTag)));
+    }
+
+    @Test
+    void undecodableImagesAreGivenUpForGoodAndLeftOutOfTheSweep() throws Exception {
+        byte[] notAnImage = ("not an image " + ThreadLocalRandom.current().nextLong()).getBytes();
+        String original = imageStorage.uploadFile(new MockMultipartFile("images", "notes.txt", "text/plain",
+                notAnImage));
+        saveProduct(original);
+        assertThat(variantRepository.findImageUrlsWithoutThumbnail(3, PageRequest.of(0, 1000))).contains(original);
+
+        variantGenerator.submit(original);
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (failureRepository.findBySourceUrl(original).isEmpty()) {
+            assertThat(System.currentTimeMillis()).as("failure not recorded in time").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+
+        // Persisted, so every node and every restart skips it too (test profile: max-attempts defaults to 3)
+        assertThat(failureRepository.findBySourceUrl(original)).get()
+                .extracting(ImageVariantFailure::getAttempts).isEqualTo(3);
+        assertThat(variantRepository.findImageUrlsWithoutThumbnail(3, PageRequest.of(0, 1000)))
+                .doesNotContain(original);
+    }
+
+    @Test
+    void resizerNeverUpscales() {
+        BufferedImage small = new BufferedImage(120, 80, BufferedImage.TYPE_INT_ARGB);
+
+        BufferedImage fitted = ImageResizer.fit(small, ImageVariant.Kind.MEDIUM.getMaxSize());
+
+        assertThat(fitted.getWidth()).isEqualTo(120);
+        assertThat(fitted.getHeight()).isEqualTo(80);
+        assertThat(fitted.getType()).isEqualTo(BufferedImage.TYPE_INT_RGB);
+    }
+
+    private Product saveProduct(String imageUrl) {
+        Category category = fixtures.category("Achar");
+        Region region = fixtures.region("Bihar");
+        Seller seller = fixtures.seller("Sita Devi");
+        return productRepository.save(Product.builder()
+                .name("Mango Achar")
+                .price(120.0)
+                .stock(10)
+                .category(category)
+                .seller(seller)
+                .region(region)
+                .imageUrls(new ArrayList<>(List.of(imageUrl)))
+                .build());
+    }
+
+    private void awaitVariants(String sourceUrl) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (variantGenerator.variantsFor(List.of(sourceUrl)).stream()
+                .map(ImageVariantsDto::getMedium).anyMatch(medium -> medium == null)
+                || variantRepository.findBySourceUrl(sourceUrl).size() < 2) {
+            assertThat(System.currentTimeMillis()).as("variants not generated in time").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    private void awaitVersionAbove(Long productId, Long version) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (productRepository.findVersionById(productId).orElseThrow() <= version) {
+            assertThat(System.currentTimeMillis()).as("version not bumped in time").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+
+    // Random colour per run so dedupe doesn't hand back a previous run's URL
+    private static byte[] png(int width, int height) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(new Color(ThreadLocalRandom.current().nextInt(0xFFFFFF)));
+        g.fillRect(0, 0, width, height);
+        g.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
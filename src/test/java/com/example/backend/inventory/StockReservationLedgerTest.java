@@ -0,0 +1,197 @@
+package com.example.backend.inventory;
+
+import com.example.backend.repository.StockReservationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The ledger against the test database. A second ledger over the same tables stands in for
+ * another node.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class StockReservationLedgerTest {
+
+    private static final Long PRODUCT = 10L;
+    private static final Long OTHER_PRODUCT = 11L;
+
+    @Autowired
+    private StockReservationRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM stock_reservations");
+        jdbcTemplate.update("DELETE FROM stock_hold_totals");
+    }
+
+    @Test
+    void otherCartsHoldsCountAgainstAvailableStock() {
+        StockReservationLedger ledger = ledger(900);
+
+        assertThat(ledger.reserve(1L, PRODUCT, 3, 5)).isTrue();
+        assertThat(ledger.reserve(2L, PRODUCT, 3, 5)).isFalse();
+
+        assertThat(ledger.availableTo(1L, PRODUCT, 5)).isEqualTo(5); // Own hold is still buyable
+        assertThat(ledger.availableTo(2L, PRODUCT, 5)).isEqualTo(2);
+        assertThat(ledger.reserve(2L, PRODUCT, 2, 5)).isTrue();
+
+        ledger.releaseAll(1L);
+        assertThat(ledger.availableTo(2L, PRODUCT, 5)).isEqualTo(3);
+        assertThat(ledger.availableTo(3L, PRODUCT, 5)).isEqualTo(3);
+        assertThat(ledger.stats().getRejected()).isEqualTo(1);
+    }
+
+    @Test
+    void holdsPlacedOnOneNodeCountOnAnother() {
+        StockReservationLedger node1 = ledger(900);
+        StockReservationLedger node2 = ledger(900);
+
+        assertThat(node1.reserve(1L, PRODUCT, 3, 5)).isTrue();
+        assertThat(node2.availableTo(2L, PRODUCT, 5)).isEqualTo(2);
+        assertThat(node2.reserve(2L, PRODUCT, 3, 5)).isFalse();
+        assertThat(node2.reserve(2L, PRODUCT, 2, 5)).isTrue();
+
+        node2.release(1L, PRODUCT); // e.g. the user's next request landed on the other node
+        assertThat(node1.availableTo(3L, PRODUCT, 5)).isEqualTo(3);
+        assertThat(node1.stats().getHeldUnits()).isEqualTo(2);
+    }
+
+    @Test
+    void concurrentHoldsOnTwoNodesNeverExceedTheStock() throws Exception {
+        List<StockReservationLedger> nodes = List.of(ledger(900), ledger(900));
+        int users = 20;
+        int stock = 7;
+        nodes.get(0).reserve(99L, PRODUCT, 1, stock); // Creates the product's total row
+        nodes.get(0).releaseAll(99L);
+
+        ExecutorService executor = Executors.newFixedThreadPool(users);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> holds = new ArrayList<>();
+        try {
+            for (int i = 0; i < users; i++) {
+                long userId = 100 + i;
+                StockReservationLedger node = nodes.get(i % 2);
+                holds.add(executor.submit(() -> {
+                    start.await();
+                    return node.reserve(userId, PRODUCT, 1, stock);
+                }));
+            }
+            start.countDown();
+
+            int placed = 0;
+            for (Future<Boolean> hold : holds) {
+                if (hold.get(30, TimeUnit.SECONDS)) {
+                    placed++;
+                }
+            }
+            assertThat(placed).isEqualTo(stock);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(nodes.get(0).availableTo(999L, PRODUCT, stock)).isZero();
+    }
+
+    @Test
+    void batchHoldIsAllOrNothing() {
+        StockReservationLedger ledger = ledger(900);
+        ledger.reserve(1L, OTHER_PRODUCT, 4, 5);
+
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        quantities.put(PRODUCT, 2);
+        quantities.put(OTHER_PRODUCT, 2);
+        assertThat(ledger.hold(2L, quantities, Map.of(PRODUCT, 5, OTHER_PRODUCT, 5))).containsExactly(OTHER_PRODUCT);
+        assertThat(ledger.availableTo(3L, PRODUCT, 5)).isEqualTo(5); // Nothing was held
+
+        quantities.put(OTHER_PRODUCT, 1);
+        assertThat(ledger.hold(2L, quantities, Map.of(PRODUCT, 5, OTHER_PRODUCT, 5))).isEmpty();
+        assertThat(ledger.availableTo(3L, PRODUCT, 5)).isEqualTo(3);
+        assertThat(ledger.availableTo(3L, OTHER_PRODUCT, 5)).isZero();
+
+        quantities.put(PRODUCT, 0); // Releases
+        assertThat(ledger.hold(2L, quantities, Map.of(OTHER_PRODUCT, 5))).isEmpty();
+        assertThat(ledger.availableTo(3L, PRODUCT, 5)).isEqualTo(5);
+    }
+
+    /**
+     * Each user keeps moving a unit from one product to the other, in opposite directions: every
+     * hold lowers one total and raises the other. One ordered pass means they queue, not deadlock.
+     */
+    @Test
+    void opposingBatchHoldsNeitherDeadlockNorDrift() throws Exception {
+        StockReservationLedger ledger = ledger(900);
+        Map<Long, Integer> stock = Map.of(PRODUCT, 10, OTHER_PRODUCT, 10);
+        ledger.hold(1L, Map.of(PRODUCT, 2, OTHER_PRODUCT, 1), stock);
+        ledger.hold(2L, Map.of(PRODUCT, 1, OTHER_PRODUCT, 2), stock);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> users = new ArrayList<>();
+        try {
+            for (long userId = 1; userId <= 2; userId++) {
+                long user = userId;
+                users.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 50; i++) {
+                        int first = (i + user) % 2 == 0 ? 1 : 2;
+                        assertThat(ledger.hold(user, Map.of(PRODUCT, first, OTHER_PRODUCT, 3 - first), stock))
+                                .isEmpty();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> user : users) {
+                user.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // Each user's last hold is 1 + 2 or 2 + 1, so together they still hold 3 units of each product
+        assertThat(ledger.availableTo(3L, PRODUCT, 10)).isEqualTo(7);
+        assertThat(ledger.availableTo(3L, OTHER_PRODUCT, 10)).isEqualTo(7);
+    }
+
+    @Test
+    void sweepReclaimsExpiredHoldsOnce() {
+        StockReservationLedger node1 = ledger(0); // Holds expire immediately
+        StockReservationLedger node2 = ledger(0);
+        node1.reserve(1L, PRODUCT, 3, 5);
+        assertThat(node1.availableTo(2L, PRODUCT, 5)).isEqualTo(2); // Counts until swept
+
+        node1.sweep();
+        node2.sweep();
+
+        assertThat(node1.availableTo(2L, PRODUCT, 5)).isEqualTo(5);
+        assertThat(node1.stats().getExpired()).isEqualTo(1);
+        assertThat(node2.stats().getExpired()).isZero();
+        assertThat(node1.stats().getHeldUnits()).isZero();
+    }
+
+    private StockReservationLedger ledger(long ttlSeconds) {
+        return new StockReservationLedger(repository, transactionManager, ttlSeconds, 100);
+    }
+}
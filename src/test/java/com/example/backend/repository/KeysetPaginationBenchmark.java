@@ -0,0 +1,125 @@
+package com.example.backend.repository;
+
+import com.example.backend.dto.ProductCursor;
+import com.example.backend.dto.ProductImportRowDto;
+import com.example.backend.model.Category;
+import com.example.backend.model.Region;
+import com.example.backend.model.Seller;
+import com.example.backend.service.ProductService;
+import com.example.backend.support.Benchmark;
+import com.example.backend.support.BenchmarkTimer;
+import com.example.backend.support.CatalogFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * OFFSET vs keyset listing at increasing depth, down to page 10,000 (20 rows a page): the OFFSET
+ * page (plus its COUNT) grows with the depth, the cursor page stays within MAX_DEPTH_FACTOR of the
+ * first page. Rows are seeded in import chunks, so created_at ties are common.
+ */
+@Benchmark
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(CatalogFixtures.class)
+class KeysetPaginationBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(KeysetPaginationBenchmark.class);
+
+    private static final int PAGE_SIZE = 20;
+    private static final int DEEPEST_PAGE = 10_000;
+    private static final int ROWS = (DEEPEST_PAGE + 1) * PAGE_SIZE; // The deepest page is full
+    private static final int CHUNK = 1_000;
+    private static final int[] DEPTHS = {0, 1_000, 20_000, DEEPEST_PAGE * PAGE_SIZE};
+    private static final int MAX_DEPTH_FACTOR = 3; // Deepest cursor page vs the first; noise, not growth
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductImportRepository importRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CatalogFixtures fixtures;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM products");
+    }
+
+    @Test
+    void cursorPagesStayFlatWhileOffsetPagesGrowWithDepth() {
+        seed();
+
+        long firstCursor = 0;
+        long deepestOffset = 0;
+        long deepestCursor = 0;
+        for (int depth : DEPTHS) {
+            PageRequest offsetPage = PageRequest.of(depth / PAGE_SIZE, PAGE_SIZE, Sort.by("createdAt", "id"));
+            String cursor = cursorBefore(depth);
+
+            long offsetMicros = BenchmarkTimer.medianMicros(3, 15, () -> productService.getAllProducts(offsetPage));
+            long cursorMicros = BenchmarkTimer.medianMicros(3, 15, () -> productService.getAllProductsAfter(cursor, PAGE_SIZE));
+            logger.info("page {}: offset {} us, cursor {} us", depth / PAGE_SIZE, offsetMicros, cursorMicros);
+            if (depth == 0) {
+                firstCursor = cursorMicros;
+            }
+            deepestOffset = offsetMicros;
+            deepestCursor = cursorMicros;
+        }
+
+        assertThat(deepestCursor).isLessThan(deepestOffset);
+        assertThat(deepestCursor).isLessThanOrEqualTo(Math.max(1, firstCursor) * MAX_DEPTH_FACTOR);
+    }
+
+    private void seed() {
+        Category category = fixtures.category("Achar");
+        Region region = fixtures.region("Bihar");
+        Seller seller = fixtures.seller("Sita Devi");
+        for (int chunk = 0; chunk < ROWS / CHUNK; chunk++) {
+            List<ProductImportRowDto> rows = new ArrayList<>();
+            for (int i = 0; i < CHUNK; i++) {
+                rows.add(ProductImportRowDto.builder()
+                        .name("Mango Achar " + chunk + "-" + i)
+                        .price(100.0 + i)
+                        .stock(50)
+                        .categoryId(category.getId())
+                        .sellerId(seller.getId())
+                        .regionId(region.getId())
+                        .build());
+            }
+            importRepository.insertProducts(rows);
+        }
+        assertThat(productRepository.count()).isEqualTo(ROWS);
+    }
+
+    // Cursor of the row just before the given depth (null = first page)
+    private String cursorBefore(int depth) {
+        if (depth == 0) {
+            return null;
+        }
+        return jdbcTemplate.queryForObject(
+                "SELECT created_at, id FROM products ORDER BY created_at, id LIMIT 1 OFFSET ?",
+                (rs, rowNum) -> new ProductCursor(rs.getTimestamp("created_at").toLocalDateTime(), rs.getLong("id")).encode(),
+                depth - 1);
+    }
+}
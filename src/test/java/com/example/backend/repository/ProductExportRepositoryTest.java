@@ -0,0 +1,80 @@
+package com.example.backend.repository;
+
+import com.example.backend.dto.ProductResponseDto;
+import com.example.backend.model.Category;
+import com.example.backend.model.Region;
+import com.example.backend.model.Seller;
+import com.example.backend.support.CatalogFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(CatalogFixtures.class)
+class ProductExportRepositoryTest {
+
+    @Autowired
+    private ProductExportRepository productExportRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CatalogFixtures fixtures;
+
+    @AfterEach
+    void cleanUp() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void foldsImageRowsIntoOneProductEachInIdOrder() {
+        Category category = fixtures.category("Achar");
+        Region region = fixtures.region("Bihar");
+        Seller seller = fixtures.seller("Sita Devi");
+        fixtures.products(25, category, seller, region);
+
+        List<ProductResponseDto> exported = export(null, null, null);
+
+        assertThat(exported).hasSize(25);
+        assertThat(exported).extracting(ProductResponseDto::getId).isSorted();
+        assertThat(exported).allSatisfy(product -> {
+            assertThat(product.getImageUrls()).hasSize(2);
+            assertThat(product.getSellerName()).isEqualTo("Sita Devi");
+            assertThat(product.getCategoryId()).isEqualTo(category.getId());
+        });
+    }
+
+    @Test
+    void appliesOptionalFilters() {
+        Category achar = fixtures.category("Achar");
+        Category raita = fixtures.category("Raita");
+        Region bihar = fixtures.region("Bihar");
+        Region punjab = fixtures.region("Punjab");
+        Seller seller = fixtures.seller("Sita Devi");
+        fixtures.products(3, achar, seller, bihar);
+        fixtures.products(4, raita, seller, punjab);
+
+        assertThat(export(null, raita.getId(), null)).hasSize(4);
+        assertThat(export(null, null, bihar.getId())).hasSize(3);
+        assertThat(export(null, achar.getId(), punjab.getId())).isEmpty();
+        assertThat(export(LocalDateTime.now().plusDays(1), null, null)).isEmpty();
+        assertThat(export(LocalDateTime.now().minusDays(1), null, null)).hasSize(7);
+    }
+
+    private List<ProductResponseDto> export(LocalDateTime updatedSince, Long categoryId, Long regionId) {
+        List<ProductResponseDto> exported = new ArrayList<>();
+        productExportRepository.streamProducts(updatedSince, categoryId, regionId, exported::add);
+        return exported;
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.backend.repository;
+
+import com.example.backend.dto.ProductFilterDto;
+import com.example.backend.model.Category;
+import com.example.backend.model.Region;
+import com.example.backend.model.Seller;
+import com.example.backend.service.ProductService;
+import com.example.backend.support.CatalogFixtures;
+import com.example.backend.support.StatementCounter;
+import com.example.backend.support.StatementCountingConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks that the common filter combinations resolve to a scan of the matching composite index
+ * (H2 planner in MySQL mode; run the same EXPLAINs against MySQL when tuning). The EXPLAINs run
+ * on the SQL Hibernate actually generates for filterProducts, both with the endpoint's default
+ * createdAt sort and with a price sort. Criteria values are inlined so only the LIMIT is bound.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.criteria.value_handling_mode=inline")
+@ActiveProfiles("test")
+@Import({StatementCountingConfig.class, CatalogFixtures.class})
+class ProductFilterIndexPlanTest {
+
+    private static final int PAGE_SIZE = 10;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    @Autowired
+    private CatalogFixtures fixtures;
+
+    private Category category;
+    private Region region;
+    private Seller seller;
+
+    @BeforeEach
+    void seedCatalog() {
+        category = fixtures.category("Achar");
+        region = fixtures.region("Kerala");
+        seller = fixtures.seller("Anil Kumar");
+        fixtures.products(50, category, seller, region);
+        fixtures.products(50, fixtures.category("Raita"), fixtures.seller("Meena"), fixtures.region("Punjab"));
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void categoryWithPriceRangeUsesCategoryIndexes() {
+        ProductFilterDto filter = priceRange();
+        filter.setCategoryId(category.getId());
+
+        assertThat(plan(filter, "createdAt")).containsIgnoringCase("idx_products_category_")
+                .doesNotContainIgnoringCase("products.tableScan");
+        assertThat(plan(filter, "price")).containsIgnoringCase("idx_products_category_price");
+    }
+
+    @Test
+    void categoryOnlyWithDefaultSortUsesCategoryCreatedIndex() {
+        ProductFilterDto filter = new ProductFilterDto();
+        filter.setCategoryId(category.getId());
+
+        assertThat(plan(filter, "createdAt")).containsIgnoringCase("idx_products_category_created_id");
+    }
+
+    @Test
+    void regionWithPriceRangeUsesRegionIndexes() {
+        ProductFilterDto filter = priceRange();
+        filter.setRegionId(region.getId());
+
+        assertThat(plan(filter, "createdAt")).containsIgnoringCase("idx_products_region_")
+                .doesNotContainIgnoringCase("products.tableScan");
+        assertThat(plan(filter, "price")).containsIgnoringCase("idx_products_region_price");
+    }
+
+    @Test
+    void sellerWithPriceRangeUsesSellerIndexes() {
+        ProductFilterDto filter = priceRange();
+        filter.setSellerId(seller.getId());
+
+        assertThat(plan(filter, "createdAt")).containsIgnoringCase("idx_products_seller_")
+                .doesNotContainIgnoringCase("products.tableScan");
+        assertThat(plan(filter, "price")).containsIgnoringCase("idx_products_seller_price");
+    }
+
+    @Test
+    void sellerOnlyWithDefaultSortUsesSellerCreatedIndex() {
+        ProductFilterDto filter = new ProductFilterDto();
+        filter.setSellerId(seller.getId());
+
+        assertThat(plan(filter, "createdAt")).containsIgnoringCase("idx_products_seller_created_id");
+    }
+
+    @Test
+    void categoryRegionPriceAndStockUsesCategoryIndexes() {
+        ProductFilterDto filter = priceRange();
+        filter.setCategoryId(category.getId());
+        filter.setRegionId(region.getId());
+        filter.setInStockOnly(true);
+
+        assertThat(plan(filter, "createdAt")).containsIgnoringCase("idx_products_category_")
+                .doesNotContainIgnoringCase("products.tableScan");
+        assertThat(plan(filter, "price")).containsIgnoringCase("idx_products_category_region_price");
+    }
+
+    private static ProductFilterDto priceRange() {
+        ProductFilterDto filter = new ProductFilterDto();
+        filter.setMinPrice(100.0);
+        filter.setMaxPrice(120.0);
+        return filter;
+    }
+
+    // EXPLAIN of the row query filterProducts sends for the first page (the count query is skipped)
+    private String plan(ProductFilterDto filter, String sort) {
+        statementCounter.start();
+        productService.filterProducts(filter, PageRequest.of(0, PAGE_SIZE, Sort.by(sort)));
+        statementCounter.stop();
+
+        String rowQuery = statementCounter.statements().stream()
+                .filter(sql -> sql.toLowerCase().contains(" from products ") && sql.toLowerCase().contains(" order by "))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No row query in " + statementCounter.statements()));
+
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + rowQuery)) {
+                // Only LIMIT / OFFSET remain as parameters
+                for (int i = 1; i <= explain.getParameterMetaData().getParameterCount(); i++) {
+                    explain.setInt(i, PAGE_SIZE);
+                }
+                try (ResultSet rs = explain.executeQuery()) {
+                    rs.next();
+                    return rs.getString(1);
+                }
+            }
+        });
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.backend.repository;
+
+import com.example.backend.model.Category;
+import com.example.backend.model.Product;
+import com.example.backend.model.Region;
+import com.example.backend.model.Seller;
+import com.example.backend.support.CatalogFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Walks the keyset listings page by page over rows that share created_at, checking that every
+ * row comes back exactly once and in (createdAt, id) order.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(CatalogFixtures.class)
+class ProductKeysetPaginationTest {
+
+    private static final int PAGE_SIZE = 4;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CatalogFixtures fixtures;
+
+    @AfterEach
+    void cleanUp() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void pagesThroughTiesOnCreatedAtWithoutGapsOrRepeats() {
+        Category achar = fixtures.category("Achar");
+        Category raita = fixtures.category("Raita");
+        Region region = fixtures.region("Bihar");
+        Seller seller = fixtures.seller("Sita Devi");
+        List<Product> products = new ArrayList<>(fixtures.products(11, achar, seller, region));
+        products.addAll(fixtures.products(6, raita, seller, region));
+
+        // Three timestamps shared across pages, assigned out of id order
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 9, 0);
+        for (int i = 0; i < products.size(); i++) {
+            jdbcTemplate.update("UPDATE products SET created_at = ? WHERE id = ?",
+                    Timestamp.valueOf(base.plusMinutes((i * 7) % 3)), products.get(i).getId());
+        }
+
+        List<Long> expectedAll = jdbcTemplate.queryForList(
+                "SELECT id FROM products ORDER BY created_at, id", Long.class);
+        List<Long> expectedAchar = jdbcTemplate.queryForList(
+                "SELECT id FROM products WHERE category_id = ? ORDER BY created_at, id", Long.class, achar.getId());
+
+        assertThat(walk(productRepository::findFirstListings,
+                (after, limit) -> productRepository.findListingsAfter(after.getCreatedAt(), after.getId(), limit)))
+                .containsExactlyElementsOf(expectedAll);
+        assertThat(walk(limit -> productRepository.findFirstListingsByCategoryId(achar.getId(), limit),
+                (after, limit) -> productRepository.findListingsByCategoryIdAfter(
+                        achar.getId(), after.getCreatedAt(), after.getId(), limit)))
+                .containsExactlyElementsOf(expectedAchar);
+    }
+
+    @Test
+    void lastPageEndsExactlyAtTheLastRow() {
+        Category category = fixtures.category("Achar");
+        Region region = fixtures.region("Bihar");
+        Seller seller = fixtures.seller("Sita Devi");
+        fixtures.products(PAGE_SIZE * 2, category, seller, region);
+
+        List<ProductListingView> all = productRepository.findFirstListings(PageRequest.of(0, PAGE_SIZE * 2));
+        ProductListingView secondToLast = all.get(all.size() - 2);
+        ProductListingView last = all.get(all.size() - 1);
+
+        assertThat(productRepository.findListingsAfter(secondToLast.getCreatedAt(), secondToLast.getId(),
+                PageRequest.of(0, PAGE_SIZE))).extracting(ProductListingView::getId).containsExactly(last.getId());
+        assertThat(productRepository.findListingsAfter(last.getCreatedAt(), last.getId(), PageRequest.of(0, PAGE_SIZE)))
+                .isEmpty();
+    }
+
+    @Test
+    void createdAtIsRequired() {
+        Category category = fixtures.category("Achar");
+        Region region = fixtures.region("Bihar");
+        Seller seller = fixtures.seller("Sita Devi");
+        Product product = fixtures.products(1, category, seller, region).get(0);
+
+        assertThatThrownBy(() -> jdbcTemplate.update("UPDATE products SET created_at = NULL WHERE id = ?", product.getId()))
+                .isInstanceOf(DataIntegrityViolationException.class);
+    }
+
+    private static List<Long> walk(Function<PageRequest, List<ProductListingView>> first,
+                                   BiFunction<ProductListingView, PageRequest, List<ProductListingView>> next) {
+        PageRequest limit = PageRequest.of(0, PAGE_SIZE);
+        List<Long> seen = new ArrayList<>();
+        List<ProductListingView> page = first.apply(limit);
+        while (!page.isEmpty()) {
+            assertThat(page.size()).isLessThanOrEqualTo(PAGE_SIZE);
+            page.forEach(row -> seen.add(row.getId()));
+            page = next.apply(page.get(page.size() - 1), limit);
+        }
+        return seen;
+    }
+}
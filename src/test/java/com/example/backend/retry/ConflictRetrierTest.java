@@ -0,0 +1,66 @@
+package com.example.backend.retry;
+
+import com.example.backend.dto.RetryStatsDto;
+import com.example.backend.exception.ConcurrentUpdateException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConflictRetrierTest {
+
+    private final ConflictRetrier retrier = new ConflictRetrier(3, 1, 4);
+
+    @Test
+    void retriesConflictsUntilTheActionSucceeds() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = retrier.execute("op", () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new OptimisticLockingFailureException("stale");
+            }
+            return "done";
+        });
+
+        assertThat(result).isEqualTo("done");
+        RetryStatsDto stats = retrier.stats().get(0);
+        assertThat(stats.getConflicts()).isEqualTo(2);
+        assertThat(stats.getRetries()).isEqualTo(2);
+        assertThat(stats.getGiveUps()).isZero();
+    }
+
+    @Test
+    void givesUpWithConflictAfterMaxAttempts() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> retrier.execute("op", () -> {
+            attempts.incrementAndGet();
+            throw new OptimisticLockingFailureException("stale");
+        })).isInstanceOf(ConcurrentUpdateException.class);
+
+        assertThat(attempts).hasValue(3);
+        assertThat(retrier.stats().get(0).getGiveUps()).isEqualTo(1);
+    }
+
+    @Test
+    void otherFailuresAreNotRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> retrier.execute("op", () -> {
+            attempts.incrementAndGet();
+            throw new IllegalArgumentException("bad input");
+        })).isInstanceOf(IllegalArgumentException.class);
+
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    void backoffStaysWithinTheCap() {
+        for (int attempt = 1; attempt <= 10; attempt++) {
+            assertThat(retrier.backoffMs(attempt)).isBetween(0L, 4L);
+        }
+    }
+}
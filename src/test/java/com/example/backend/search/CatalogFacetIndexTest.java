@@ -0,0 +1,115 @@
+package com.example.backend.search;
+
+import com.example.backend.dto.ProductResponseDto;
+import com.example.backend.event.ProductChangedEvent;
+import com.example.backend.repository.ProductFacetView;
+import com.example.backend.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CatalogFacetIndexTest {
+
+    private static final long ACHAR = 1L;
+    private static final long RAITA = 2L;
+    private static final long BIHAR = 10L;
+    private static final long PUNJAB = 20L;
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+
+    private CatalogFacetIndex facets;
+
+    @BeforeEach
+    void setUp() {
+        facets = new CatalogFacetIndex(productRepository, new double[]{100, 500});
+        upsert(1L, ACHAR, BIHAR, 80.0);
+        upsert(2L, ACHAR, PUNJAB, 150.0);
+        upsert(3L, RAITA, PUNJAB, 120.0);
+        upsert(4L, RAITA, PUNJAB, 600.0);
+    }
+
+    @Test
+    void countsEveryFacetWithoutFilters() {
+        CatalogFacetIndex.FacetCounts counts = facets.count(null, null, null, null);
+
+        assertThat(counts.total()).isEqualTo(4);
+        assertThat(counts.categories()).containsEntry(ACHAR, 2L).containsEntry(RAITA, 2L);
+        assertThat(counts.regions()).containsEntry(BIHAR, 1L).containsEntry(PUNJAB, 3L);
+        assertThat(counts.priceBuckets()).containsExactly(1, 2, 1);
+    }
+
+    @Test
+    void eachFacetIgnoresItsOwnFilter() {
+        CatalogFacetIndex.FacetCounts counts = facets.count(ACHAR, null, 100.0, 500.0);
+
+        assertThat(counts.total()).isEqualTo(1); // Product 2
+        assertThat(counts.categories()).containsEntry(ACHAR, 1L).containsEntry(RAITA, 1L);
+        assertThat(counts.regions()).containsOnlyKeys(PUNJAB);
+        assertThat(counts.priceBuckets()).containsExactly(1, 1, 0); // Category filter only
+    }
+
+    @Test
+    void followsUpdatesAndDeletes() {
+        upsert(4L, ACHAR, BIHAR, 90.0);
+        facets.onProductChanged(ProductChangedEvent.deleted(3L));
+
+        CatalogFacetIndex.FacetCounts counts = facets.count(null, PUNJAB, null, null);
+        assertThat(counts.total()).isEqualTo(1);
+        assertThat(counts.categories()).containsOnlyKeys(ACHAR);
+    }
+
+    @Test
+    void rebuildCatchesUpWithWritesThatNeverArrivedAsEvents() {
+        facets.count(null, null, null, null); // Loaded (from an empty table) plus the four events
+
+        // Another node added product 5 and deleted product 1; this node saw neither
+        when(productRepository.findAllFacetRows()).thenReturn(List.of(
+                row(2L, ACHAR, PUNJAB, 150.0),
+                row(3L, RAITA, PUNJAB, 120.0),
+                row(4L, RAITA, PUNJAB, 600.0),
+                row(5L, RAITA, BIHAR, 300.0)));
+        assertThat(facets.count(null, null, null, null).total()).isEqualTo(4);
+        assertThat(facets.count(null, BIHAR, null, null).categories()).containsOnlyKeys(ACHAR); // Still lagging
+
+        facets.rebuild();
+
+        CatalogFacetIndex.FacetCounts counts = facets.count(null, BIHAR, null, null);
+        assertThat(counts.total()).isEqualTo(1);
+        assertThat(counts.categories()).containsOnlyKeys(RAITA);
+        assertThat(facets.count(null, null, null, null).total()).isEqualTo(4);
+    }
+
+    private static ProductFacetView row(Long id, Long categoryId, Long regionId, Double price) {
+        return new ProductFacetView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getCategoryId() {
+                return categoryId;
+            }
+
+            @Override
+            public Long getRegionId() {
+                return regionId;
+            }
+
+            @Override
+            public Double getPrice() {
+                return price;
+            }
+        };
+    }
+
+    private void upsert(Long id, Long categoryId, Long regionId, Double price) {
+        facets.onProductChanged(ProductChangedEvent.upserted(ProductResponseDto.builder()
+                .id(id).categoryId(categoryId).regionId(regionId).price(price).build()));
+    }
+}
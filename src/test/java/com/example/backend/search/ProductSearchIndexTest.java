@@ -0,0 +1,98 @@
+package com.example.backend.search;
+
+import com.example.backend.dto.ProductResponseDto;
+import com.example.backend.repository.ProductListingView;
+import com.example.backend.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductSearchIndexTest {
+
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex(productRepository);
+        index.index(product(1L, "Mango Achar", "Sun-dried raw mango pickle", "Achar", "Bihar"));
+        index.index(product(2L, "Boondi Raita", "Yogurt with fried gram flour pearls", "Raita", "Punjab"));
+        index.index(product(3L, "Lemon Pickle", "Tangy lemon with a hint of mango", "Achar", "Kerala"));
+    }
+
+    @Test
+    void ranksNameMatchesAboveDescriptionMatches() {
+        assertThat(index.search("mango")).containsExactly(1L, 3L);
+    }
+
+    @Test
+    void foldsCaseAndAccents() {
+        assertThat(index.search("RÁITA")).containsExactly(2L);
+    }
+
+    @Test
+    void matchesCategoryAndRegionNames() {
+        assertThat(index.search("kerala achar")).first().isEqualTo(3L);
+    }
+
+    @Test
+    void treatsLastWordAsPrefix() {
+        assertThat(index.search("boon")).containsExactly(2L);
+    }
+
+    @Test
+    void toleratesTypos() {
+        assertThat(index.search("mago achr")).first().isEqualTo(1L);
+    }
+
+    @Test
+    void reflectsUpdatesAndDeletes() {
+        index.index(product(2L, "Cucumber Raita", "Chilled yogurt", "Raita", "Punjab"));
+        assertThat(index.search("boondi")).isEmpty();
+        assertThat(index.search("cucumber")).containsExactly(2L);
+
+        index.remove(2L);
+        assertThat(index.search("cucumber")).isEmpty();
+    }
+
+    @Test
+    void rebuildPicksUpWritesThisNodeNeverSawAsEvents() {
+        // Another node renamed 1, deleted 2 and added 4
+        when(productRepository.findAllListingsForIndex()).thenReturn(List.of(
+                row(1L, "Aam Achar", "Sun-dried raw mango pickle", "Achar", "Bihar"),
+                row(3L, "Lemon Pickle", "Tangy lemon with a hint of mango", "Achar", "Kerala"),
+                row(4L, "Gongura Pickle", "Sorrel leaves", "Achar", "Andhra")));
+
+        index.rebuild();
+
+        assertThat(index.isReady()).isTrue();
+        assertThat(index.search("aam")).containsExactly(1L);
+        assertThat(index.search("boondi")).isEmpty();
+        assertThat(index.search("gongura")).containsExactly(4L);
+    }
+
+    private static ProductListingView row(Long id, String name, String description, String category, String region) {
+        ProductListingView row = mock(ProductListingView.class);
+        when(row.getId()).thenReturn(id);
+        when(row.getName()).thenReturn(name);
+        when(row.getDescription()).thenReturn(description);
+        when(row.getCategoryName()).thenReturn(category);
+        when(row.getRegionName()).thenReturn(region);
+        return row;
+    }
+
+    private static ProductResponseDto product(Long id, String name, String description, String category, String region) {
+        return ProductResponseDto.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .categoryName(category)
+                .regionName(region)
+                .build();
+    }
+}
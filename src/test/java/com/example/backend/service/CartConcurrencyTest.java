@@ -0,0 +1,106 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.CartItemRequestDto;
+import com.example.backend.model.Cart;
+import com.example.backend.model.Category;
+import com.example.backend.model.Product;
+import com.example.backend.model.Region;
+import com.example.backend.model.Seller;
+import com.example.backend.model.User;
+import com.example.backend.repository.CartRepository;
+import com.example.backend.repository.ProductRepository;
+import com.example.backend.repository.UserRepository;
+import com.example.backend.support.CatalogFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Parallel adds of the same product (double-clicks) must merge into one line through the
+ * (cart_id, product_id) upsert instead of racing into duplicate rows.
+ */
+@SpringBootTest(properties = "catalog.cart.store=database")
+@ActiveProfiles("test")
+@Import(CatalogFixtures.class)
+class CartConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CatalogFixtures fixtures;
+
+    @AfterEach
+    void cleanUp() {
+        cartRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void parallelAddsOfSameProductSumIntoOneLine() throws Exception {
+        Category category = fixtures.category("Achar");
+        Region region = fixtures.region("Bihar");
+        Seller seller = fixtures.seller("Sita Devi");
+        Product product = fixtures.products(1, category, seller, region).get(0);
+        Long userId = userRepository.save(User.builder()
+                .fullName("Ravi Kumar")
+                .email(UUID.randomUUID() + "@example.com")
+                .password("secret123")
+                .phone("8888888888")
+                .build()).getId();
+        cartService.getUserCart(userId); // Cart row exists before the race
+
+        CartItemRequestDto request = new CartItemRequestDto();
+        request.setProductId(product.getId());
+        request.setQuantity(2);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> adds = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                adds.add(executor.submit(() -> {
+                    start.await();
+                    return cartService.addItemToCart(userId, request);
+                }));
+            }
+            start.countDown();
+            for (Future<?> add : adds) {
+                add.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Cart cart = cartRepository.findWithItemsByUserId(userId).orElseThrow();
+        assertThat(cart.getCartItems()).singleElement().satisfies(item -> {
+            assertThat(item.getQuantity()).isEqualTo(THREADS * 2);
+            assertThat(item.getTotalPrice()).isEqualTo(THREADS * 2 * product.getPrice());
+        });
+    }
+}
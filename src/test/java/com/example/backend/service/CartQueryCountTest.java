@@ -0,0 +1,164 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.CartBatchRequestDto;
+import com.example.backend.dto.CartItemRequestDto;
+import com.example.backend.dto.CartOperationDto;
+import com.example.backend.dto.CartResponseDto;
+import com.example.backend.model.Category;
+import com.example.backend.model.Product;
+import com.example.backend.model.Region;
+import com.example.backend.model.Seller;
+import com.example.backend.model.User;
+import com.example.backend.repository.CartRepository;
+import com.example.backend.repository.ProductRepository;
+import com.example.backend.repository.UserRepository;
+import com.example.backend.support.CatalogFixtures;
+import com.example.backend.support.StatementCounter;
+import com.example.backend.support.StatementCountingConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Database-backed carts: reads and mutations cost a fixed number of statements whatever the cart
+ * size: one fetch-joined load, plus the product lookup / write / re-read the mutation itself needs.
+ */
+@SpringBootTest(properties = "catalog.cart.store=database")
+@ActiveProfiles("test")
+@Import({StatementCountingConfig.class, CatalogFixtures.class})
+class CartQueryCountTest {
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CatalogFixtures fixtures;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    private Category category;
+    private Region region;
+    private Seller seller;
+
+    @BeforeEach
+    void seedCatalog() {
+        category = fixtures.category("Achar");
+        region = fixtures.region("Bihar");
+        seller = fixtures.seller("Sita Devi");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        cartRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void cartOperationsUseFixedStatementCount(int cartSize) {
+        List<Product> products = fixtures.products(cartSize + 1, category, seller, region);
+        Long userId = newUser();
+        for (Product product : products.subList(0, cartSize)) {
+            cartService.addItemToCart(userId, item(product.getId(), 1));
+        }
+        Product notInCart = products.get(cartSize);
+
+        // Load: cart + items + product names in one statement
+        CartResponseDto cart = count(1, () -> cartService.getUserCart(userId));
+        assertThat(cart.getItems()).hasSize(cartSize);
+        assertThat(cart.getItems()).allSatisfy(item -> assertThat(item.getProductName()).startsWith("Mango Achar"));
+
+        // Merge into an existing line: load + upsert + hold (upsert, guarded total) + re-read
+        // (product comes from the fetch join)
+        cart = count(5, () -> cartService.addItemToCart(userId, item(products.get(0).getId(), 2)));
+        assertThat(cart.getItems()).hasSize(cartSize);
+        assertThat(cart.getItems()).filteredOn(item -> item.getProductId().equals(products.get(0).getId()))
+                .singleElement().satisfies(item -> assertThat(item.getQuantity()).isEqualTo(3));
+
+        // New line: load + product + upsert + first hold of the product (upsert, guarded total
+        // misses, total row created, guarded total again) + re-read
+        cart = count(8, () -> cartService.addItemToCart(userId, item(notInCart.getId(), 1)));
+        assertThat(cart.getItems()).hasSize(cartSize + 1);
+        assertThat(cart.getTotalCartPrice()).isPositive();
+
+        // Clear: cart id lookup + one bulk DELETE, items never loaded + holds (lock, delete, totals)
+        cart = count(5, () -> cartService.clearCart(userId));
+        assertThat(cart.getItems()).isNull();
+        assertThat(cartRepository.findWithItemsByUserId(userId).orElseThrow().getCartItems()).isEmpty();
+    }
+
+    @Test
+    void batchUsesFixedStatementCount() {
+        List<Product> products = fixtures.products(20, category, seller, region);
+        Long userId = newUser();
+        cartService.addItemToCart(userId, item(products.get(0).getId(), 1));
+
+        List<CartOperationDto> operations = new ArrayList<>();
+        operations.add(operation(CartOperationDto.Type.SET, products.get(0).getId(), 4));
+        products.subList(1, 20).forEach(product -> operations.add(operation(CartOperationDto.Type.ADD, product.getId(), 1)));
+        CartBatchRequestDto batch = new CartBatchRequestDto();
+        batch.setOperations(operations);
+
+        // Load + product IN query + held-by-others lookup + UPDATE batch + INSERT batch + re-read,
+        // and the holds: lock + UPDATE batch + INSERT batch + guarded totals, total rows created, again
+        CartResponseDto cart = count(12, () -> cartService.applyBatch(userId, batch));
+        assertThat(cart.getItems()).hasSize(20);
+        assertThat(cart.getItems()).filteredOn(item -> item.getProductId().equals(products.get(0).getId()))
+                .singleElement().satisfies(item -> assertThat(item.getQuantity()).isEqualTo(4));
+    }
+
+    private Long newUser() {
+        return userRepository.save(User.builder()
+                .fullName("Ravi Kumar")
+                .email(UUID.randomUUID() + "@example.com")
+                .password("secret123")
+                .phone("8888888888")
+                .build()).getId();
+    }
+
+    private static CartOperationDto operation(CartOperationDto.Type type, Long productId, int quantity) {
+        CartOperationDto operation = new CartOperationDto();
+        operation.setType(type);
+        operation.setProductId(productId);
+        operation.setQuantity(quantity);
+        return operation;
+    }
+
+    private CartResponseDto count(int expected, Supplier<CartResponseDto> operation) {
+        statementCounter.start();
+        CartResponseDto response = operation.get();
+        int statements = statementCounter.stop();
+        assertThat(statements).as("statements").isEqualTo(expected);
+        return response;
+    }
+
+    private static CartItemRequestDto item(Long productId, int quantity) {
+        CartItemRequestDto request = new CartItemRequestDto();
+        request.setProductId(productId);
+        request.setQuantity(quantity);
+        return request;
+    }
+}
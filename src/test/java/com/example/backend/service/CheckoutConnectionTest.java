@@ -0,0 +1,127 @@
+package com.example.backend.service;
+
+import com.example.backend.cart.HotCartStore;
+import com.example.backend.dto.CartItemRequestDto;
+import com.example.backend.dto.OrderRequestDto;
+import com.example.backend.dto.OrderResponseDto;
+import com.example.backend.model.Category;
+import com.example.backend.model.Product;
+import com.example.backend.model.Region;
+import com.example.backend.model.Seller;
+import com.example.backend.model.User;
+import com.example.backend.repository.CartRepository;
+import com.example.backend.repository.OrderRepository;
+import com.example.backend.repository.ProductRepository;
+import com.example.backend.repository.UserRepository;
+import com.example.backend.support.CatalogFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A checkout with unflushed in-memory cart changes needs only one pooled connection at a time:
+ * the forced cart flush commits before the checkout transaction opens.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.hikari.maximum-pool-size=1",
+        "spring.datasource.hikari.connection-timeout=2000"
+})
+@ActiveProfiles("test")
+@Import(CatalogFixtures.class)
+class CheckoutConnectionTest {
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private HotCartStore cartStore;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CatalogFixtures fixtures;
+
+    @AfterEach
+    void cleanUp() {
+        orderRepository.deleteAll();
+        cartRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void checkoutWithDirtyCartRunsOnASingleConnectionPool() {
+        Product product = product();
+        Long userId = newUser();
+        cartService.addItemToCart(userId, item(product.getId(), 2)); // Only in memory until flushed
+
+        OrderResponseDto order = orderService.placeOrder(order(userId));
+
+        assertThat(order.getItems()).singleElement().satisfies(line -> assertThat(line.getQuantity()).isEqualTo(2));
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getStock()).isEqualTo(48);
+    }
+
+    @Test
+    void forcedFlushRefusesToJoinATransaction() {
+        Long userId = newUser();
+
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> cartStore.flush(userId)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("Cart flush must run outside a transaction");
+    }
+
+    private Product product() {
+        Category category = fixtures.category("Achar");
+        Region region = fixtures.region("Bihar");
+        Seller seller = fixtures.seller("Sita Devi");
+        return fixtures.products(1, category, seller, region).get(0);
+    }
+
+    private Long newUser() {
+        return userRepository.save(User.builder()
+                .fullName("Ravi Kumar")
+                .email(UUID.randomUUID() + "@example.com")
+                .password("secret123")
+                .phone("8888888888")
+                .build()).getId();
+    }
+
+    private static CartItemRequestDto item(Long productId, int quantity) {
+        CartItemRequestDto item = new CartItemRequestDto();
+        item.setProductId(productId);
+        item.setQuantity(quantity);
+        return item;
+    }
+
+    private static OrderRequestDto order(Long userId) {
+        OrderRequestDto request = new OrderRequestDto();
+        request.setUserId(userId);
+        request.setPaymentMethod("UPI");
+        request.setShippingAddress("12 MG Road, Patna");
+        return request;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.backend.service;
+
+import com.cloudinary.Cloudinary;
+import com.cloudinary.Uploader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CloudinaryServiceTest {
+
+    private static final String URL = "https://res.cloudinary.com/demo/image/upload/v1/products/front.jpg";
+
+    private final Cloudinary cloudinary = mock(Cloudinary.class);
+    private final Uploader uploader = mock(Uploader.class);
+    private final CloudinaryService service = new CloudinaryService(cloudinary);
+
+    // What the client was handed, checked while the upload is in progress
+    private final List<File> sent = new ArrayList<>();
+    private final List<byte[]> sentContent = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(cloudinary.uploader()).thenReturn(uploader);
+    }
+
+    @Test
+    void partIsSentFromATempFileThatIsDeletedAfterTheUpload() throws Exception {
+        byte[] image = UUID.randomUUID().toString().getBytes();
+        when(uploader.upload(any(), anyMap())).thenAnswer(invocation -> {
+            capture(invocation.getArgument(0));
+            return Map.of("secure_url", URL);
+        });
+
+        String url = service.uploadFile(new MockMultipartFile("images", "front.jpg", "image/jpeg", image));
+
+        assertThat(url).isEqualTo(URL);
+        assertThat(sent).hasSize(1);
+        assertThat(sentContent.get(0)).isEqualTo(image);
+        assertThat(sent.get(0)).doesNotExist();
+    }
+
+    @Test
+    void tempFileIsDeletedWhenTheUploadFails() throws Exception {
+        when(uploader.upload(any(), anyMap())).thenAnswer(invocation -> {
+            capture(invocation.getArgument(0));
+            throw new IOException("connection reset");
+        });
+
+        assertThatThrownBy(() -> service.uploadFile(
+                new MockMultipartFile("images", "front.jpg", "image/jpeg", "jpeg".getBytes())))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessage("Image upload failed");
+        assertThat(sent).hasSize(1);
+        assertThat(sent.get(0)).doesNotExist();
+    }
+
+    @Test
+    void publicIdDropsTheVersionSegmentAndExtension() {
+        assertThat(CloudinaryService.publicIdOf(URL)).isEqualTo("products/front");
+    }
+
+    private void capture(Object file) throws IOException {
+        File staged = (File) file;
+        sent.add(staged);
+        sentContent.add(Files.readAllBytes(staged.toPath()));
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.backend.service;
+
+import com.cloudinary.Cloudinary;
+import com.cloudinary.Uploader;
+import com.cloudinary.utils.ObjectUtils;
+import com.example.backend.support.Benchmark;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Heap bytes allocated by the calling thread to hand a disk-backed multipart part (what Tomcat gives
+ * us past the in-memory threshold) to the Cloudinary client: reading it with getBytes() against
+ * CloudinaryService's transferTo into a temp file. The client itself is mocked, so only the handoff
+ * is measured.
+ */
+@Benchmark
+class CloudinaryUploadAllocationBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(CloudinaryUploadAllocationBenchmark.class);
+
+    private static final int IMAGE_BYTES = 8 * 1024 * 1024;
+    private static final int RUNS = 5;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final Cloudinary cloudinary = mock(Cloudinary.class);
+    private final Path image;
+
+    CloudinaryUploadAllocationBenchmark() throws IOException {
+        Uploader uploader = mock(Uploader.class);
+        when(cloudinary.uploader()).thenReturn(uploader);
+        when(uploader.upload(any(), anyMap()))
+                .thenReturn(Map.of("secure_url", "https://res.cloudinary.com/demo/image/upload/v1/front.jpg"));
+
+        byte[] content = new byte[IMAGE_BYTES];
+        new Random(42).nextBytes(content);
+        image = Files.createTempFile("allocation-benchmark-", ".jpg");
+        Files.write(image, content);
+    }
+
+    @AfterEach
+    void cleanUp() throws IOException {
+        Files.deleteIfExists(image);
+    }
+
+    @Test
+    void transferToAllocatesFarLessThanGetBytes() {
+        CloudinaryService service = new CloudinaryService(cloudinary);
+
+        long getBytes = medianAllocatedBytes(part -> {
+            try {
+                cloudinary.uploader().upload(part.getBytes(), ObjectUtils.asMap("resource_type", "auto"));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        long transferTo = medianAllocatedBytes(service::uploadFile);
+
+        logger.info("{} KB part: getBytes() allocates {} KB, transferTo {} KB",
+                IMAGE_BYTES / 1024, getBytes / 1024, transferTo / 1024);
+
+        // getBytes() copies the whole image onto the heap; transferTo moves the file and copies nothing
+        assertThat(getBytes).isGreaterThanOrEqualTo(IMAGE_BYTES);
+        assertThat(transferTo).isLessThan(IMAGE_BYTES / 16);
+    }
+
+    // A fresh part for every run, since transferTo moves its file away
+    private long medianAllocatedBytes(Consumer<MultipartFile> upload) {
+        upload.accept(part()); // Warm-up: class loading and mock setup allocate too
+        long[] samples = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            MultipartFile part = part();
+            long before = threads.getCurrentThreadAllocatedBytes();
+            upload.accept(part);
+            samples[i] = threads.getCurrentThreadAllocatedBytes() - before;
+        }
+        Arrays.sort(samples);
+        return samples[RUNS / 2];
+    }
+
+    private MultipartFile part() {
+        try {
+            Path spooled = Files.createTempFile("upload-part-", ".tmp");
+            Files.copy(image, spooled, StandardCopyOption.REPLACE_EXISTING);
+            return new DiskBackedPart(spooled);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Stands in for a servlet part spooled to disk: getBytes() reads the whole file, transferTo
+     * renames it into place, as Tomcat's DiskFileItem does.
+     */
+    private record DiskBackedPart(Path file) implements MultipartFile {
+
+        @Override
+        public String getName() {
+            return "images";
+        }
+
+        @Override
+        public String getOriginalFilename() {
+            return "front.jpg";
+        }
+
+        @Override
+        public String getContentType() {
+            return "image/jpeg";
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return getSize() == 0;
+        }
+
+        @Override
+        public long getSize() {
+            try {
+                return Files.size(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public byte[] getBytes() throws IOException {
+            try {
+                return Files.readAllBytes(file);
+            } finally {
+                Files.deleteIfExists(file); // The request would clean it up; here nothing else will
+            }
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return Files.newInputStream(file);
+        }
+
+        @Override
+        public void transferTo(File dest) throws IOException {
+            transferTo(dest.toPath());
+        }
+
+        @Override
+        public void transferTo(Path dest) throws IOException {
+            Files.move(file, dest, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.backend.service;
+
+import com.example.backend.exception.ConcurrentUpdateException;
+import com.example.backend.model.Product;
+import com.example.backend.repository.ProductRepository;
+import com.example.backend.repository.StockWriteRepository;
+import com.example.backend.repository.StockWriteRepository.StockDeduction;
+import com.example.backend.retry.ConflictRetrier;
+import com.example.backend.support.Benchmark;
+import com.example.backend.support.BenchmarkTimer;
+import com.example.backend.support.CatalogFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Flash-sale stock deduction, before and after: the old load-check-save flow (read the product,
+ * check its stock in Java, save it under @Version) against the guarded UPDATE placeOrder sends now.
+ * Both run as one transaction per checkout with the same conflict retry, so the difference is the
+ * optimistic-lock conflicts (and their backoff) the old flow pays for under contention.
+ */
+@Benchmark
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(CatalogFixtures.class)
+class OrderStockContentionBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderStockContentionBenchmark.class);
+
+    private static final int THREADS = 16;
+    private static final int CHECKOUTS_PER_THREAD = 10;
+    private static final int STOCK = 100_000;
+
+    @Autowired
+    private StockWriteRepository stockWriteRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ConflictRetrier conflictRetrier;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private CatalogFixtures fixtures;
+
+    @AfterEach
+    void cleanUp() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void guardedUpdateOutrunsLoadCheckSave() {
+        Long productId = product();
+        AtomicInteger loadCheckSaveSold = new AtomicInteger();
+        AtomicInteger loadCheckSaveGaveUp = new AtomicInteger();
+        AtomicInteger guardedSold = new AtomicInteger();
+        AtomicInteger guardedGaveUp = new AtomicInteger();
+
+        long loadCheckSaveMicros = BenchmarkTimer.medianMicros(1, 5, () -> round(loadCheckSaveSold, loadCheckSaveGaveUp,
+                () -> conflictRetrier.execute("Benchmark.loadCheckSave", () -> transactionTemplate.execute(status -> {
+                    Product product = productRepository.findById(productId).orElseThrow();
+                    if (product.getStock() < 1) {
+                        throw new IllegalArgumentException("Insufficient stock for product: " + product.getName());
+                    }
+                    product.setStock(product.getStock() - 1);
+                    return productRepository.save(product);
+                }))));
+        long guardedMicros = BenchmarkTimer.medianMicros(1, 5, () -> round(guardedSold, guardedGaveUp,
+                () -> conflictRetrier.execute("Benchmark.guarded", () -> transactionTemplate.execute(status ->
+                        stockWriteRepository.decrement(List.of(new StockDeduction(productId, 1)))))));
+
+        int checkouts = THREADS * CHECKOUTS_PER_THREAD;
+        logger.info("load-check-save: {} ms per {} checkouts ({}/s), {} gave up after retries",
+                loadCheckSaveMicros / 1_000, checkouts, perSecond(checkouts, loadCheckSaveMicros),
+                loadCheckSaveGaveUp.get());
+        logger.info("guarded UPDATE:  {} ms per {} checkouts ({}/s), {} gave up after retries",
+                guardedMicros / 1_000, checkouts, perSecond(checkouts, guardedMicros), guardedGaveUp.get());
+
+        // Every checkout either sold a unit or gave up; nothing was lost or sold twice
+        assertThat(productRepository.findById(productId).orElseThrow().getStock())
+                .isEqualTo(STOCK - loadCheckSaveSold.get() - guardedSold.get());
+        assertThat(guardedGaveUp.get()).isZero();
+        assertThat(guardedMicros).isLessThan(loadCheckSaveMicros);
+    }
+
+    // THREADS threads, each running CHECKOUTS_PER_THREAD checkouts back to back, all started together
+    private void round(AtomicInteger sold, AtomicInteger gaveUp, Runnable checkout) {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS; i++) {
+                workers.add(executor.submit(() -> {
+                    start.await();
+                    for (int j = 0; j < CHECKOUTS_PER_THREAD; j++) {
+                        try {
+                            checkout.run();
+                            sold.incrementAndGet();
+                        } catch (ConcurrentUpdateException e) {
+                            gaveUp.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get(120, TimeUnit.SECONDS);
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Long product() {
+        Product product = fixtures.products(1, fixtures.category("Achar"), fixtures.seller("Sita Devi"),
+                fixtures.region("Bihar")).get(0);
+        product.setStock(STOCK);
+        return productRepository.save(product).getId();
+    }
+
+    private static long perSecond(int checkouts, long micros) {
+        return checkouts * 1_000_000L / Math.max(1, micros);
+    }
+}
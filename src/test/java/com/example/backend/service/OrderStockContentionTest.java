@@ -0,0 +1,150 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.CartItemRequestDto;
+import com.example.backend.dto.OrderRequestDto;
+import com.example.backend.inventory.StockReservationLedger;
+import com.example.backend.model.Category;
+import com.example.backend.model.Product;
+import com.example.backend.model.Region;
+import com.example.backend.model.Seller;
+import com.example.backend.model.User;
+import com.example.backend.repository.CartRepository;
+import com.example.backend.repository.OrderRepository;
+import com.example.backend.repository.ProductRepository;
+import com.example.backend.repository.UserRepository;
+import com.example.backend.support.CatalogFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Flash sale on one product: concurrent checkouts deduct stock with guarded UPDATEs, so exactly
+ * as many orders succeed as there are units, nobody oversells, and losers fail with a clean
+ * "Insufficient stock" instead of an optimistic-lock failure.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(CatalogFixtures.class)
+class OrderStockContentionTest {
+
+    private static final int BUYERS = 16;
+    private static final int STOCK = 10;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private StockReservationLedger reservations;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CatalogFixtures fixtures;
+
+    @AfterEach
+    void cleanUp() {
+        orderRepository.deleteAll();
+        cartRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentCheckoutsNeverOversell() throws Exception {
+        Category category = fixtures.category("Achar");
+        Region region = fixtures.region("Bihar");
+        Seller seller = fixtures.seller("Sita Devi");
+        Product product = fixtures.products(1, category, seller, region).get(0);
+        product.setStock(BUYERS);
+        productRepository.save(product);
+
+        List<Long> buyers = new ArrayList<>();
+        for (int i = 0; i < BUYERS; i++) {
+            Long userId = newUser();
+            CartItemRequestDto item = new CartItemRequestDto();
+            item.setProductId(product.getId());
+            item.setQuantity(1);
+            cartService.addItemToCart(userId, item);
+            reservations.releaseAll(userId); // Holds lapsed: the race is decided at checkout
+            buyers.add(userId);
+        }
+        // Stock sells down before the sale closes
+        Product forSale = productRepository.findById(product.getId()).orElseThrow();
+        forSale.setStock(STOCK);
+        productRepository.save(forSale);
+
+        ExecutorService executor = Executors.newFixedThreadPool(BUYERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> checkouts = new ArrayList<>();
+        try {
+            for (Long userId : buyers) {
+                checkouts.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        orderService.placeOrder(order(userId));
+                        return true;
+                    } catch (IllegalArgumentException e) {
+                        assertThat(e).hasMessageStartingWith("Insufficient stock");
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int succeeded = 0;
+            for (Future<Boolean> checkout : checkouts) {
+                if (checkout.get(60, TimeUnit.SECONDS)) {
+                    succeeded++;
+                }
+            }
+            assertThat(succeeded).isEqualTo(STOCK);
+            assertThat(productRepository.findById(product.getId()).orElseThrow().getStock()).isZero();
+            assertThat(orderRepository.count()).isEqualTo(STOCK);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Long newUser() {
+        return userRepository.save(User.builder()
+                .fullName("Ravi Kumar")
+                .email(UUID.randomUUID() + "@example.com")
+                .password("secret123")
+                .phone("8888888888")
+                .build()).getId();
+    }
+
+    private static OrderRequestDto order(Long userId) {
+        OrderRequestDto request = new OrderRequestDto();
+        request.setUserId(userId);
+        request.setPaymentMethod("UPI");
+        request.setShippingAddress("12 MG Road, Patna");
+        return request;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ProductImageUploaderTest {
+
+    private static final long LATENCY_MS = 300;
+
+    private final ImageStorage imageStorage = mock(ImageStorage.class);
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void wallTimeApproachesSlowestSingleUpload() {
+        // Fake uploader: fixed latency, echoes the file name back as the URL
+        when(imageStorage.uploadFile(any())).thenAnswer(invocation -> {
+            Thread.sleep(LATENCY_MS);
+            MultipartFile file = invocation.getArgument(0);
+            return "https://img.example.com/" + file.getOriginalFilename();
+        });
+        ProductImageUploader uploader = new ProductImageUploader(imageStorage, executor, 5);
+
+        long start = System.nanoTime();
+        List<String> urls = uploader.uploadAll(files(5));
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        // Serial would be 5 x 300ms; concurrent stays close to one upload
+        assertThat(elapsedMs).isLessThan(LATENCY_MS * 2);
+        assertThat(urls).containsExactly(
+                "https://img.example.com/0.jpg", "https://img.example.com/1.jpg", "https://img.example.com/2.jpg",
+                "https://img.example.com/3.jpg", "https://img.example.com/4.jpg");
+    }
+
+    @Test
+    void failedUploadDeletesTheOnesThatSucceeded() {
+        when(imageStorage.uploadFile(any())).thenAnswer(invocation -> {
+            MultipartFile file = invocation.getArgument(0);
+            if ("2.jpg".equals(file.getOriginalFilename())) {
+                throw new RuntimeException("Image upload failed");
+            }
+            Thread.sleep(50);
+            return "https://img.example.com/" + file.getOriginalFilename();
+        });
+        ProductImageUploader uploader = new ProductImageUploader(imageStorage, executor, 5);
+
+        assertThatThrownBy(() -> uploader.uploadAll(files(4))).hasMessage("Image upload failed");
+
+        verify(imageStorage, times(3)).deleteFile(any());
+        verify(imageStorage, never()).deleteFile("https://img.example.com/2.jpg");
+    }
+
+    @Test
+    void uploadExceedingTimeoutFailsTheBatch() {
+        when(imageStorage.uploadFile(any())).thenAnswer(invocation -> {
+            Thread.sleep(3_000);
+            return "https://img.example.com/slow.jpg";
+        });
+        ProductImageUploader uploader = new ProductImageUploader(imageStorage, executor, 1);
+
+        assertThatThrownBy(() -> uploader.uploadAll(files(1))).hasMessage("Image upload failed");
+    }
+
+    @Test
+    void uploadFinishingAfterTheTimeoutIsDeletedWhenItLands() {
+        when(imageStorage.uploadFile(any())).thenAnswer(invocation -> {
+            MultipartFile file = invocation.getArgument(0);
+            Thread.sleep("1.jpg".equals(file.getOriginalFilename()) ? 1_500 : 50);
+            return "https://img.example.com/" + file.getOriginalFilename();
+        });
+        ProductImageUploader uploader = new ProductImageUploader(imageStorage, executor, 1);
+
+        assertThatThrownBy(() -> uploader.uploadAll(files(2))).hasMessage("Image upload failed");
+        verify(imageStorage).deleteFile("https://img.example.com/0.jpg");
+
+        // The slow upload still succeeds after the batch gave up; its asset must not be orphaned
+        verify(imageStorage, timeout(5_000)).deleteFile("https://img.example.com/1.jpg");
+    }
+
+    private static List<MultipartFile> files(int count) {
+        return IntStream.range(0, count)
+                .<MultipartFile>mapToObj(i -> new MockMultipartFile("images", i + ".jpg", "image/jpeg", new byte[]{1, 2, 3}))
+                .toList();
+    }
+}
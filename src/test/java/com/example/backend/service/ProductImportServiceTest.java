@@ -0,0 +1,146 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.BulkImportResultDto;
+import com.example.backend.dto.BulkImportRowErrorDto;
+import com.example.backend.exception.InvalidImportFileException;
+import com.example.backend.model.Category;
+import com.example.backend.model.Region;
+import com.example.backend.model.Seller;
+import com.example.backend.repository.ProductRepository;
+import com.example.backend.support.CatalogFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.hamcrest.Matchers.startsWith;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "catalog.import.batch-size=3")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Import(CatalogFixtures.class)
+class ProductImportServiceTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductImportService productImportService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CatalogFixtures fixtures;
+
+    private Category category;
+    private Region region;
+    private Seller seller;
+
+    @BeforeEach
+    void seedReferenceData() {
+        category = fixtures.category("Achar");
+        region = fixtures.region("Bihar");
+        seller = fixtures.seller("Sita Devi");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void importsValidCsvRowsAcrossBatchesAndReportsBadOnes() {
+        StringBuilder csv = new StringBuilder("name,description,price,stock,categoryId,sellerId,regionId,imageUrls\n");
+        for (int i = 0; i < 7; i++) {
+            csv.append(row("Mango Achar " + i, "100", category.getId()))
+                    .append(",https://img.example.com/").append(i).append("-a.jpg|https://img.example.com/")
+                    .append(i).append("-b.jpg\n");
+        }
+        csv.append(row("\"Lime, Sweet\"", "abc", category.getId())).append(",\n"); // line 9: bad price
+        csv.append(row("Garlic Achar", "120", 999_999L)).append(",\n");           // line 10: unknown category
+        csv.append(row("Chili Achar", "-5", category.getId())).append(",\n");      // line 11: constraint
+
+        BulkImportResultDto result = importText(csv.toString(), ProductImportService.Format.CSV);
+
+        assertThat(result.getTotalRows()).isEqualTo(10);
+        assertThat(result.getImported()).isEqualTo(7);
+        assertThat(result.getFailed()).isEqualTo(3);
+        assertThat(result.getErrors()).extracting(BulkImportRowErrorDto::getRow).containsExactly(9, 10, 11);
+        assertThat(result.getErrors().get(1).getMessage()).contains("Category not found");
+        assertThat(productRepository.count()).isEqualTo(7);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM product_images", Long.class)).isEqualTo(14);
+    }
+
+    @Test
+    void importsJsonLines() {
+        String jsonl = """
+                {"name":"Boondi Raita","price":80,"stock":5,"categoryId":%d,"sellerId":%d,"regionId":%d,"imageUrls":["https://img.example.com/r.jpg"]}
+                {"name":"Mint Raita","price":90,"categoryId":%d,"sellerId":%d,"regionId":%d}
+                {"name":
+                """.formatted(category.getId(), seller.getId(), region.getId(),
+                category.getId(), seller.getId(), region.getId());
+
+        BulkImportResultDto result = importText(jsonl, ProductImportService.Format.JSON_LINES);
+
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getErrors()).singleElement()
+                .satisfies(error -> assertThat(error.getMessage()).startsWith("Malformed JSON"));
+        assertThat(productRepository.count()).isEqualTo(2);
+    }
+
+    @Test
+    void csvHeaderWithAnUnknownOrMissingColumnRejectsTheFileNamingIt() {
+        String unknown = "name,price,colour,categoryId,sellerId,regionId\n"
+                + "Mango Achar,120,red," + category.getId() + "," + seller.getId() + "," + region.getId() + "\n";
+        assertThatThrownBy(() -> importText(unknown, ProductImportService.Format.CSV))
+                .isInstanceOf(InvalidImportFileException.class)
+                .hasMessageStartingWith("CSV header has unknown column 'colour'");
+
+        String missing = "name,stock,categoryId,sellerId,regionId\n";
+        assertThatThrownBy(() -> importText(missing, ProductImportService.Format.CSV))
+                .isInstanceOf(InvalidImportFileException.class)
+                .hasMessageStartingWith("CSV header is missing column 'price'");
+        assertThat(productRepository.count()).isZero();
+    }
+
+    @Test
+    void badCsvHeaderIsA400NamingTheColumn() throws Exception {
+        MockMultipartFile file = new MockMultipartFile("file", "products.csv", "text/csv",
+                "name,prise,categoryId,sellerId,regionId\n".getBytes(StandardCharsets.UTF_8));
+
+        mockMvc.perform(multipart("/api/v1/products/import").file(file))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.imported").value(0))
+                .andExpect(jsonPath("$.errors[0].row").value(1))
+                .andExpect(jsonPath("$.errors[0].message").value(startsWith("CSV header has unknown column 'prise'")));
+    }
+
+    private String row(String name, String price, Long categoryId) {
+        return String.join(",", name, "Homemade", price, "10",
+                String.valueOf(categoryId), String.valueOf(seller.getId()), String.valueOf(region.getId()));
+    }
+
+    private BulkImportResultDto importText(String text, ProductImportService.Format format) {
+        return productImportService.importProducts(
+                new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8)), format);
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.ProductResponseDto;
+import com.example.backend.model.Category;
+import com.example.backend.model.Region;
+import com.example.backend.model.Seller;
+import com.example.backend.repository.ProductRepository;
+import com.example.backend.search.CatalogFacetIndex;
+import com.example.backend.search.ProductSearchIndex;
+import com.example.backend.support.CatalogFixtures;
+import com.example.backend.support.StatementCounter;
+import com.example.backend.support.StatementCountingConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pins every listing endpoint to a fixed number of statements: rows + count + images (index-backed
+ * totals skip the count).
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import({StatementCountingConfig.class, CatalogFixtures.class})
+class ProductListingQueryCountTest {
+
+    private static final int LISTING_STATEMENTS = 3;
+    private static final int INDEXED_SEARCH_STATEMENTS = 2; // rows by id + images, total comes from the index
+    private static final int BROWSE_STATEMENTS = 2; // rows (a slice) + images, total comes from the facet index
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductSearchIndex searchIndex;
+
+    @Autowired
+    private CatalogFacetIndex facetIndex;
+
+    @Autowired
+    private CatalogFixtures fixtures;
+
+    @Autowired
+    private StatementCounter statementCounter;
+
+    private Category category;
+    private Region region;
+
+    @BeforeEach
+    void seedCatalog() {
+        category = fixtures.category("Achar");
+        region = fixtures.region("Bihar");
+        Seller seller = fixtures.seller("Sita Devi");
+        fixtures.products(40, category, seller, region);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void getAllProductsUsesFixedStatementCount() {
+        assertFixedStatementCount(productService::getAllProducts, LISTING_STATEMENTS);
+    }
+
+    @Test
+    void getProductsByCategoryUsesFixedStatementCount() {
+        assertFixedStatementCount(pageable -> productService.getProductsByCategory(category.getId(), pageable),
+                LISTING_STATEMENTS);
+    }
+
+    @Test
+    void getProductsByRegionUsesFixedStatementCount() {
+        assertFixedStatementCount(pageable -> productService.getProductsByRegion(region.getId(), pageable),
+                LISTING_STATEMENTS);
+    }
+
+    @Test
+    void searchProductsByNameUsesFixedStatementCount() {
+        // Fixtures bypass the service, so index them explicitly
+        searchIndex.rebuild();
+        assertFixedStatementCount(pageable -> productService.searchProductsByName("mango", pageable),
+                INDEXED_SEARCH_STATEMENTS);
+    }
+
+    @Test
+    void browseCatalogUsesFixedStatementCount() {
+        // Fixtures bypass the service, so the facet total only catches up at the next rebuild
+        facetIndex.rebuild();
+        assertFixedStatementCount(pageable -> productService.browseCatalog(
+                category.getId(), region.getId(), null, 200.0, pageable).getProducts(), BROWSE_STATEMENTS);
+
+        Page<ProductResponseDto> page = productService.browseCatalog(
+                category.getId(), region.getId(), 110.0, 119.0, PageRequest.of(0, 20, Sort.by("price"))).getProducts();
+        assertThat(page.getTotalElements()).isEqualTo(10);
+        assertThat(page.getContent()).extracting(ProductResponseDto::getPrice)
+                .containsExactly(110.0, 111.0, 112.0, 113.0, 114.0, 115.0, 116.0, 117.0, 118.0, 119.0);
+    }
+
+    private void assertFixedStatementCount(Function<Pageable, Page<ProductResponseDto>> listing, int expected) {
+        for (int size : new int[]{5, 10, 30}) {
+            statementCounter.start();
+            Page<ProductResponseDto> page = listing.apply(PageRequest.of(0, size, Sort.by("createdAt")));
+            int statements = statementCounter.stop();
+
+            assertThat(page.getContent()).hasSize(size);
+            assertThat(page.getContent()).allSatisfy(product -> {
+                assertThat(product.getCategoryName()).startsWith("Achar");
+                assertThat(product.getSellerName()).isEqualTo("Sita Devi");
+                assertThat(product.getImageUrls()).isNull(); // List views carry only the primary thumbnail
+                assertThat(product.getThumbnailUrl()).startsWith("https://img.example.com/").endsWith("-a.jpg"); // Index 0
+            });
+            assertThat(statements).as("statements for page size %d", size).isEqualTo(expected);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.ProductRequestDto;
+import com.example.backend.dto.RetryStatsDto;
+import com.example.backend.exception.ConcurrentUpdateException;
+import com.example.backend.model.Category;
+import com.example.backend.model.Product;
+import com.example.backend.model.Region;
+import com.example.backend.model.Seller;
+import com.example.backend.repository.ProductRepository;
+import com.example.backend.retry.ConflictRetrier;
+import com.example.backend.support.CatalogFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 64 writers update one product once each, at the same moment, under the shipped retry policy
+ * (catalog.retry.*). Every call ends in one of two ways: its update lands, moving the version by
+ * exactly one, or it runs out of attempts and answers 409 with nothing applied, so the client can
+ * re-read and resubmit (see ConcurrentUpdateException). No call gives up before its last attempt,
+ * and the final row is one of the landed updates.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(CatalogFixtures.class)
+class ProductUpdateRetryTest {
+
+    private static final int WRITERS = 64;
+
+    @Value("${catalog.retry.max-attempts}")
+    private int maxAttempts;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ConflictRetrier conflictRetrier;
+
+    @Autowired
+    private CatalogFixtures fixtures;
+
+    @AfterEach
+    void cleanUp() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentUpdatesEitherLandOnceOrGiveUpUntouched() throws Exception {
+        Category category = fixtures.category("Achar");
+        Region region = fixtures.region("Bihar");
+        Seller seller = fixtures.seller("Sita Devi");
+        Product product = fixtures.products(1, category, seller, region).get(0);
+        long initialVersion = product.getVersion();
+        RetryStatsDto before = updateStats();
+
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> writes = new ArrayList<>();
+        Set<Integer> landedStocks = ConcurrentHashMap.newKeySet();
+        try {
+            for (int i = 0; i < WRITERS; i++) {
+                // A distinct stock per writer, so every update is a real change
+                int stock = 1000 + i;
+                ProductRequestDto update = ProductRequestDto.builder()
+                        .name(product.getName())
+                        .price(product.getPrice())
+                        .stock(stock)
+                        .categoryId(category.getId())
+                        .sellerId(seller.getId())
+                        .regionId(region.getId())
+                        .build();
+                writes.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        productService.updateProduct(product.getId(), update, List.of());
+                        landedStocks.add(stock);
+                        return true;
+                    } catch (ConcurrentUpdateException e) {
+                        return false; // 409
+                    }
+                }));
+            }
+            start.countDown();
+            for (Future<Boolean> write : writes) {
+                write.get(120, TimeUnit.SECONDS); // Throws if a writer failed any other way
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        RetryStatsDto after = updateStats();
+        long calls = after.getCalls() - before.getCalls();
+        long retries = after.getRetries() - before.getRetries();
+        long giveUps = after.getGiveUps() - before.getGiveUps();
+        int landed = landedStocks.size();
+
+        // Each call was one submission that landed or gave up; the first committer always lands
+        assertThat(calls).isEqualTo(WRITERS);
+        assertThat(landed + giveUps).isEqualTo(WRITERS);
+        assertThat(landed).isPositive();
+
+        // Give-ups are bounded by the policy: only after maxAttempts conflicts, never sooner
+        assertThat(retries).isBetween(giveUps * (maxAttempts - 1), (long) WRITERS * (maxAttempts - 1));
+        assertThat(after.getConflicts() - before.getConflicts()).isEqualTo(retries + giveUps);
+
+        // One version per landed update; a 409 left no trace
+        Product updated = productRepository.findById(product.getId()).orElseThrow();
+        assertThat(updated.getVersion()).isEqualTo(initialVersion + landed);
+        assertThat(updated.getStock()).isIn(landedStocks);
+    }
+
+    // Counters are per context, so tests compare before and after
+    private RetryStatsDto updateStats() {
+        return conflictRetrier.stats().stream()
+                .filter(entry -> entry.getOperation().equals("ProductService.updateProduct"))
+                .findFirst()
+                .orElseGet(() -> RetryStatsDto.builder().operation("ProductService.updateProduct").build());
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.CartItemRequestDto;
+import com.example.backend.dto.OrderRequestDto;
+import com.example.backend.event.ProductChangedEvent;
+import com.example.backend.inventory.StockReservationLedger;
+import com.example.backend.model.Product;
+import com.example.backend.model.User;
+import com.example.backend.repository.CartRepository;
+import com.example.backend.repository.OrderRepository;
+import com.example.backend.repository.ProductRepository;
+import com.example.backend.repository.UserRepository;
+import com.example.backend.support.Benchmark;
+import com.example.backend.support.BenchmarkTimer;
+import com.example.backend.support.CatalogFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.event.EventListener;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checkout throughput of one hot product striped across one bucket against eight, through
+ * placeOrder. Every checkout keeps its transaction open for ORDER_WORK_MS after its stock take
+ * (see OrderWork), standing in for the rest of a real order: with one bucket the checkouts queue
+ * on that row's lock, with eight they mostly hold different rows.
+ */
+@Benchmark
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(CatalogFixtures.class)
+class StripedStockCheckoutBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(StripedStockCheckoutBenchmark.class);
+
+    private static final int CHECKOUTS = 24;
+    private static final int STOCK = 10_000;
+    private static final long ORDER_WORK_MS = 20;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private StockReservationLedger reservations;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CatalogFixtures fixtures;
+
+    /**
+     * Runs synchronously when checkout publishes its stock change, i.e. inside the checkout
+     * transaction after the bucket take, so the bucket stays locked for ORDER_WORK_MS.
+     */
+    @TestConfiguration
+    static class OrderWork {
+
+        @EventListener
+        public void onProductChanged(ProductChangedEvent event) {
+            if (event.type() == ProductChangedEvent.Type.STOCK_CHANGED) {
+                try {
+                    Thread.sleep(ORDER_WORK_MS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    private record Round(Long productId, List<Long> buyers) { }
+
+    @AfterEach
+    void cleanUp() {
+        orderRepository.deleteAll();
+        cartRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void checkoutThroughputScalesWithBucketCount() {
+        List<Round> rounds = new ArrayList<>();
+        long oneBucketMicros = BenchmarkTimer.medianMicros(1, 3, () -> round(1, rounds), this::checkOutTogether);
+        long eightBucketMicros = BenchmarkTimer.medianMicros(1, 3, () -> round(8, rounds), this::checkOutTogether);
+
+        logger.info("1 bucket:  {} ms per {} checkouts ({}/s)",
+                oneBucketMicros / 1_000, CHECKOUTS, perSecond(oneBucketMicros));
+        logger.info("8 buckets: {} ms per {} checkouts ({}/s)",
+                eightBucketMicros / 1_000, CHECKOUTS, perSecond(eightBucketMicros));
+
+        // Every checkout sold its unit, from whichever bucket
+        for (Round round : rounds) {
+            assertThat(productService.getProduct(round.productId()).getStock()).isEqualTo(STOCK - CHECKOUTS);
+        }
+        // One bucket serializes the order work; eight overlap most of it
+        assertThat(oneBucketMicros).isGreaterThanOrEqualTo(CHECKOUTS * ORDER_WORK_MS * 1_000);
+        assertThat(eightBucketMicros * 2).isLessThan(oneBucketMicros);
+    }
+
+    // Untimed: a fresh striped product and CHECKOUTS users with one unit of it in their cart
+    private Round round(int buckets, List<Round> rounds) {
+        Product product = fixtures.products(1, fixtures.category("Achar"), fixtures.seller("Sita Devi"),
+                fixtures.region("Bihar")).get(0);
+        product.setStock(STOCK);
+        Long productId = productRepository.save(product).getId();
+
+        List<Long> buyers = new ArrayList<>();
+        for (int i = 0; i < CHECKOUTS; i++) {
+            Long userId = newUser();
+            CartItemRequestDto item = new CartItemRequestDto();
+            item.setProductId(productId);
+            item.setQuantity(1);
+            cartService.addItemToCart(userId, item);
+            reservations.releaseAll(userId); // Holds are not what this measures
+            buyers.add(userId);
+        }
+        productService.setStockBuckets(productId, buckets);
+
+        Round round = new Round(productId, buyers);
+        rounds.add(round);
+        return round;
+    }
+
+    // Timed: every buyer places their order at once
+    private void checkOutTogether(Round round) {
+        ExecutorService executor = Executors.newFixedThreadPool(CHECKOUTS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> checkouts = new ArrayList<>();
+        try {
+            for (Long userId : round.buyers()) {
+                checkouts.add(executor.submit(() -> {
+                    start.await();
+                    return orderService.placeOrder(order(userId));
+                }));
+            }
+            start.countDown();
+            for (Future<?> checkout : checkouts) {
+                checkout.get(120, TimeUnit.SECONDS);
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Long newUser() {
+        return userRepository.save(User.builder()
+                .fullName("Ravi Kumar")
+                .email(UUID.randomUUID() + "@example.com")
+                .password("secret123")
+                .phone("8888888888")
+                .build()).getId();
+    }
+
+    private static OrderRequestDto order(Long userId) {
+        OrderRequestDto request = new OrderRequestDto();
+        request.setUserId(userId);
+        request.setPaymentMethod("UPI");
+        request.setShippingAddress("12 MG Road, Patna");
+        return request;
+    }
+
+    private static long perSecond(long micros) {
+        return CHECKOUTS * 1_000_000L / Math.max(1, micros);
+    }
+}
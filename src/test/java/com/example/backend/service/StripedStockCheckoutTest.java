@@ -0,0 +1,225 @@
+package com.example.backend.service;
+
+import com.example.backend.dto.CartItemRequestDto;
+import com.example.backend.dto.OrderRequestDto;
+import com.example.backend.dto.ProductResponseDto;
+import com.example.backend.inventory.StockReservationLedger;
+import com.example.backend.inventory.StripedStock;
+import com.example.backend.model.Category;
+import com.example.backend.model.Product;
+import com.example.backend.model.Region;
+import com.example.backend.model.Seller;
+import com.example.backend.model.User;
+import com.example.backend.repository.CartRepository;
+import com.example.backend.repository.OrderRepository;
+import com.example.backend.repository.ProductRepository;
+import com.example.backend.repository.UserRepository;
+import com.example.backend.support.CatalogFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Striped inventory: checkouts of one hot product spread over bucket rows. Sells exactly the
+ * stock, also while buckets run dry and rebalance, and keeps the published stock exact. The
+ * throughput side is StripedStockCheckoutBenchmark.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Import(CatalogFixtures.class)
+class StripedStockCheckoutTest {
+
+    private static final int BUYERS = 24;
+    private static final int STOCK = 20;
+    private static final int BUCKETS = 8;
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private StripedStock stripedStock;
+
+    @Autowired
+    private StockReservationLedger reservations;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CatalogFixtures fixtures;
+
+    @AfterEach
+    void cleanUp() {
+        orderRepository.deleteAll();
+        cartRepository.deleteAll();
+        productRepository.deleteAll();
+    }
+
+    @Test
+    void stripedCheckoutsSellExactlyTheStock() throws Exception {
+        Product product = product(BUYERS);
+        List<Long> buyers = buyers(product, BUYERS, 1);
+        forSale(product, STOCK);
+
+        productService.setStockBuckets(product.getId(), BUCKETS);
+        ProductResponseDto before = productService.getProduct(product.getId());
+        assertThat(before.getStock()).isEqualTo(STOCK);
+        assertThat(productService.getStockBuckets(product.getId()).getBucketStock())
+                .hasSize(BUCKETS).allMatch(stock -> stock >= 2);
+
+        assertThat(checkOutTogether(buyers)).isEqualTo(STOCK);
+
+        // Bucket writes never touch the product row, yet the published stock and version move
+        ProductResponseDto after = productService.getProduct(product.getId());
+        assertThat(after.getStock()).isZero();
+        assertThat(after.getVersion()).isGreaterThan(before.getVersion());
+        assertThat(productRepository.findVersionById(product.getId()).orElseThrow()).isEqualTo(after.getVersion());
+        assertThat(productService.getStockBuckets(product.getId()).getBucketStock()).allMatch(stock -> stock == 0);
+        assertThat(orderRepository.count()).isEqualTo(STOCK);
+    }
+
+    /**
+     * Buckets of 3 or 4 units against orders of 3: most buckets cover one order, so most
+     * checkouts after the first few miss and rebalance, all at once, each locking every bucket.
+     * They must queue rather than deadlock or give up, and still sell exactly the stock.
+     */
+    @Test
+    void concurrentRebalancesSellExactlyTheStock() throws Exception {
+        int quantity = 3;
+        int stock = 31; // 10 orders, 1 unit left over
+        Product product = product(BUYERS * quantity);
+        List<Long> buyers = buyers(product, BUYERS, quantity);
+        forSale(product, stock);
+        productService.setStockBuckets(product.getId(), BUCKETS);
+        long rebalancesBefore = stripedStock.stats().getRebalances();
+
+        // A ConcurrentUpdateException (retries exhausted) fails the checkout's future, and the test
+        assertThat(checkOutTogether(buyers)).isEqualTo(stock / quantity);
+
+        assertThat(stripedStock.stats().getRebalances()).isGreaterThan(rebalancesBefore);
+        assertThat(productService.getProduct(product.getId()).getStock()).isEqualTo(stock % quantity);
+        assertThat(productService.getStockBuckets(product.getId()).getBucketStock().stream()
+                .mapToInt(Integer::intValue).sum()).isEqualTo(stock % quantity);
+    }
+
+    @Test
+    void restripingKeepsTheTotal() {
+        Product product = product(23);
+
+        productService.setStockBuckets(product.getId(), 4);
+        assertThat(productService.getStockBuckets(product.getId()).getBucketStock()).containsExactly(6, 6, 6, 5);
+
+        productService.setStockBuckets(product.getId(), 0);
+        assertThat(productService.getStockBuckets(product.getId()).getBucketStock()).isEmpty();
+        assertThat(productRepository.findById(product.getId()).orElseThrow().getStock()).isEqualTo(23);
+        assertThat(productService.getProduct(product.getId()).getStock()).isEqualTo(23);
+    }
+
+    // Users with the product in their cart; their holds lapse, so the race is decided at checkout
+    private List<Long> buyers(Product product, int count, int quantity) {
+        List<Long> buyers = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Long userId = newUser();
+            CartItemRequestDto item = new CartItemRequestDto();
+            item.setProductId(product.getId());
+            item.setQuantity(quantity);
+            cartService.addItemToCart(userId, item);
+            reservations.releaseAll(userId);
+            buyers.add(userId);
+        }
+        return buyers;
+    }
+
+    private void forSale(Product product, int stock) {
+        Product forSale = productRepository.findById(product.getId()).orElseThrow();
+        forSale.setStock(stock);
+        productRepository.save(forSale);
+    }
+
+    // Every buyer places their order at once; returns how many went through
+    private int checkOutTogether(List<Long> buyers) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(buyers.size());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> checkouts = new ArrayList<>();
+        try {
+            for (Long userId : buyers) {
+                checkouts.add(executor.submit(() -> {
+                    start.await();
+                    try {
+                        orderService.placeOrder(order(userId));
+                        return true;
+                    } catch (IllegalArgumentException e) {
+                        assertThat(e).hasMessageStartingWith("Insufficient stock");
+                        return false;
+                    }
+                }));
+            }
+            start.countDown();
+
+            int succeeded = 0;
+            for (Future<Boolean> checkout : checkouts) {
+                if (checkout.get(60, TimeUnit.SECONDS)) {
+                    succeeded++;
+                }
+            }
+            return succeeded;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Product product(int stock) {
+        Category category = fixtures.category("Achar");
+        Region region = fixtures.region("Bihar");
+        Seller seller = fixtures.seller("Sita Devi");
+        Product product = fixtures.products(1, category, seller, region).get(0);
+        product.setStock(stock);
+        return productRepository.save(product);
+    }
+
+    private Long newUser() {
+        return userRepository.save(User.builder()
+                .fullName("Ravi Kumar")
+                .email(UUID.randomUUID() + "@example.com")
+                .password("secret123")
+                .phone("8888888888")
+                .build()).getId();
+    }
+
+    private static OrderRequestDto order(Long userId) {
+        OrderRequestDto request = new OrderRequestDto();
+        request.setUserId(userId);
+        request.setPaymentMethod("UPI");
+        request.setShippingAddress("12 MG Road, Patna");
+        return request;
+    }
+}
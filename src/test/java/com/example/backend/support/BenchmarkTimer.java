@@ -0,0 +1,35 @@
+package com.example.backend.support;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Median wall-clock time of a repeated action, after a few untimed warm-up runs.
+ */
+public final class BenchmarkTimer {
+
+    private BenchmarkTimer() {
+    }
+
+    public static long medianMicros(int warmups, int runs, Runnable action) {
+        return medianMicros(warmups, runs, () -> null, ignored -> action.run());
+    }
+
+    // As above, with an untimed setup before every run whose result the run works on
+    public static <T> long medianMicros(int warmups, int runs, Supplier<T> setup, Consumer<T> action) {
+        for (int i = 0; i < warmups; i++) {
+            action.accept(setup.get());
+        }
+        long[] samples = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            T input = setup.get();
+            long started = System.nanoTime();
+            action.accept(input);
+            samples[i] = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - started);
+        }
+        Arrays.sort(samples);
+        return samples[runs / 2];
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.backend.support;
+
+import com.example.backend.model.Category;
+import com.example.backend.model.Product;
+import com.example.backend.model.Region;
+import com.example.backend.model.Seller;
+import com.example.backend.repository.CategoryRepository;
+import com.example.backend.repository.ProductRepository;
+import com.example.backend.repository.RegionRepository;
+import com.example.backend.repository.SellerRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.test.context.TestComponent;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Seeds catalog rows straight through the repositories (no service side effects).
+ */
+@TestComponent
+@RequiredArgsConstructor
+public class CatalogFixtures {
+
+    private final CategoryRepository categoryRepository;
+    private final SellerRepository sellerRepository;
+    private final RegionRepository regionRepository;
+    private final ProductRepository productRepository;
+
+    public Category category(String name) {
+        return categoryRepository.save(Category.builder().name(name + "-" + suffix()).build());
+    }
+
+    public Region region(String name) {
+        return regionRepository.save(Region.builder().name(name + "-" + suffix()).build());
+    }
+
+    public Seller seller(String ownerName) {
+        return sellerRepository.save(Seller.builder()
+                .shopName(ownerName + " Pickles")
+                .ownerName(ownerName)
+                .email(suffix() + "@example.com")
+                .password("secret123")
+                .phone("9999999999")
+                .businessAddress("Patna")
+                .build());
+    }
+
+    public List<Product> products(int count, Category category, Seller seller, Region region) {
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            products.add(Product.builder()
+                    .name("Mango Achar " + i)
+                    .description("Sun-dried mango pickle")
+                    .price(100.0 + i)
+                    .stock(50)
+                    .category(category)
+                    .seller(seller)
+                    .region(region)
+                    .imageUrls(new ArrayList<>(List.of("https://img.example.com/" + i + "-a.jpg",
+                            "https://img.example.com/" + i + "-b.jpg")))
+                    .build());
+        }
+        return productRepository.saveAll(products);
+    }
+
+    private static String suffix() {
+        return UUID.randomUUID().toString().substring(0, 8);
+    }
+}
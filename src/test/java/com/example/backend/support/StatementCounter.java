@@ -0,0 +1,41 @@
+package com.example.backend.support;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts JDBC statements prepared on the calling thread between {@link #start()} and {@link #stop()},
+ * keeping their SQL. Background threads (schedulers, flushers) are ignored so counts stay deterministic.
+ */
+public class StatementCounter {
+
+    private final AtomicInteger count = new AtomicInteger();
+    private final List<String> statements = new CopyOnWriteArrayList<>();
+    private volatile Thread owner;
+
+    public void start() {
+        count.set(0);
+        statements.clear();
+        owner = Thread.currentThread();
+    }
+
+    public int stop() {
+        owner = null;
+        return count.get();
+    }
+
+    // SQL of the statements prepared since start(); plain createStatement calls are counted but have no SQL
+    public List<String> statements() {
+        return List.copyOf(statements);
+    }
+
+    void recordStatement(String sql) {
+        if (owner == Thread.currentThread()) {
+            count.incrementAndGet();
+            if (sql != null) {
+                statements.add(sql);
+            }
+        }
+    }
+}
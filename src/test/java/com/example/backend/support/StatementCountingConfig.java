@@ -0,0 +1,61 @@
+package com.example.backend.support;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.Set;
+
+/**
+ * Wraps the DataSource so every statement created through it (Hibernate or JdbcTemplate) is
+ * reported to the {@link StatementCounter} bean.
+ */
+@TestConfiguration
+public class StatementCountingConfig {
+
+    private static final Set<String> STATEMENT_FACTORIES = Set.of("prepareStatement", "prepareCall", "createStatement");
+
+    private static final StatementCounter COUNTER = new StatementCounter();
+
+    @Bean
+    public static StatementCounter statementCounter() {
+        return COUNTER;
+    }
+
+    @Bean
+    public static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource) {
+                    return proxy(DataSource.class, dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static <T> T proxy(Class<T> type, T target) {
+        InvocationHandler handler = (p, method, args) -> {
+            if (STATEMENT_FACTORIES.contains(method.getName())) {
+                COUNTER.recordStatement(args != null && args.length > 0 && args[0] instanceof String sql ? sql : null);
+            }
+            try {
+                Object result = method.invoke(target, args);
+                if ("getConnection".equals(method.getName())) {
+                    return proxy(Connection.class, (Connection) result);
+                }
+                return result;
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        };
+        return type.cast(Proxy.newProxyInstance(
+                StatementCountingConfig.class.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+}